@@ -48,6 +48,7 @@ import de.jeanpierrehotz.falseprogramminglanguage.compiler.error.CompileErrorCol
 import de.jeanpierrehotz.falseprogramminglanguage.data.FalseProgram;
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
 import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
+import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseScheduler;
 import de.jeanpierrehotz.falseprogramminglanguage.language.FalseLanguageDefinition;
 
 import javax.swing.ImageIcon;
@@ -147,6 +148,11 @@ public class FalseIDE extends JFrame {
      * Restricts actions like compiling or executing a project and exiting the application.
      */
     private boolean currentlyExecuted;
+    /**
+     * The scheduler that executes the programs on its carrier thread instead of a new thread for every execution.
+     * Since every program shares the console only one program is executed at a time though.
+     */
+    private FalseScheduler scheduler;
 
     /**
      * The constructor for a FalseIDE.
@@ -322,6 +328,9 @@ public class FalseIDE extends JFrame {
         currentProgramsInterpreter = null;
         currentlyExecuted = false;
 
+//      the programs are executed by a scheduler with a single carrier thread
+        scheduler = new FalseScheduler(1);
+
 //      we assign the KeyListener that detects any changes in the source code
         uiForm.addFileEditorKeyListener(new KeyAdapter() {
             @Override
@@ -750,38 +759,8 @@ public class FalseIDE extends JFrame {
                 }
             });
 
-//          afterwards we'll start the actual execution on its own thread
-            new Thread(() -> {
-                try {
-                    currentProgramsInterpreter.execute();
-                }
-//              if there is an interpreterror
-                catch (InterpretError interpretError) {
-//                  if the user wants every error to be logged
-                    if (settings.isToBeLogged(Ressources.LoggingLevels.EVERY)) {
-//                      log the error
-                        log.logMessage(Ressources.ERROR_EXECUTEPROJECT_INTERPRETERROR);
-                        log.logThrowable(interpretError);
-                    }
-
-//                  and print the message of the InterpretationError
-//                  ending of the program and signalizing the end of the program is handled by the FalseInterpreter
-                    System.out.println(interpretError.getMessage());
-                }
-//              if for any reason there is another kind of exception or error
-                catch (Exception | Error exc) {
-//                  if the user wants fatal errors to be logged
-                    if (settings.isToBeLogged(Ressources.LoggingLevels.FATAL)) {
-//                      log the error
-                        log.logMessage(Ressources.ERROR_EXECUTEPROJECT_OTHEREXCEPTION);
-                        log.logThrowable(exc);
-                    }
-
-//                  print the message of the Error and signalize that the program has actually ended
-                    System.out.println(Ressources.PROGRAM_EXECUTION_ENDED_AFTER_ERROR);
-                    signalizeExecution(false);
-                }
-            }).start();
+//          afterwards we'll let the scheduler execute the program on one of its carrier threads
+            scheduleExecution();
         }
 //      if the user had to be restricted since there already was a program running we'll tell him that he's not allowed to do that
         else {
@@ -848,38 +827,8 @@ public class FalseIDE extends JFrame {
                     }
                 });
 
-//              afterwards we'll start the actual execution on its own thread
-                new Thread(() -> {
-                    try {
-                        currentProgramsInterpreter.execute();
-                    }
-//                  if there is an interpreterror
-                    catch (InterpretError interpretError) {
-//                      if the user wants every error to be logged
-                        if (settings.isToBeLogged(Ressources.LoggingLevels.EVERY)) {
-//                          log the error
-                            log.logMessage(Ressources.ERROR_EXECUTEPROJECT_INTERPRETERROR);
-                            log.logThrowable(interpretError);
-                        }
-
-//                      and print the message of the InterpretationError
-//                      ending of the program and signalizing the end of the program is handled by the FalseInterpreter
-                        System.out.println(interpretError.getMessage());
-                    }
-//                  if for any reason there is another kind of exception or error
-                    catch (Exception | Error exc) {
-//                      if the user wants fatal errors to be logged
-                        if (settings.isToBeLogged(Ressources.LoggingLevels.FATAL)) {
-//                          log the error
-                            log.logMessage(Ressources.ERROR_EXECUTEPROJECT_OTHEREXCEPTION);
-                            log.logThrowable(exc);
-                        }
-
-//                      print the message of the Error and signalize that the program has actually ended
-                        System.out.println(Ressources.PROGRAM_EXECUTION_ENDED_AFTER_ERROR);
-                        signalizeExecution(false);
-                    }
-                }).start();
+//              afterwards we'll let the scheduler execute the program on one of its carrier threads
+                scheduleExecution();
             } catch (IOException e) {
 //              if the user wants moderate errors to be logged
                 if (settings.isToBeLogged(Ressources.LoggingLevels.MODERATE)) {
@@ -898,6 +847,46 @@ public class FalseIDE extends JFrame {
         }
     }
 
+    /**
+     * This method submits the current programs interpreter to the scheduler and handles any error
+     * that occurs while executing the program.
+     */
+    private void scheduleExecution() {
+        scheduler.submit(currentProgramsInterpreter).whenComplete((interpreter, error) -> {
+//          if the program has ended without any error there's nothing left to do
+            if (error == null) {
+                return;
+            }
+
+//          if there is an interpreterror
+            if (error instanceof InterpretError) {
+//              if the user wants every error to be logged
+                if (settings.isToBeLogged(Ressources.LoggingLevels.EVERY)) {
+//                  log the error
+                    log.logMessage(Ressources.ERROR_EXECUTEPROJECT_INTERPRETERROR);
+                    log.logThrowable(error);
+                }
+
+//              and print the message of the InterpretationError
+//              ending of the program and signalizing the end of the program is handled by the FalseInterpreter
+                System.out.println(error.getMessage());
+            }
+//          if for any reason there is another kind of exception or error
+            else {
+//              if the user wants fatal errors to be logged
+                if (settings.isToBeLogged(Ressources.LoggingLevels.FATAL)) {
+//                  log the error
+                    log.logMessage(Ressources.ERROR_EXECUTEPROJECT_OTHEREXCEPTION);
+                    log.logThrowable(error);
+                }
+
+//              print the message of the Error and signalize that the program has actually ended
+                System.out.println(Ressources.PROGRAM_EXECUTION_ENDED_AFTER_ERROR);
+                signalizeExecution(false);
+            }
+        });
+    }
+
     /**
      * This method tries to read the content of an source code file of the project with
      * the given name.
@@ -907,7 +896,7 @@ public class FalseIDE extends JFrame {
      */
     @Nullable
     private String getFileContent(String project) {
-        String content = "";
+        StringBuilder content = new StringBuilder();
 
 //      create a BufferedReader for the source code file of the given project
         try (BufferedReader read = new BufferedReader(new FileReader(new File(settings.getWorkSpace() + project + File.separator + project + Ressources.SOURCE_FILE_ENDING)))) {
@@ -915,7 +904,7 @@ public class FalseIDE extends JFrame {
             String temp;
 
             while ((temp = read.readLine()) != null) {
-                content += temp + "\n";
+                content.append(temp).append('\n');
             }
         }
 //      if there was an error occurring
@@ -934,7 +923,7 @@ public class FalseIDE extends JFrame {
         }
 
 //      if there was no error we'll return the content of the file
-        return content;
+        return content.toString();
     }
 
     /**
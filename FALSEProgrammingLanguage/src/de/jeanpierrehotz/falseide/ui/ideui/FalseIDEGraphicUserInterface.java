@@ -23,6 +23,7 @@ import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -203,15 +204,13 @@ public class FalseIDEGraphicUserInterface {
 
         @Override
         public int read() throws IOException {
-            int c = -1;
-
             try {
-                c = blockingQueue.take();
+                return blockingQueue.take();
             }catch (InterruptedException exc){
-                exc.printStackTrace();
+//              the program waiting for input has been aborted, so we'll stop reading and keep the thread interrupted
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Reading from the console has been interrupted!");
             }
-
-            return c;
         }
 
         @Override
@@ -229,6 +228,7 @@ public class FalseIDEGraphicUserInterface {
             int i = 0;
             byte currentItem;
 
+//          we'll only block for the first character, so that any line that has been typed partially can be read as well
             do{
                 currentItem = (byte) read();
 
@@ -238,9 +238,14 @@ public class FalseIDEGraphicUserInterface {
 
                 bytes[off + i++] = currentItem;
 
-            } while(i < len && currentItem != '\n');
+            } while(i < len && currentItem != '\n' && !blockingQueue.isEmpty());
 
             return i;
         }
+
+        @Override
+        public int available() {
+            return blockingQueue.size();
+        }
     }
 }
@@ -0,0 +1,433 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.Set;
+
+/**
+ * This class resembles the connection between a {@link FalseClient} and a {@link FalseDaemon} through a Unix domain socket.<br>
+ * Everything is sent as a frame consisting of its kind, the length of its content and the content itself. The client
+ * begins with a {@link #FRAME_REQUEST}, followed by the standard input in {@link #FRAME_STDIN}s, whereas the daemon
+ * sends the output of the command in {@link #FRAME_STDOUT}s and {@link #FRAME_STDERR}s, ending with a {@link #FRAME_EXIT}.<br>
+ * Since the project is still compiled for older versions of Java, Unix domain sockets (which are supported since Java 16)
+ * are looked up reflectively.
+ */
+final class DaemonProtocol {
+
+    /**
+     * Content: the working directory of the client, the amount of arguments and the arguments (each written by {@link DataOutputStream#writeUTF(String)})
+     */
+    static final byte FRAME_REQUEST = 0;
+    /**
+     * Content: the next bytes of the standard input; no content if the standard input has ended
+     */
+    static final byte FRAME_STDIN = 1;
+    /**
+     * Content: the next bytes of the standard output
+     */
+    static final byte FRAME_STDOUT = 2;
+    /**
+     * Content: the next bytes of the standard error
+     */
+    static final byte FRAME_STDERR = 3;
+    /**
+     * Content: the exit code of the command as 4 byte integer
+     */
+    static final byte FRAME_EXIT = 4;
+
+    /**
+     * The system property containing the path of the socket
+     */
+    static final String SOCKET_PROPERTY = "false.daemon.socket";
+
+    /**
+     * The name of the socket inside the directory it lies in by default
+     */
+    private static final String SOCKET_NAME = "false-daemon.sock";
+
+    /**
+     * The maximum length of the content of a frame, so that a corrupted frame cannot make the other side run out of memory;
+     * larger output is split into several frames
+     */
+    static final int MAX_FRAME_LENGTH = 1 << 20;
+
+    private final SocketChannel channel;
+
+    /**
+     * The header of the frame that is currently read
+     */
+    private final ByteBuffer readHeader;
+    /**
+     * The header of the frame that is currently written
+     */
+    private final ByteBuffer writeHeader;
+
+    /**
+     * The content of the frame that has been read last
+     */
+    private byte[] content;
+
+    /**
+     * The task that is executed as soon as a frame cannot be written since the other side has disconnected
+     */
+    private volatile Runnable disconnectListener;
+
+    DaemonProtocol(SocketChannel channel){
+        this.channel = channel;
+
+        this.readHeader = ByteBuffer.allocate(5);
+        this.writeHeader = ByteBuffer.allocate(5);
+    }
+
+    /**
+     * This method gives you the socket to use, which is given by the system property {@value #SOCKET_PROPERTY}.<br>
+     * By default the socket lies in the runtime directory of the user ({@code $XDG_RUNTIME_DIR}) or, if there is none,
+     * in a directory of the temporary directory that only the user may access. Thus no other user can take the socket
+     * before the daemon has been started, and listen to the arguments and the input sent by the client.
+     * @return the path of the socket
+     * @throws IOException if the directory of the socket cannot be created or may be accessed by other users
+     */
+    static Path socketPath() throws IOException {
+        String path = System.getProperty(SOCKET_PROPERTY);
+        if(path != null){
+            return Paths.get(path);
+        }
+
+        String runtimeDirectory = System.getenv("XDG_RUNTIME_DIR");
+        if(runtimeDirectory != null && !runtimeDirectory.isEmpty()){
+            return Paths.get(runtimeDirectory, SOCKET_NAME);
+        }
+
+        return privateDirectory().resolve(SOCKET_NAME);
+    }
+
+    /**
+     * This method gives you the directory inside the temporary directory that belongs to the user, which is created if needed
+     * @return the directory only the user may access
+     * @throws IOException if the directory cannot be created or may be accessed by other users
+     */
+    private static Path privateDirectory() throws IOException {
+        String user = System.getProperty("user.name");
+        Path directory = Paths.get(System.getProperty("java.io.tmpdir"), "false-daemon-" + user);
+        Set<PosixFilePermission> ownerOnly = PosixFilePermissions.fromString("rwx------");
+
+        try{
+            Files.createDirectory(directory, PosixFilePermissions.asFileAttribute(ownerOnly));
+        }catch(FileAlreadyExistsException exc){
+//          the directory has been created by an earlier daemon or client (or by someone else, which is checked below)
+        }catch(UnsupportedOperationException exc){
+//          a file system without POSIX permissions (like the one of Windows) keeps the temporary directory of every user apart anyways
+            Files.createDirectories(directory);
+            return directory;
+        }
+
+        PosixFileAttributes attributes = Files.readAttributes(directory, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        UserPrincipal owner = directory.getFileSystem().getUserPrincipalLookupService().lookupPrincipalByName(user);
+
+        if(!attributes.isDirectory() || !attributes.owner().equals(owner)
+                || !ownerOnly.containsAll(attributes.permissions())){
+            throw new IOException("The directory " + directory + " of the socket may be accessed by other users than " + user + "!");
+        }
+
+        return directory;
+    }
+
+    /**
+     * This method connects to the socket at the given path
+     * @param socket the path of the socket
+     * @return the connected channel
+     * @throws IOException if there's no daemon listening at the socket
+     * @throws UnsupportedOperationException if the JVM doesn't support Unix domain sockets
+     */
+    static SocketChannel connect(Path socket) throws IOException {
+        SocketChannel channel = (SocketChannel) invoke(SocketChannel.class, "open", ProtocolFamily.class, unixFamily());
+
+        try{
+            channel.connect(address(socket));
+        }catch(IOException | RuntimeException exc){
+            channel.close();
+            throw exc;
+        }
+
+        return channel;
+    }
+
+    /**
+     * This method creates the socket at the given path
+     * @param socket the path of the socket
+     * @return the channel listening at the socket
+     * @throws IOException if the socket cannot be created
+     * @throws UnsupportedOperationException if the JVM doesn't support Unix domain sockets
+     */
+    static ServerSocketChannel listen(Path socket) throws IOException {
+        ServerSocketChannel channel = (ServerSocketChannel) invoke(ServerSocketChannel.class, "open", ProtocolFamily.class, unixFamily());
+
+        try{
+            channel.bind(address(socket));
+        }catch(IOException | RuntimeException exc){
+            channel.close();
+            throw exc;
+        }
+
+        return channel;
+    }
+
+    /**
+     * This method creates the content of a {@link #FRAME_REQUEST}
+     * @param workingDirectory the working directory of the client
+     * @param args the arguments of the command
+     * @return the content of the request
+     */
+    static byte[] request(String workingDirectory, String[] args){
+        try{
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+
+            out.writeUTF(workingDirectory);
+            out.writeInt(args.length);
+            for(String arg: args){
+                out.writeUTF(arg);
+            }
+
+            return bytes.toByteArray();
+        }catch(IOException exc){
+//          a ByteArrayOutputStream doesn't throw any IOException
+            throw new IllegalStateException(exc);
+        }
+    }
+
+    void setDisconnectListener(Runnable disconnectListener){
+        this.disconnectListener = disconnectListener;
+    }
+
+    /**
+     * This method writes a frame of the given kind with the given content.
+     * Frames may be written by one thread while another one is reading frames.
+     * @param kind the kind of the frame
+     * @param data the array containing the content
+     * @param off the index of the content inside the array
+     * @param len the length of the content; at most {@link #MAX_FRAME_LENGTH}
+     * @throws IOException if the frame cannot be written or is too long
+     */
+    void writeFrame(byte kind, byte[] data, int off, int len) throws IOException {
+        if(len > MAX_FRAME_LENGTH){
+            throw new IOException("A frame must not be longer than " + MAX_FRAME_LENGTH + " bytes!");
+        }
+
+        synchronized(writeHeader){
+            try{
+                writeHeader.clear();
+                writeHeader.put(kind).putInt(len).flip();
+
+                ByteBuffer body = ByteBuffer.wrap(data, off, len);
+                while(writeHeader.hasRemaining() || body.hasRemaining()){
+                    channel.write(new ByteBuffer[]{writeHeader, body});
+                }
+            }catch(IOException exc){
+                Runnable listener = disconnectListener;
+                if(listener != null){
+                    listener.run();
+                }
+
+                throw exc;
+            }
+        }
+    }
+
+    /**
+     * This method reads the next frame, whose content is given by {@link #getContent()} afterwards
+     * @return the kind of the frame; {@code -1} if the other side has closed the connection
+     * @throws IOException if the frame cannot be read
+     */
+    int readFrame() throws IOException {
+        readHeader.clear();
+        if(!readFully(readHeader)){
+            return -1;
+        }
+        readHeader.flip();
+
+        byte kind = readHeader.get();
+        int length = readHeader.getInt();
+
+        if(length < 0 || length > MAX_FRAME_LENGTH){
+            throw new IOException("The connection to the daemon has been corrupted!");
+        }
+
+        content = new byte[length];
+        if(!readFully(ByteBuffer.wrap(content))){
+            throw new IOException("The connection to the daemon has ended unexpectedly!");
+        }
+
+        return kind;
+    }
+
+    byte[] getContent(){
+        return content;
+    }
+
+    /**
+     * This method gives you a stream reading the content of the {@link #FRAME_STDIN}s of this connection;
+     * the stream ends as soon as a frame without any content has been read or the connection has been closed.
+     * Every other frame is ignored.
+     * @return the standard input of the command
+     */
+    InputStream stdin(){
+        return new InputStream(){
+            private byte[] frame = new byte[0];
+            private int position = 0;
+            private boolean ended = false;
+
+            @Override
+            public int read() throws IOException {
+                byte[] b = new byte[1];
+                return (read(b, 0, 1) == -1)? -1: (b[0] & 0xFF);
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if(len == 0){
+                    return 0;
+                }
+
+                while(position == frame.length){
+                    if(ended){
+                        return -1;
+                    }
+
+                    int kind = readFrame();
+                    if(kind == -1 || (kind == FRAME_STDIN && content.length == 0)){
+                        ended = true;
+                    }else if(kind == FRAME_STDIN){
+                        frame = content;
+                        position = 0;
+                    }
+                }
+
+                int count = Math.min(len, frame.length - position);
+                System.arraycopy(frame, position, b, off, count);
+                position += count;
+
+                return count;
+            }
+
+            @Override
+            public int available(){
+                return frame.length - position;
+            }
+        };
+    }
+
+    /**
+     * This method gives you a stream writing everything as frames of the given kind
+     * @param kind the kind of the frames
+     * @return the stream writing the frames
+     */
+    OutputStream output(final byte kind){
+        return new OutputStream(){
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                while(len > 0){
+                    int count = Math.min(len, MAX_FRAME_LENGTH);
+                    writeFrame(kind, b, off, count);
+
+                    off += count;
+                    len -= count;
+                }
+            }
+        };
+    }
+
+    /**
+     * This method fills the given buffer from the channel
+     * @param buffer the buffer to fill
+     * @return whether the buffer has been filled; {@code false} if the channel has ended before anything has been read
+     * @throws IOException if the channel has ended in the middle of the buffer
+     */
+    private boolean readFully(ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining()){
+            if(channel.read(buffer) == -1){
+                if(buffer.position() == 0){
+                    return false;
+                }
+
+                throw new IOException("The connection to the daemon has ended unexpectedly!");
+            }
+        }
+
+        return true;
+    }
+
+    private static ProtocolFamily unixFamily(){
+        try{
+            return StandardProtocolFamily.valueOf("UNIX");
+        }catch(IllegalArgumentException exc){
+            throw new UnsupportedOperationException("Unix domain sockets are only supported since Java 16!");
+        }
+    }
+
+    private static SocketAddress address(Path socket) throws IOException {
+        try{
+            return (SocketAddress) invoke(Class.forName("java.net.UnixDomainSocketAddress"), "of", Path.class, socket);
+        }catch(ClassNotFoundException exc){
+            throw new UnsupportedOperationException("Unix domain sockets are only supported since Java 16!");
+        }
+    }
+
+    /**
+     * This method invokes the given static method, which takes one parameter of the given type
+     */
+    private static Object invoke(Class<?> type, String method, Class<?> parameterType, Object argument) throws IOException {
+        try{
+            return type.getMethod(method, parameterType).invoke(null, argument);
+        }catch(InvocationTargetException exc){
+            if(exc.getCause() instanceof IOException){
+                throw (IOException) exc.getCause();
+            }else if(exc.getCause() instanceof RuntimeException){
+                throw (RuntimeException) exc.getCause();
+            }
+
+            throw new IllegalStateException(exc.getCause());
+        }catch(ReflectiveOperationException exc){
+            throw new UnsupportedOperationException("Unix domain sockets are only supported since Java 16!");
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.cli;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * This class is the thin client of a {@link FalseDaemon}; it takes the very same arguments as the {@link FalseCommandLine}
+ * and lets the daemon execute them, while the standard input and output of the client are streamed from and to the daemon.
+ * The client exits with the exit code of the command.<br>
+ * The socket of the daemon is given by the system property {@value DaemonProtocol#SOCKET_PROPERTY}
+ * (or lies in a directory of the user by default, see {@link DaemonProtocol#socketPath()}).
+ */
+public class FalseClient {
+
+    private FalseClient(){}
+
+    public static void main(String... args){
+        Path socket;
+
+        try{
+            socket = DaemonProtocol.socketPath();
+        }catch(IOException exc){
+            System.err.println("Error: Couldn't find the socket of the daemon (" + exc + ")");
+            System.exit(FalseCommandLine.EXIT_IO_ERROR);
+            return;
+        }
+
+        try(SocketChannel channel = DaemonProtocol.connect(socket)){
+            DaemonProtocol connection = new DaemonProtocol(channel);
+
+            byte[] request = DaemonProtocol.request(Paths.get("").toAbsolutePath().toString(), args);
+            connection.writeFrame(DaemonProtocol.FRAME_REQUEST, request, 0, request.length);
+
+//          the standard input is forwarded by its own thread, since the program may write output while the client waits for input
+            Thread forwarder = new Thread(() -> forwardInput(connection), "FALSE-client-input");
+            forwarder.setDaemon(true);
+            forwarder.start();
+
+            int kind;
+            while((kind = connection.readFrame()) != -1){
+                byte[] content = connection.getContent();
+
+                if(kind == DaemonProtocol.FRAME_STDOUT){
+                    System.out.write(content, 0, content.length);
+                    System.out.flush();
+                }else if(kind == DaemonProtocol.FRAME_STDERR){
+                    System.err.write(content, 0, content.length);
+                    System.err.flush();
+                }else if(kind == DaemonProtocol.FRAME_EXIT){
+                    System.exit(ByteBuffer.wrap(content).getInt());
+                }
+            }
+
+            System.err.println("Error: The daemon has closed the connection");
+        }catch(IOException | UnsupportedOperationException exc){
+            System.err.println("Error: Couldn't connect to the daemon at " + socket + " (" + exc + ")");
+        }
+
+        System.exit(FalseCommandLine.EXIT_IO_ERROR);
+    }
+
+    private static void forwardInput(DaemonProtocol connection){
+        byte[] buffer = new byte[8192];
+
+        try{
+            int count;
+            while((count = System.in.read(buffer)) != -1){
+                connection.writeFrame(DaemonProtocol.FRAME_STDIN, buffer, 0, count);
+            }
+
+//          an empty frame ends the input
+            connection.writeFrame(DaemonProtocol.FRAME_STDIN, buffer, 0, 0);
+        }catch(IOException exc){
+//          the connection has been closed, so the input isn't needed any more
+        }
+    }
+}
@@ -0,0 +1,366 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.cli;
+
+import de.jeanpierrehotz.falseprogramminglanguage.compiler.FalseCompiler;
+import de.jeanpierrehotz.falseprogramminglanguage.compiler.error.CompileErrorCollection;
+import de.jeanpierrehotz.falseprogramminglanguage.data.FalseProgram;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.interpreter.CompiledProgram;
+import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
+
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+/**
+ * This class is the headless entry point to compile and execute FALSE programs without any graphical user interface,
+ * so that programs can be processed by scripts and on servers:
+ * <pre>
+ *     compile [-o &lt;byte code file&gt;] [-t] &lt;source file&gt;
+ *     run [-e &lt;engine&gt;] [-b &lt;instruction budget&gt;] [-t] &lt;source or byte code file&gt;
+ *     check [-t] &lt;source file&gt;
+ * </pre>
+ * Source files are compiled with the {@link FalseCompiler} (or only their structure is checked using every core
+ * of the machine with {@link FalseCompiler#checkSyntax(String)}), whereas files ending with {@value #BYTE_FILE_EXTENSION}
+ * are loaded as byte code (just like the files written by the IDE). A program that is run reads directly from the
+ * standard input and writes to the standard output; anything else (like errors and timings) is written to the
+ * standard error. The result is reported by the exit code of the process (see {@link #EXIT_SUCCESS} and following).<br>
+ * The very same commands may be sent to a {@link FalseDaemon} by the {@link FalseClient}, so that they are
+ * executed by a JVM that is already warmed up.
+ */
+public class FalseCommandLine {
+
+    /**
+     * The program has been compiled or executed successfully
+     */
+    public static final int EXIT_SUCCESS = 0;
+    /**
+     * The program has been aborted by an error while executing it
+     */
+    public static final int EXIT_INTERPRET_ERROR = 1;
+    /**
+     * The arguments are invalid
+     */
+    public static final int EXIT_USAGE = 2;
+    /**
+     * The source code contains errors
+     */
+    public static final int EXIT_COMPILE_ERROR = 3;
+    /**
+     * A file couldn't be read or written
+     */
+    public static final int EXIT_IO_ERROR = 4;
+
+    /**
+     * The ending of the source files as they are written by the IDE
+     */
+    public static final String SOURCE_FILE_ENDING = "_false.f";
+    /**
+     * The ending of the byte code files as they are written by the IDE
+     */
+    public static final String BYTE_FILE_ENDING = "_bytecode.out";
+    /**
+     * The extension of any file that is loaded as byte code
+     */
+    public static final String BYTE_FILE_EXTENSION = ".out";
+
+    private static final String USAGE =
+            "Usage:\n" +
+            "    compile [-o <byte code file>] [-t] <source file>\n" +
+            "    run [-e <engine>] [-b <instruction budget>] [-t] <source or byte code file>\n" +
+            "    check [-t] <source file>\n" +
+            "Options:\n" +
+            "    -o  the file to write the byte code to (by default next to the source file)\n" +
+            "    -e  the engine to execute the program with; one of TREE_WALKER, BYTECODE, JIT, SPECIALIZING, CLOSURE, FRAMES (BYTECODE by default)\n" +
+            "    -b  the maximum amount of instructions the program may execute\n" +
+            "    -t  reports the time it took to compile (or check) and execute the program";
+
+    private final InputStream in;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    /**
+     * The directory relative files are resolved against; {@code null} for the working directory of the process
+     */
+    private final Path workingDirectory;
+    /**
+     * The cache of programs that have been run before; {@code null} if programs aren't cached
+     */
+    private final ProgramCache cache;
+
+    /**
+     * The interpreter executing the program that is currently run
+     */
+    private volatile FalseInterpreter interpreter;
+
+    private String command;
+    private String file;
+    private String outputFile;
+    private FalseInterpreter.ExecutionEngine executionEngine;
+    private long instructionBudget;
+    private boolean reportTime;
+
+    /**
+     * This constructor creates a command line using the given streams
+     * @param in the stream the executed program reads from
+     * @param out the stream the executed program writes to
+     * @param err the stream any messages are written to
+     */
+    public FalseCommandLine(InputStream in, PrintStream out, PrintStream err){
+        this(in, out, err, null, null);
+    }
+
+    /**
+     * This constructor creates a command line using the given streams, which resolves files against the given
+     * directory and reuses any program from the given cache
+     * @param in the stream the executed program reads from
+     * @param out the stream the executed program writes to
+     * @param err the stream any messages are written to
+     * @param workingDirectory the directory to resolve relative files against; {@code null} for the working directory of the process
+     * @param cache the cache of the programs that have been run; {@code null} if programs aren't to be cached
+     */
+    FalseCommandLine(InputStream in, PrintStream out, PrintStream err, Path workingDirectory, ProgramCache cache){
+        this.in = in;
+        this.out = out;
+        this.err = err;
+
+        this.workingDirectory = workingDirectory;
+        this.cache = cache;
+
+        this.executionEngine = FalseInterpreter.ExecutionEngine.BYTECODE;
+        this.instructionBudget = -1;
+        this.reportTime = false;
+    }
+
+    /**
+     * This method executes the command described by the given arguments
+     * @param args the arguments given to the command line
+     * @return the exit code of the command
+     */
+    public int run(String... args){
+        if(!parseArguments(args)){
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        try{
+            String path = resolve(file);
+
+            if(command.equals("check")){
+                long begin = System.nanoTime();
+                FalseCompiler.checkSyntax(new String(Files.readAllBytes(Paths.get(path)), Charset.defaultCharset()));
+                report("Checked", begin, -1);
+                return EXIT_SUCCESS;
+            }else if(command.equals("compile")){
+                FalseProgram program = load(path);
+                program.saveByteCode((outputFile != null)? resolve(outputFile): byteCodeFileOf(path));
+                return EXIT_SUCCESS;
+            }
+
+//          a program that has been run before (and hasn't been changed since) doesn't need to be compiled again
+            String key = (cache != null)? cache.keyOf(path): null;
+            CompiledProgram program = (key != null)? cache.get(key): null;
+
+            if(program == null){
+                program = new CompiledProgram(load(path));
+
+                if(key != null){
+                    cache.put(key, program);
+                }
+            }
+
+            return execute(program);
+        }catch(CompileErrorCollection errors){
+            err.println(errors.getMessage());
+            return EXIT_COMPILE_ERROR;
+        }catch(IOException exc){
+            err.println("Error: " + exc);
+            return EXIT_IO_ERROR;
+        }
+    }
+
+    /**
+     * This method aborts the program that is currently run; if no program is run nothing happens
+     */
+    public void abort(){
+        FalseInterpreter current = interpreter;
+
+        if(current != null){
+            current.abortExecution();
+        }
+    }
+
+    /**
+     * This method compiles the given source file or loads the given byte code file
+     * @param path the file to load
+     * @return the loaded program
+     * @throws CompileErrorCollection if the source code contains errors
+     * @throws IOException if the file cannot be read
+     */
+    private FalseProgram load(String path) throws CompileErrorCollection, IOException {
+        long begin = System.nanoTime();
+        FalseProgram program;
+
+        if(command.equals("run") && path.endsWith(BYTE_FILE_EXTENSION)){
+            program = FalseProgram.loadByteCode(path);
+            report("Loaded", begin, -1);
+        }else{
+//          the source is compiled while it is read, so that it never has to be held in memory as a whole
+            try(FileChannel channel = FileChannel.open(Paths.get(path))){
+                program = FalseCompiler.compile(channel, Charset.defaultCharset());
+            }
+            report("Compiled", begin, -1);
+        }
+
+        return program;
+    }
+
+    private int execute(CompiledProgram program){
+        FalseInterpreter interpreter = new FalseInterpreter(program, out, in);
+        interpreter.setExecutionEngine(executionEngine);
+        interpreter.setInstructionBudget(instructionBudget);
+
+        this.interpreter = interpreter;
+
+        long begin = System.nanoTime();
+
+        try{
+            interpreter.execute();
+            return EXIT_SUCCESS;
+        }catch(InterpretError error){
+            out.flush();
+            err.println(error.getMessage());
+            return EXIT_INTERPRET_ERROR;
+        }catch(NoSuchElementException exc){
+//          the input has ended while the program was waiting for another line
+            out.flush();
+            err.println("Error: The input has ended while the program was reading it");
+            return EXIT_INTERPRET_ERROR;
+        }catch(StackOverflowError exc){
+            out.flush();
+            err.println("Error: The program has recursed too deeply for this engine (the engine FRAMES isn't limited by the stack)");
+            return EXIT_INTERPRET_ERROR;
+        }catch(RuntimeException exc){
+            out.flush();
+            err.println("Error: " + exc);
+            return EXIT_INTERPRET_ERROR;
+        }finally{
+            this.interpreter = null;
+
+            out.flush();
+            report("Executed", begin, interpreter.getExecutedInstructions());
+        }
+    }
+
+    /**
+     * This method reads the arguments into the fields of this command line
+     * @param args the arguments to read
+     * @return whether the arguments are valid
+     */
+    private boolean parseArguments(String[] args){
+        if(args.length == 0 || !(args[0].equals("compile") || args[0].equals("run") || args[0].equals("check"))){
+            return false;
+        }
+
+        command = args[0];
+
+        for(int i = 1; i < args.length; i++){
+            String arg = args[i];
+
+            if(arg.equals("-t")){
+                reportTime = true;
+            }else if(arg.equals("-o") && command.equals("compile") && i + 1 < args.length){
+                outputFile = args[++i];
+            }else if(arg.equals("-e") && command.equals("run") && i + 1 < args.length){
+                try{
+                    executionEngine = FalseInterpreter.ExecutionEngine.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                }catch(IllegalArgumentException exc){
+                    return false;
+                }
+            }else if(arg.equals("-b") && command.equals("run") && i + 1 < args.length){
+                try{
+                    instructionBudget = Long.parseLong(args[++i]);
+                }catch(NumberFormatException exc){
+                    return false;
+                }
+            }else if(!arg.startsWith("-") && file == null){
+                file = arg;
+            }else{
+                return false;
+            }
+        }
+
+        return file != null;
+    }
+
+    /**
+     * This method resolves the given file against the working directory of this command line
+     * @param file the file to resolve
+     * @return the resolved file
+     */
+    private String resolve(String file){
+        return (workingDirectory != null)? workingDirectory.resolve(file).toString(): file;
+    }
+
+    /**
+     * This method gives you the byte code file belonging to the given source file, which is named just like the IDE names it
+     * @param sourceFile the source file
+     * @return the byte code file
+     */
+    private static String byteCodeFileOf(String sourceFile){
+        if(sourceFile.endsWith(SOURCE_FILE_ENDING)){
+            return sourceFile.substring(0, sourceFile.length() - SOURCE_FILE_ENDING.length()) + BYTE_FILE_ENDING;
+        }else if(sourceFile.endsWith(".f")){
+            return sourceFile.substring(0, sourceFile.length() - 2) + BYTE_FILE_ENDING;
+        }
+
+        return sourceFile + BYTE_FILE_ENDING;
+    }
+
+    private void report(String action, long begin, long instructions){
+        if(reportTime){
+            String msg = String.format(Locale.ROOT, "%s in %.3f ms", action, (System.nanoTime() - begin) / 1e6);
+
+            if(instructions >= 0){
+                msg += " (" + instructions + " instructions)";
+            }
+
+            err.println(msg);
+        }
+    }
+
+    /**
+     * The main method of the command line, which exits with the exit code of the given command
+     * @param args the command line arguments
+     */
+    public static void main(String... args){
+//      the output of the program is buffered, since it is flushed anyways as soon as the program reads input
+        PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16), false);
+
+        System.exit(new FalseCommandLine(System.in, out, System.err).run(args));
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.cli;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * This class is a long-lived process that executes the commands of the {@link FalseCommandLine} for any
+ * {@link FalseClient} connecting to its Unix domain socket.<br>
+ * Since the daemon isn't started for every command, the compiler and the interpreters stay loaded and compiled by the JVM,
+ * and every program that is run is cached (see {@link ProgramCache}), so that scripts invoking FALSE over and over again
+ * don't pay for starting and warming up a JVM every time. Every connection is handled by its own thread, whose standard
+ * input and output are streamed from and to the client while the command is executed.
+ */
+public class FalseDaemon {
+
+    /**
+     * The amount of programs the daemon caches by default
+     */
+    public static final int DEFAULT_CACHE_CAPACITY = 256;
+
+    private final Path socket;
+    private final ProgramCache cache;
+    private final ExecutorService executor;
+
+    private volatile ServerSocketChannel server;
+
+    /**
+     * This constructor creates a daemon that will listen at the given socket
+     * @param socket the path of the socket
+     */
+    public FalseDaemon(Path socket){
+        this.socket = socket;
+        this.cache = new ProgramCache(DEFAULT_CACHE_CAPACITY);
+
+        this.executor = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "FALSE-daemon-connection");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * This method creates the socket and accepts connections until the daemon is shut down.
+     * A socket that has been left over by a previous daemon is replaced.
+     * @throws IOException if the socket cannot be created
+     */
+    public void serve() throws IOException {
+        Files.deleteIfExists(socket);
+        server = DaemonProtocol.listen(socket);
+
+        try{
+            while(true){
+                SocketChannel channel = server.accept();
+                executor.execute(() -> handle(channel));
+            }
+        }catch(ClosedChannelException exc){
+//          the daemon has been shut down
+        }finally{
+            server.close();
+            Files.deleteIfExists(socket);
+        }
+    }
+
+    /**
+     * This method stops accepting connections; commands that are currently executed are finished nonetheless
+     */
+    public void shutdown(){
+        ServerSocketChannel current = server;
+
+        try{
+            if(current != null){
+                current.close();
+            }
+        }catch(IOException exc){
+//          the socket is deleted anyways
+        }
+
+        executor.shutdown();
+    }
+
+    /**
+     * This method executes the command of the given connection
+     * @param channel the connection to the client
+     */
+    private void handle(SocketChannel channel){
+        try{
+            DaemonProtocol connection = new DaemonProtocol(channel);
+
+            if(connection.readFrame() != DaemonProtocol.FRAME_REQUEST){
+                return;
+            }
+
+            DataInputStream request = new DataInputStream(new ByteArrayInputStream(connection.getContent()));
+            Path workingDirectory = Paths.get(request.readUTF());
+            String[] args = new String[request.readInt()];
+            for(int i = 0; i < args.length; i++){
+                args[i] = request.readUTF();
+            }
+
+            PrintStream out = new PrintStream(new BufferedOutputStream(connection.output(DaemonProtocol.FRAME_STDOUT), 1 << 16), false);
+            PrintStream err = new PrintStream(connection.output(DaemonProtocol.FRAME_STDERR), true);
+
+            FalseCommandLine commandLine = new FalseCommandLine(connection.stdin(), out, err, workingDirectory, cache);
+//          if the client has gone there's no reason to execute its program any further
+            connection.setDisconnectListener(commandLine::abort);
+
+            int exitCode = commandLine.run(args);
+            out.flush();
+            err.flush();
+
+            byte[] content = ByteBuffer.allocate(4).putInt(exitCode).array();
+            connection.writeFrame(DaemonProtocol.FRAME_EXIT, content, 0, content.length);
+        }catch(IOException exc){
+//          the client has closed the connection, so there's no one to report anything to
+        }finally{
+            try{
+                channel.close();
+            }catch(IOException exc){
+//              the connection is gone either way
+            }
+        }
+    }
+
+    /**
+     * The main method of the daemon, which listens at the socket given as argument
+     * (or by the system property {@value DaemonProtocol#SOCKET_PROPERTY}) until the process is ended
+     * @param args the path of the socket (optional)
+     */
+    public static void main(String... args){
+        try{
+            Path socket = (args.length > 0)? Paths.get(args[0]): DaemonProtocol.socketPath();
+            FalseDaemon daemon = new FalseDaemon(socket);
+
+            Runtime.getRuntime().addShutdownHook(new Thread(daemon::shutdown));
+
+            System.err.println("Listening at " + socket);
+            daemon.serve();
+        }catch(IOException | UnsupportedOperationException exc){
+            System.err.println("Error: " + exc);
+            System.exit(FalseCommandLine.EXIT_IO_ERROR);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.cli;
+
+import de.jeanpierrehotz.falseprogramminglanguage.interpreter.CompiledProgram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class caches the programs that have been run by a {@link FalseDaemon}, so that a file that is run over and over
+ * again is neither compiled nor lowered (e.g. into byte code or JVM classes) more than once.<br>
+ * Every program is cached for its absolute path together with the time it has been modified and its size, so that
+ * a changed file is compiled again. If there are more programs than the cache may hold the least recently used
+ * program is removed.
+ */
+final class ProgramCache {
+
+    private final Map<String, CompiledProgram> programs;
+
+    /**
+     * This constructor creates a cache holding up to the given amount of programs
+     * @param capacity the maximum amount of programs to hold
+     */
+    ProgramCache(final int capacity){
+        this.programs = new LinkedHashMap<String, CompiledProgram>(16, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledProgram> eldest){
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * This method gives you the key of the given file in its current state
+     * @param file the file
+     * @return the key of the file; {@code null} if the file cannot be accessed
+     */
+    String keyOf(String file){
+        try{
+            Path path = Paths.get(file).toAbsolutePath().normalize();
+            return path + "\u0000" + Files.getLastModifiedTime(path).toMillis() + "\u0000" + Files.size(path);
+        }catch(IOException | RuntimeException exc){
+            return null;
+        }
+    }
+
+    synchronized CompiledProgram get(String key){
+        return programs.get(key);
+    }
+
+    synchronized void put(String key, CompiledProgram program){
+        programs.put(key, program);
+    }
+}
@@ -0,0 +1,857 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.compiler;
+
+import de.jeanpierrehotz.falseprogramminglanguage.compiler.error.*;
+import de.jeanpierrehotz.falseprogramminglanguage.data.Operation;
+import de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations.*;
+import de.jeanpierrehotz.falseprogramminglanguage.language.FalseLanguageDefinition;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+
+/**
+ * This class parses FALSE code into {@link Operation}-objects in one single pass over the code.<br>
+ * While the code is scanned its syntax is checked and the operation of every token is created as soon as the token
+ * has ended, so that the code is neither copied nor scanned more than once and compiling takes linear time.
+ * Lambda functions are tracked with an explicit stack of the functions that haven't been closed yet.<br>
+ * Any decision that depends on the code following a token (like whether a variable adress is followed by an assigning
+ * or a reading operator) is postponed until the according character has been scanned.<br>
+ * The code is fed to the parser in chunks (see {@link #feed(char[], int, int)}), and the parser only keeps the state
+ * it needs across the boundaries of the chunks, so that the code never has to be held in memory as a whole.
+ * Since the snippets of the errors need the code around the erroneous tokens, they are captured while the according
+ * characters are fed to the parser, and the errors are only created once the code has ended.<br>
+ * Runs of whitespace are skipped at once, and the end of any longer string or comment is searched with
+ * {@link String#indexOf(int, int)}, which the JVM compiles to vector instructions comparing many characters at once.
+ */
+final class FalseParser {
+
+    /**
+     * The parser is between two tokens (or inside a number)
+     */
+    private static final int STATE_CODE = 0;
+    /**
+     * The parser is inside a string
+     */
+    private static final int STATE_STRING = 1;
+    /**
+     * The parser is inside a comment
+     */
+    private static final int STATE_COMMENT = 2;
+    /**
+     * The parser expects the value of a character declaration
+     */
+    private static final int STATE_CHARACTER = 3;
+    /**
+     * The parser skips the character following a closing bracket of a comment that hasn't been opened
+     */
+    private static final int STATE_SKIP = 4;
+
+    /**
+     * The size of the chunks the code is fed to the parser in
+     */
+    private static final int CHUNK_SIZE = 8192;
+    /**
+     * The amount of characters of a string or a comment that are compared one by one before its end is searched
+     * with {@link String#indexOf(int, int)}, since most strings and comments are short
+     */
+    private static final int SCALAR_SEARCH_LENGTH = 16;
+
+    private static final String VARIABLE_OPERATOR_EXPECTED = "There must be an assigning or an reading operator following a variable adress!";
+    static final String CHARACTER_EXPECTED = "There must be a character following a character declaration!";
+
+    /**
+     * The errors that have been detected so far in the order they have been detected in
+     */
+    private final ArrayList<PendingError> errors;
+    private final FalseCompiler.OccurrenceCounter ctr;
+
+    /**
+     * The chunk that is currently parsed
+     */
+    private char[] chunk;
+    /**
+     * The range of the current chunk inside its array
+     */
+    private int chunkFrom;
+    private int chunkTo;
+    /**
+     * The text containing the current chunk; {@code null} as long as it hasn't been needed
+     */
+    private String text;
+    /**
+     * The value that has to be added to the index of a character inside the current chunk to get its index inside the text
+     */
+    private int textShift;
+    /**
+     * The last character that has been searched inside the text, and the index of its occurrence inside the text
+     * ({@link Integer#MAX_VALUE} if there is none), since a string or comment spanning several chunks is searched
+     * for every chunk, whereas the code (which is the text if the code is parsed from a String) only has to be searched once
+     */
+    private String searchedText;
+    private char searchedChar;
+    private int searchResult;
+    /**
+     * The value that has to be added to the index of a character inside the current chunk to get its index inside the code
+     */
+    private int offset;
+    /**
+     * The last character of the previous chunk; {@code -1} if there is none
+     */
+    private int previousChar;
+    /**
+     * The snippets that still need characters of the following chunks
+     */
+    private final ArrayList<Snippet> openSnippets;
+
+    /**
+     * The main program (at index 0) and every lambda function that hasn't been closed yet
+     */
+    private final ArrayList<Frame> frames;
+
+    private int state;
+    /**
+     * The snippet of the string, comment or character declaration that is currently parsed
+     */
+    private final Snippet tokenSnippet;
+    /**
+     * The content of the string that is currently parsed
+     */
+    private final StringBuilder string;
+
+    /**
+     * Whether it still has to be checked whether the last variable adress is followed
+     * by an assigning or a reading operator
+     */
+    private boolean pendingVariable;
+    /**
+     * The snippet of the last variable adress
+     */
+    private final Snippet variableSnippet;
+
+    /**
+     * Whether the parser is inside a number
+     */
+    private boolean number;
+    /**
+     * The digits of the current number
+     */
+    private final StringBuilder digits;
+    /**
+     * Whether the digits of the current number are followed by whitespace, which separates
+     * the number from a following number
+     */
+    private boolean numberWhitespace;
+
+    /**
+     * Whether the last number is still to be created, since it is an {@link AssemblyOperation} if the second character
+     * following it is an {@link FalseLanguageDefinition#INLINE_ASSEMBLY_DECLARATION}
+     */
+    private boolean pendingNumber;
+    /**
+     * Whether the character following the pending number has already been parsed
+     */
+    private boolean pendingNumberArmed;
+    private int pendingNumberValue;
+    private int pendingNumberIndex;
+    /**
+     * The operations the pending number belongs to and its position inside them
+     */
+    private ArrayList<Operation> pendingNumberOperations;
+    private int pendingNumberPosition;
+
+    /**
+     * The error of the first number that is too large to be parsed; it is only thrown if the code has no syntax errors
+     */
+    private NumberFormatException numberError;
+
+    private FalseParser(){
+        this.errors = new ArrayList<>();
+        this.ctr = new FalseCompiler.OccurrenceCounter();
+
+        this.offset = 0;
+        this.previousChar = -1;
+        this.openSnippets = new ArrayList<>();
+
+        this.frames = new ArrayList<>();
+        this.frames.add(new Frame(-1, null));
+
+        this.state = STATE_CODE;
+        this.tokenSnippet = new Snippet();
+        this.string = new StringBuilder();
+        this.variableSnippet = new Snippet();
+        this.digits = new StringBuilder();
+    }
+
+    /**
+     * This method parses the given code into operations and collects every syntax error inside the code.
+     *
+     * @param code the code to parse
+     * @return the operations of the main program
+     * @throws CompileErrorCollection if there is any syntax error inside the code
+     */
+    static ArrayList<Operation> parse(String code) throws CompileErrorCollection {
+        FalseParser parser = new FalseParser();
+        char[] buffer = new char[Math.min(code.length(), CHUNK_SIZE)];
+
+        for(int begin = 0; begin < code.length(); begin += buffer.length){
+            int end = Math.min(code.length(), begin + buffer.length);
+
+            code.getChars(begin, end, buffer, 0);
+//          the code itself can be searched, so it doesn't need to be copied into a text
+            parser.feed(buffer, 0, end - begin, code, begin);
+        }
+
+        return parser.finish();
+    }
+
+    /**
+     * This method parses the code read from the given reader into operations and collects every syntax error inside the code.
+     * The code is read in chunks, so that it never has to be held in memory as a whole. The reader is not closed.
+     *
+     * @param reader the reader to read the code from
+     * @return the operations of the main program
+     * @throws CompileErrorCollection if there is any syntax error inside the code
+     * @throws IOException if the code could not be read
+     */
+    static ArrayList<Operation> parse(Reader reader) throws CompileErrorCollection, IOException {
+        FalseParser parser = new FalseParser();
+        char[] buffer = new char[CHUNK_SIZE];
+
+        int read;
+        while((read = reader.read(buffer)) != -1){
+            parser.feed(buffer, 0, read, null, 0);
+        }
+
+        return parser.finish();
+    }
+
+    /**
+     * This method parses the next chunk of the code. Tokens may be split between two chunks arbitrarily.
+     * The given array is not referenced after this method has returned, so it may be reused for the following chunk.
+     *
+     * @param buffer the array containing the chunk
+     * @param off the index of the first character of the chunk inside the array
+     * @param len the amount of characters of the chunk
+     * @param text a text containing the chunk; {@code null} if it is to be created when needed
+     * @param textBegin the index of the first character of the chunk inside the text
+     */
+    private void feed(char[] buffer, int off, int len, String text, int textBegin){
+        if(len <= 0){
+            return;
+        }
+
+//      first the snippets that are still missing characters take them from the beginning of the chunk
+        for(int k = openSnippets.size() - 1; k >= 0; k--){
+            Snippet snippet = openSnippets.get(k);
+
+            for(int j = off; j < off + len && !snippet.complete; j++){
+                snippet.offer(buffer[j]);
+            }
+            if(snippet.complete){
+                openSnippets.remove(k);
+            }
+        }
+
+        this.chunk = buffer;
+        this.chunkFrom = off;
+        this.chunkTo = off + len;
+        this.offset -= off;
+        this.text = text;
+        this.textShift = textBegin - off;
+
+        scan(off, off + len);
+
+        this.offset += off + len;
+        this.previousChar = buffer[off + len - 1];
+        this.chunk = null;
+        this.text = null;
+    }
+
+    /**
+     * This method scans the characters of the current chunk in the given range
+     * @param from the index inside the chunk to begin at
+     * @param to the index inside the chunk to end at (exclusive)
+     */
+    private void scan(int from, int to){
+        char[] code = chunk;
+        int i = from;
+
+        while(i < to){
+            char c = code[i];
+
+            if(state == STATE_CODE && Character.isWhitespace(c)){
+//              whitespace doesn't do anything but separate numbers, so a whole run of it is skipped at once
+                if(number){
+                    numberWhitespace = true;
+                }
+
+                do{
+                    i++;
+                }while(i < to && Character.isWhitespace(code[i]));
+                continue;
+            }
+
+            if(pendingNumberArmed && (state == STATE_STRING || state == STATE_CHARACTER
+                    || (state == STATE_CODE && c != FalseLanguageDefinition.COMMENT_BEGIN))){
+                resolvePendingNumber(c == FalseLanguageDefinition.INLINE_ASSEMBLY_DECLARATION);
+            }
+
+            switch(state){
+                case STATE_STRING:{
+//                  everything up to the closing quote is part of the string, which may be continued by the following chunk
+                    int end = indexOf(FalseLanguageDefinition.PRINT_STRING_OPERATION, i, to);
+                    string.append(code, i, ((end == -1)? to: end) - i);
+                    if(end == -1){
+                        i = to;
+                        continue;
+                    }
+
+                    add(new PrintStringOperation(ctr.count(), string.toString()));
+
+                    state = STATE_CODE;
+                    i = end + 1;
+                    continue;
+                }
+                case STATE_COMMENT:{
+//                  everything up to the closing bracket is ignored
+                    int end = indexOf(FalseLanguageDefinition.COMMENT_END, i, to);
+                    if(end == -1){
+                        i = to;
+                        continue;
+                    }
+
+                    state = STATE_CODE;
+                    i = end + 1;
+                    continue;
+                }
+                case STATE_CHARACTER:
+                    add(new CharacterValueOperation(ctr.count(), c));
+                    state = STATE_CODE;
+                    break;
+                case STATE_SKIP:
+                    state = STATE_CODE;
+                    break;
+                default:
+                    parseCode(c, i);
+            }
+
+            i++;
+        }
+    }
+
+    /**
+     * This method gives you the index of the first occurrence of the given character inside the given range of the current chunk.<br>
+     * The first characters are compared one by one, and if the character isn't found among them the rest of the range
+     * is searched with {@link String#indexOf(int, int)}. This method is an intrinsic of the JVM, which compares
+     * 16 to 64 characters at once using vector instructions where the processor supports them (and falls back to
+     * a scalar loop otherwise), so long strings and comments are skipped much faster.
+     * @param c the character to search for
+     * @param from the index inside the chunk to begin at
+     * @param to the index inside the chunk to end at (exclusive)
+     * @return the index of the character inside the chunk; {@code -1} if the range doesn't contain it
+     */
+    private int indexOf(char c, int from, int to){
+        int scalarEnd = Math.min(to, from + SCALAR_SEARCH_LENGTH);
+        for(int i = from; i < scalarEnd; i++){
+            if(chunk[i] == c){
+                return i;
+            }
+        }
+
+        if(scalarEnd == to){
+            return -1;
+        }
+
+        if(text == null){
+            text = new String(chunk, chunkFrom, chunkTo - chunkFrom);
+            textShift = -chunkFrom;
+        }
+
+        int begin = scalarEnd + textShift;
+        if(text != searchedText || c != searchedChar || searchResult < begin){
+            int result = text.indexOf(c, begin);
+
+            searchedText = text;
+            searchedChar = c;
+            searchResult = (result == -1)? Integer.MAX_VALUE: result;
+        }
+
+        return (searchResult < to + textShift)? searchResult - textShift: -1;
+    }
+
+    /**
+     * This method parses a character that is neither inside a string nor a comment
+     * @param c the character
+     * @param i the index of the character inside the current chunk
+     */
+    private void parseCode(char c, int i){
+//      a variable adress has to be followed by an assigning or a reading operator (whitespace in between is ignored)
+        if(pendingVariable && !Character.isWhitespace(c)){
+            if(c != FalseLanguageDefinition.READ_OPERATOR && c != FalseLanguageDefinition.ASSIGN_OPERATOR){
+                error(PendingError.UNEXPECTED_TOKEN, i, VARIABLE_OPERATOR_EXPECTED);
+            }
+
+            pendingVariable = false;
+        }
+
+        boolean terminatesNumber = false;
+
+        if(number){
+            if(isNumerical(c)){
+//              whitespace between two numbers separates them
+                if(!numberWhitespace){
+                    digits.append(c);
+                    return;
+                }
+
+                endNumber(false);
+            }else if(Character.isWhitespace(c)){
+                numberWhitespace = true;
+                return;
+            }else if(c == FalseLanguageDefinition.COMMENT_BEGIN){
+//              a comment inside a number is simply removed, so the digits around it belong to the same number
+                numberWhitespace = false;
+                capture(tokenSnippet, i);
+                state = STATE_COMMENT;
+                return;
+            }else{
+//              whether the number is an assembly operation is determined by the character after the current one,
+//              though this may never be the case at the end of a function
+                endNumber(c != FalseLanguageDefinition.LAMBDA_END);
+                terminatesNumber = pendingNumber;
+            }
+        }
+
+        switch(c){
+            case FalseLanguageDefinition.COMMENT_BEGIN:
+                capture(tokenSnippet, i);
+                state = STATE_COMMENT;
+                break;
+            case FalseLanguageDefinition.COMMENT_END:
+//              a closing bracket without an opened comment is reported, and the character following it is skipped
+                error(PendingError.UNEXPECTED_TOKEN, i, null);
+                state = STATE_SKIP;
+                break;
+            case FalseLanguageDefinition.CHARACTER_DECLARATION:
+                capture(tokenSnippet, i);
+                state = STATE_CHARACTER;
+                break;
+            case FalseLanguageDefinition.PRINT_STRING_OPERATION:
+                capture(tokenSnippet, i);
+                string.setLength(0);
+                state = STATE_STRING;
+                break;
+            case FalseLanguageDefinition.LAMBDA_BEGIN:
+                frames.add(new Frame(ctr.count(), capture(new Snippet(), i)));
+                break;
+            case FalseLanguageDefinition.LAMBDA_END:
+                if(frames.size() > 1){
+                    Frame function = frames.remove(frames.size() - 1);
+                    add(new LambdaFunctionOperation(function.index, function.operations));
+                }else{
+                    error(PendingError.UNEXPECTED_TOKEN, i, null);
+                }
+                break;
+            case FalseLanguageDefinition.INLINE_ASSEMBLY_DECLARATION:
+                break;
+
+            case FalseLanguageDefinition.ASSIGN_OPERATOR:
+                add(new AssignOperation(ctr.count()));
+                break;
+            case FalseLanguageDefinition.READ_OPERATOR:
+                add(new ReadOperation(ctr.count()));
+                break;
+            case FalseLanguageDefinition.EXECUTE_OPERATOR:
+                add(new ExecutionOperation(ctr.count()));
+                break;
+
+            case FalseLanguageDefinition.ADD_OPERATOR:
+                add(new AddOperation(ctr.count()));
+                break;
+            case FalseLanguageDefinition.SUBTRACT_OPERATOR:
+                add(new SubtractOperation(ctr.count()));
+                break;
+            case FalseLanguageDefinition.MULTIPLY_OPERATOR:
+                add(new MultiplyOperation(ctr.count()));
+                break;
+            case FalseLanguageDefinition.DIVIDE_OPERATOR:
+                add(new DivideOperation(ctr.count()));
+                break;
+            case FalseLanguageDefinition.UNARYMINUS_OPERATOR:
+                add(new UnaryMinusOperation(ctr.count()));
+                break;
+
+            case FalseLanguageDefinition.EQUALS_OPERATOR:
+                add(new EqualsOperation(ctr.count()));
+                break;
+            case FalseLanguageDefinition.GREATER_OPERATOR:
+                add(new GreaterThanOperation(ctr.count()));
+                break;
+
+            case FalseLanguageDefinition.AND_OPERATOR:
+                add(new AndOperation(ctr.count()));
+                break;
+            case FalseLanguageDefinition.OR_OPERATOR:
+                add(new OrOperation(ctr.count()));
+                break;
+            case FalseLanguageDefinition.NOT_OPERATOR:
+                add(new NotOperation(ctr.count()));
+                break;
+
+            case FalseLanguageDefinition.DUPLICATE_OPERATOR:
+                add(new DuplicateOperation(ctr.count()));
+                break;
+            case FalseLanguageDefinition.DELETE_OPERATOR:
+                add(new DeleteOperation(ctr.count()));
+                break;
+            case FalseLanguageDefinition.SWAP_OPERATOR:
+                add(new SwapOperation(ctr.count()));
+                break;
+            case FalseLanguageDefinition.ROTATE_OPERATOR:
+                add(new RotateOperation(ctr.count()));
+                break;
+            case FalseLanguageDefinition.PICK_OPERATOR:
+            case FalseLanguageDefinition.PICK_OPERATOR_COMPAT:
+                add(new PickOperation(ctr.count()));
+                break;
+
+            case FalseLanguageDefinition.IF_OPERATOR:
+                add(new IfOperation(ctr.count()));
+                break;
+            case FalseLanguageDefinition.WHILE_OPERATOR:
+                add(new WhileOperation(ctr.count()));
+                break;
+
+            case FalseLanguageDefinition.PRINT_NUMBER_OPERATION:
+                add(new PrintNumberOperation(ctr.count()));
+                break;
+            case FalseLanguageDefinition.PRINT_CHARACTER_OPERATION:
+                add(new PrintCharacterOperation(ctr.count()));
+                break;
+            case FalseLanguageDefinition.READ_CHARACTER_OPERATOR:
+                add(new ReadCharacterOperation(ctr.count()));
+                break;
+
+            case FalseLanguageDefinition.FLUSH_STREAM_OPERATOR:
+            case FalseLanguageDefinition.FLUSH_STREAM_OPERATOR_COMPAT:
+                add(new FlushOperation(ctr.count()));
+                break;
+            default:
+                if(c >= FalseLanguageDefinition.VARIABLE_SCOPE_BEGIN && c <= FalseLanguageDefinition.VARIABLE_SCOPE_END){
+                    add(new VariableAdressOperation(ctr.count(), c));
+                    capture(variableSnippet, i);
+                    pendingVariable = true;
+                }else if(isNumerical(c)){
+                    number = true;
+                    numberWhitespace = false;
+                    digits.setLength(0);
+                    digits.append(c);
+                }else if(!Character.isWhitespace(c)){
+//                  any other character that is no whitespace is not defined as an operator in FALSE
+                    error(PendingError.UNRESOLVED_SYMBOL, i, null);
+                }
+        }
+
+        if(terminatesNumber){
+            pendingNumberArmed = true;
+        }
+    }
+
+    /**
+     * This method ends the current number
+     * @param pending whether the number is to be created as soon as the character following the current one has been parsed
+     */
+    private void endNumber(boolean pending){
+        number = false;
+
+        int value = 0;
+        int index = ctr.count();
+
+        try{
+            value = Integer.parseInt(digits.toString());
+        }catch(NumberFormatException exc){
+            if(numberError == null){
+                numberError = exc;
+            }
+        }
+
+        if(pending){
+            ArrayList<Operation> operations = frames.get(frames.size() - 1).operations;
+
+            pendingNumber = true;
+            pendingNumberValue = value;
+            pendingNumberIndex = index;
+            pendingNumberOperations = operations;
+            pendingNumberPosition = operations.size();
+
+//          the position of the number is reserved until it is known which operation it is
+            operations.add(null);
+        }else{
+            add(new IntegerValueOperation(index, value));
+        }
+    }
+
+    /**
+     * This method creates the pending number
+     * @param assembly whether the number is an assembly operation
+     */
+    private void resolvePendingNumber(boolean assembly){
+        pendingNumberOperations.set(pendingNumberPosition, assembly?
+                new AssemblyOperation(pendingNumberIndex, pendingNumberValue):
+                new IntegerValueOperation(pendingNumberIndex, pendingNumberValue));
+
+        pendingNumber = false;
+        pendingNumberArmed = false;
+        pendingNumberOperations = null;
+    }
+
+    /**
+     * This method ends the code, so that every token that hasn't been ended yet is ended.
+     *
+     * @return the operations of the main program
+     * @throws CompileErrorCollection if there is any syntax error inside the code
+     */
+    private ArrayList<Operation> finish() throws CompileErrorCollection {
+//      any snippet that is still missing characters simply ends with the code
+        openSnippets.clear();
+
+        if(pendingVariable){
+            errors.add(new PendingError(PendingError.UNEXPECTED_END, -1, variableSnippet, VARIABLE_OPERATOR_EXPECTED));
+        }
+
+        if(number){
+            endNumber(false);
+        }
+        if(pendingNumber){
+            resolvePendingNumber(false);
+        }
+
+        if(state == STATE_CHARACTER){
+            errors.add(new PendingError(PendingError.UNEXPECTED_END, -1, tokenSnippet, CHARACTER_EXPECTED));
+        }else if(state == STATE_STRING || state == STATE_COMMENT){
+            errors.add(new PendingError(PendingError.UNCLOSED_LITERAL, tokenSnippet.token, tokenSnippet, null));
+        }
+
+//      every function that hasn't been closed is reported, beginning with the outermost one
+        for(int i = 1; i < frames.size(); i++){
+            Snippet snippet = frames.get(i).snippet;
+            errors.add(new PendingError(PendingError.UNCLOSED_LITERAL, snippet.token, snippet, null));
+        }
+
+        if(errors.size() > 0){
+            CompileErrorCollection collection = new CompileErrorCollection();
+            for(PendingError error: errors){
+                collection.addError(error.create());
+            }
+            throw collection;
+        }
+        if(numberError != null){
+            throw numberError;
+        }
+
+        return frames.get(0).operations;
+    }
+
+    private void add(Operation op){
+        frames.get(frames.size() - 1).operations.add(op);
+    }
+
+    /**
+     * This method records an error at the character with the given index inside the current chunk
+     * @param kind the kind of the error (as defined in {@link PendingError})
+     * @param i the index of the character inside the current chunk
+     * @param info the additional information of the error; {@code null} if there is none
+     */
+    private void error(int kind, int i, String info){
+        errors.add(new PendingError(kind, offset + i, capture(new Snippet(), i), info));
+    }
+
+    /**
+     * This method begins capturing the snippet that centrally displays the character with the given index inside the current chunk.
+     * The characters are taken from the current chunk as far as possible, and from the following chunks otherwise.
+     * @param snippet the snippet to capture the characters in (which is reset)
+     * @param i the index of the character inside the current chunk
+     * @return the given snippet
+     */
+    private Snippet capture(Snippet snippet, int i){
+        if(!snippet.complete){
+            openSnippets.remove(snippet);
+        }
+
+        snippet.reset(offset + i);
+
+//      if the token is the first in the code we'll have to begin at the token itself otherwise we'll begin at the previous token,
+//      which may be the last character of the previous chunk
+        int j = i;
+        if(snippet.token > 0){
+            if(i > chunkFrom){
+                j = i - 1;
+            }else{
+                snippet.offer((char) previousChar);
+            }
+        }
+
+        for(; j < chunkTo && !snippet.complete; j++){
+            snippet.offer(chunk[j]);
+        }
+
+        if(!snippet.complete){
+            openSnippets.add(snippet);
+        }
+        return snippet;
+    }
+
+    /**
+     * This mehtod determines whether a given char c is numerical in terms of the FALSE programming language
+     *
+     * @param c the character to be tested for being numerical
+     * @return whether the character is numerical
+     */
+    private static boolean isNumerical(char c){
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * This class resembles the main program or a lambda function that is currently parsed
+     */
+    private static final class Frame {
+
+        /**
+         * The index of the {@link LambdaFunctionOperation}; {@code -1} for the main program
+         */
+        private final int index;
+        /**
+         * The snippet of the opening bracket; {@code null} for the main program
+         */
+        private final Snippet snippet;
+
+        private final ArrayList<Operation> operations;
+
+        private Frame(int index, Snippet snippet){
+            this.index = index;
+            this.snippet = snippet;
+            this.operations = new ArrayList<>();
+        }
+    }
+
+    /**
+     * This class resembles a snippet from the code that centrally displays a certain token.<br>
+     * If there is any leading or trailing code that is not displayed it will be snipped with triple dots ("...") to show
+     * that this is only a snippet of the code.<br>
+     * The snippet is complete as soon as it is known whether there is any code following the characters it displays.
+     */
+    private static final class Snippet {
+
+        /**
+         * The index of the token inside the code
+         */
+        private int token;
+        /**
+         * The characters that are displayed (maximum three)
+         */
+        private final char[] chars;
+        private int count;
+        /**
+         * Whether there is any code following the displayed characters
+         */
+        private boolean more;
+        private boolean complete;
+
+        private Snippet(){
+            this.chars = new char[3];
+        }
+
+        private void reset(int token){
+            this.token = token;
+            this.count = 0;
+            this.more = false;
+            this.complete = false;
+        }
+
+        /**
+         * This method adds the next character of the code to the snippet
+         * @param c the next character of the code
+         */
+        private void offer(char c){
+            if(count < chars.length){
+                chars[count++] = c;
+            }else{
+                more = true;
+                complete = true;
+            }
+        }
+
+        @Override
+        public String toString(){
+//          if the first token to display is not also the first token in the code we'll begin with triple dots
+            StringBuilder codeSnippet = new StringBuilder((token <= 1) ? "" : "... ");
+            codeSnippet.append(chars, 0, count);
+
+//          and if the last token we display is not the last token in the code we'll append a triple dot
+            if(more){
+                codeSnippet.append(" ...");
+            }
+
+            return codeSnippet.toString();
+        }
+    }
+
+    /**
+     * This class resembles an error that has been detected, but whose snippet may not have been captured completely yet
+     */
+    private static final class PendingError {
+
+        private static final int UNEXPECTED_TOKEN = 0;
+        private static final int UNRESOLVED_SYMBOL = 1;
+        private static final int UNCLOSED_LITERAL = 2;
+        private static final int UNEXPECTED_END = 3;
+
+        private final int kind;
+        /**
+         * The index of the erroneous token inside the code
+         */
+        private final int position;
+        private final Snippet snippet;
+        /**
+         * The additional information of the error; {@code null} if there is none
+         */
+        private final String info;
+
+        private PendingError(int kind, int position, Snippet snippet, String info){
+            this.kind = kind;
+            this.position = position;
+            this.snippet = snippet;
+            this.info = info;
+        }
+
+        private CompilationError create(){
+            switch(kind){
+                case UNEXPECTED_TOKEN:
+                    return (info == null)?
+                            new UnexpectedTokenCompilationError(position, snippet.toString()):
+                            new UnexpectedTokenCompilationError(position, snippet.toString(), info);
+                case UNRESOLVED_SYMBOL:
+                    return new UnresolvedSymbolCompilationError(position, snippet.toString());
+                case UNCLOSED_LITERAL:
+                    return new UnclosedLiteralCompilationError(position, snippet.toString());
+                default:
+                    return new UnexpectedEndOfCodeError(snippet.toString(), info);
+            }
+        }
+    }
+}
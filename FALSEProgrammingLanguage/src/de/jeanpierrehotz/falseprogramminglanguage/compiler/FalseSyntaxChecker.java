@@ -0,0 +1,560 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.compiler;
+
+import de.jeanpierrehotz.falseprogramminglanguage.compiler.error.*;
+import de.jeanpierrehotz.falseprogramminglanguage.language.FalseLanguageDefinition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class checks the structure of FALSE code in parallel, which means it finds any lambda function, string, comment
+ * or character declaration that hasn't been closed and any closing bracket that hasn't been opened.<br>
+ * The code is split into chunks, which are organized in a binary tree whose nodes are processed by a {@link ForkJoinPool}:
+ * <ol>
+ * <li>For every chunk the state the lexer ends in is computed for every state the lexer may begin the chunk in
+ * (between two tokens, inside a string, and so on). These transitions are combined up the tree.</li>
+ * <li>Going down the tree the state every chunk actually begins in is determined (a parallel prefix of the transitions),
+ * so that every chunk can be scanned once to sum up its brackets: the amount of closing brackets that don't
+ * belong to an opening bracket inside the chunk and the amount of opening brackets that aren't closed inside the chunk.
+ * These sums are combined up the tree as well.</li>
+ * <li>Only if the sums show any error the chunks are scanned again with the nesting depth they begin at
+ * (again a parallel prefix of the sums) to find the positions of the errors.</li>
+ * </ol>
+ * The errors are reported just like they are reported by the {@link FalseCompiler}.
+ */
+final class FalseSyntaxChecker {
+
+    /**
+     * The states of the lexer (just like the states of the parser)
+     */
+    private static final byte STATE_CODE = 0;
+    private static final byte STATE_STRING = 1;
+    private static final byte STATE_COMMENT = 2;
+    private static final byte STATE_CHARACTER = 3;
+    private static final byte STATE_SKIP = 4;
+    private static final int STATE_COUNT = 5;
+
+    /**
+     * The minimum size of a chunk, since smaller chunks aren't worth the overhead of a task
+     */
+    private static final int MINIMUM_CHUNK_SIZE = 1 << 16;
+
+    private final String code;
+
+    private FalseSyntaxChecker(String code){
+        this.code = code;
+    }
+
+    /**
+     * This method checks the structure of the given code using the given pool.
+     *
+     * @param code the code to check
+     * @param pool the pool to check the code with
+     * @throws CompileErrorCollection if the code contains any lambda function, string, comment or character declaration
+     *                                that hasn't been closed or any closing bracket that hasn't been opened
+     */
+    static void check(String code, ForkJoinPool pool) throws CompileErrorCollection {
+//      every thread gets a few chunks, so that threads finishing early can steal the remaining ones
+        check(code, pool, Math.max(1, Math.min(code.length() / MINIMUM_CHUNK_SIZE, 4 * pool.getParallelism())));
+    }
+
+    /**
+     * This method checks the structure of the given code split into the given amount of chunks using the given pool.
+     *
+     * @param code the code to check
+     * @param pool the pool to check the code with
+     * @param chunks the amount of chunks to split the code into; constraint: {@code 0 < chunks <= code.length()}
+     *               (unless the code is empty)
+     * @throws CompileErrorCollection if the code contains any lambda function, string, comment or character declaration
+     *                                that hasn't been closed or any closing bracket that hasn't been opened
+     */
+    static void check(String code, ForkJoinPool pool, int chunks) throws CompileErrorCollection {
+        FalseSyntaxChecker checker = new FalseSyntaxChecker(code);
+        Node root = checker.build(0, chunks, chunks);
+
+        pool.invoke(checker.new TransitionTask(root));
+        pool.invoke(checker.new BracketTask(root, STATE_CODE));
+
+        byte end = root.transitions[STATE_CODE];
+        boolean unclosedLiteral = end == STATE_STRING || end == STATE_COMMENT || end == STATE_CHARACTER;
+
+        if(root.closes == 0 && root.opens == 0 && root.strays == 0 && !unclosedLiteral){
+            return;
+        }
+
+        pool.invoke(checker.new ErrorTask(root, 0, root.opens));
+
+        CompileErrorCollection errors = new CompileErrorCollection();
+        ArrayList<Node> leaves = new ArrayList<>();
+        root.collectLeaves(leaves);
+
+        for(Node leaf : leaves){
+            for(CompilationError error : leaf.errors){
+                errors.addError(error);
+            }
+        }
+
+        if(unclosedLiteral){
+//          the literal that hasn't been closed is the one that has been begun last
+            int begin = -1;
+            for(int i = leaves.size() - 1; i >= 0 && begin == -1; i--){
+                begin = leaves.get(i).lastLiteral;
+            }
+
+            if(end == STATE_CHARACTER){
+                errors.addError(new UnexpectedEndOfCodeError(evaluateCodeSnippet(code, begin), FalseParser.CHARACTER_EXPECTED));
+            }else{
+                errors.addError(new UnclosedLiteralCompilationError(begin, evaluateCodeSnippet(code, begin)));
+            }
+        }
+
+//      every function that hasn't been closed is reported, beginning with the outermost one
+        for(Node leaf : leaves){
+            for(int begin : leaf.unclosedFunctions){
+                errors.addError(new UnclosedLiteralCompilationError(begin, evaluateCodeSnippet(code, begin)));
+            }
+        }
+
+        throw errors;
+    }
+
+    /**
+     * This method builds the tree of the given chunks
+     * @param lo the first chunk of the tree
+     * @param hi the chunk after the last chunk of the tree
+     * @param chunks the amount of chunks
+     * @return the root of the tree
+     */
+    private Node build(int lo, int hi, int chunks){
+        if(hi - lo == 1){
+            return new Node((int) ((long) code.length() * lo / chunks), (int) ((long) code.length() * hi / chunks));
+        }
+
+        int mid = (lo + hi) >>> 1;
+        return new Node(build(lo, mid, chunks), build(mid, hi, chunks));
+    }
+
+    /**
+     * This method determines the state the lexer ends the given chunk in for every state it may begin the chunk in.<br>
+     * The lexer is simulated for every state in lockstep, and as soon as two simulations are at the same position
+     * in the same state they are merged, since they can't differ afterwards anyways.
+     * @param leaf the chunk
+     */
+    private void computeTransitions(Node leaf){
+        int[] positions = new int[STATE_COUNT];
+        byte[] states = new byte[STATE_COUNT];
+//      the simulation every simulation has been merged into (which may have been merged itself)
+        int[] merged = new int[STATE_COUNT];
+
+        for(byte state = 0; state < STATE_COUNT; state++){
+            positions[state] = leaf.from;
+            states[state] = state;
+            merged[state] = state;
+        }
+
+        while(true){
+//          the simulation that is behind all the others is advanced
+            int current = -1;
+            for(int i = 0; i < STATE_COUNT; i++){
+                if(merged[i] == i && positions[i] < leaf.to && (current == -1 || positions[i] < positions[current])){
+                    current = i;
+                }
+            }
+
+            if(current == -1){
+                break;
+            }
+
+            step(current, positions, states, leaf.to);
+
+            for(int i = 0; i < STATE_COUNT; i++){
+                if(i != current && merged[i] == i && positions[i] == positions[current] && states[i] == states[current]){
+                    merged[current] = i;
+                    break;
+                }
+            }
+        }
+
+        for(int state = 0; state < STATE_COUNT; state++){
+            int i = state;
+            while(merged[i] != i){
+                i = merged[i];
+            }
+            leaf.transitions[state] = states[i];
+        }
+    }
+
+    /**
+     * This method advances the given simulation of the lexer by one token
+     * @param i the simulation to advance
+     * @param positions the positions of the simulations
+     * @param states the states of the simulations
+     * @param to the end of the chunk
+     */
+    private void step(int i, int[] positions, byte[] states, int to){
+        int position = positions[i];
+
+        switch(states[i]){
+            case STATE_STRING:
+            case STATE_COMMENT:{
+                int end = indexOf((states[i] == STATE_STRING)? FalseLanguageDefinition.PRINT_STRING_OPERATION: FalseLanguageDefinition.COMMENT_END, position, to);
+                if(end == -1){
+                    positions[i] = to;
+                }else{
+                    positions[i] = end + 1;
+                    states[i] = STATE_CODE;
+                }
+                return;
+            }
+            case STATE_CHARACTER:
+            case STATE_SKIP:
+                states[i] = STATE_CODE;
+                break;
+            default:
+                states[i] = next(code.charAt(position));
+        }
+
+        positions[i] = position + 1;
+    }
+
+    /**
+     * This method gives you the state the lexer is in after the given character has been scanned between two tokens
+     * @param c the character
+     * @return the state after the character
+     */
+    private static byte next(char c){
+        switch(c){
+            case FalseLanguageDefinition.PRINT_STRING_OPERATION:
+                return STATE_STRING;
+            case FalseLanguageDefinition.COMMENT_BEGIN:
+                return STATE_COMMENT;
+            case FalseLanguageDefinition.CHARACTER_DECLARATION:
+                return STATE_CHARACTER;
+            case FalseLanguageDefinition.COMMENT_END:
+                return STATE_SKIP;
+            default:
+                return STATE_CODE;
+        }
+    }
+
+    /**
+     * This method scans the given chunk beginning in the given state and sums up its brackets
+     * (or collects its errors if the depth it begins at is given).
+     * @param leaf the chunk
+     * @param state the state the chunk begins in
+     * @param errors whether the errors are to be collected
+     */
+    private void scan(Node leaf, byte state, boolean errors){
+        int depth = leaf.depth;
+//      the depths of the functions that have been opened inside the chunk and haven't been closed yet
+        int[] opened = new int[16];
+        int[] openedBegins = new int[16];
+        int openedCount = 0;
+
+        int closes = 0;
+        int strays = 0;
+        int lastLiteral = -1;
+
+        int i = leaf.from;
+        while(i < leaf.to){
+            if(state == STATE_STRING || state == STATE_COMMENT){
+                int end = indexOf((state == STATE_STRING)? FalseLanguageDefinition.PRINT_STRING_OPERATION: FalseLanguageDefinition.COMMENT_END, i, leaf.to);
+                if(end == -1){
+                    break;
+                }
+
+                state = STATE_CODE;
+                i = end + 1;
+                continue;
+            }else if(state != STATE_CODE){
+                state = STATE_CODE;
+                i++;
+                continue;
+            }
+
+            char c = code.charAt(i);
+            state = next(c);
+
+            if(state != STATE_CODE && state != STATE_SKIP){
+                lastLiteral = i;
+            }else if(state == STATE_SKIP){
+//              a closing bracket without an opened comment
+                strays++;
+                if(errors){
+                    leaf.errors.add(new UnexpectedTokenCompilationError(i, evaluateCodeSnippet(code, i)));
+                }
+            }else if(c == FalseLanguageDefinition.LAMBDA_BEGIN){
+                depth++;
+
+                if(openedCount == opened.length){
+                    opened = Arrays.copyOf(opened, 2 * openedCount);
+                    openedBegins = Arrays.copyOf(openedBegins, 2 * openedCount);
+                }
+                opened[openedCount] = depth;
+                openedBegins[openedCount] = i;
+                openedCount++;
+            }else if(c == FalseLanguageDefinition.LAMBDA_END){
+                if(openedCount > 0){
+                    openedCount--;
+                    depth--;
+                }else if(!errors || depth > 0){
+//                  the function has been opened by a previous chunk (if it has been opened at all)
+                    closes++;
+                    depth--;
+                }else{
+                    leaf.errors.add(new UnexpectedTokenCompilationError(i, evaluateCodeSnippet(code, i)));
+                }
+            }
+
+            i++;
+        }
+
+        if(errors){
+//          any function that is never closed is at a depth the code doesn't drop below after the chunk
+            for(int j = 0; j < openedCount; j++){
+                if(opened[j] <= leaf.minimumAfter){
+                    leaf.unclosedFunctions.add(openedBegins[j]);
+                }
+            }
+        }else{
+            leaf.closes = closes;
+            leaf.opens = openedCount;
+            leaf.strays = strays;
+            leaf.lastLiteral = lastLiteral;
+        }
+    }
+
+    /**
+     * This method gives you the index of the first occurrence of the given character inside the given range of the code
+     * @param c the character to search for
+     * @param from the index to begin at
+     * @param to the index to end at (exclusive)
+     * @return the index of the character; {@code -1} if the range doesn't contain it
+     */
+    private int indexOf(char c, int from, int to){
+        int i = code.indexOf(c, from);
+        return (i < to)? i: -1;
+    }
+
+    /**
+     * This method evaluates a snippet from the code that centrally displays the character at the index token
+     * (just like the snippets of the {@link FalseCompiler} are evaluated).
+     *
+     * @param code the code
+     * @param token the index of the token you want to centrally being displayed
+     * @return the String that centrally displays the token'ths token from the code
+     */
+    private static String evaluateCodeSnippet(String code, int token){
+        int beg = (token - 1 < 0) ? 0 : token - 1;
+        int end = Math.min(code.length(), beg + 3);
+
+        return ((beg == 0) ? "" : "... ") + code.substring(beg, end) + ((end < code.length()) ? " ..." : "");
+    }
+
+    /**
+     * This class resembles a node of the tree of chunks; the leaves of the tree are the chunks themselves
+     */
+    private static final class Node {
+
+        private final Node left;
+        private final Node right;
+
+        /**
+         * The range of the code the node covers
+         */
+        private final int from;
+        private final int to;
+
+        /**
+         * The state the lexer ends the range in (indexed by the state the lexer begins the range in)
+         */
+        private final byte[] transitions;
+
+        /**
+         * The amount of closing brackets of functions that don't belong to an opening bracket inside the range
+         */
+        private int closes;
+        /**
+         * The amount of opening brackets of functions that aren't closed inside the range
+         */
+        private int opens;
+        /**
+         * The amount of closing brackets of comments that haven't been opened
+         */
+        private int strays;
+
+        /**
+         * The state the lexer begins the chunk in
+         */
+        private byte state;
+        /**
+         * The index of the string, comment or character declaration that has been begun last inside the chunk; {@code -1} if there is none
+         */
+        private int lastLiteral;
+        /**
+         * The nesting depth of the functions the chunk begins at
+         */
+        private int depth;
+        /**
+         * The minimum nesting depth of the functions after the chunk
+         */
+        private int minimumAfter;
+
+        /**
+         * The errors inside the chunk in the order they occur in
+         */
+        private final ArrayList<CompilationError> errors;
+        /**
+         * The indices of the opening brackets of the functions inside the chunk that are never closed
+         */
+        private final ArrayList<Integer> unclosedFunctions;
+
+        private Node(int from, int to){
+            this.left = null;
+            this.right = null;
+            this.from = from;
+            this.to = to;
+            this.transitions = new byte[STATE_COUNT];
+            this.errors = new ArrayList<>();
+            this.unclosedFunctions = new ArrayList<>();
+        }
+
+        private Node(Node left, Node right){
+            this.left = left;
+            this.right = right;
+            this.from = left.from;
+            this.to = right.to;
+            this.transitions = new byte[STATE_COUNT];
+            this.errors = null;
+            this.unclosedFunctions = null;
+        }
+
+        private boolean isLeaf(){
+            return left == null;
+        }
+
+        private void collectLeaves(ArrayList<Node> leaves){
+            if(isLeaf()){
+                leaves.add(this);
+            }else{
+                left.collectLeaves(leaves);
+                right.collectLeaves(leaves);
+            }
+        }
+    }
+
+    /**
+     * This task computes the transitions of the states of the lexer of every node (from the leaves up to the root)
+     */
+    private final class TransitionTask extends RecursiveAction {
+
+        private final Node node;
+
+        private TransitionTask(Node node){
+            this.node = node;
+        }
+
+        @Override
+        protected void compute(){
+            if(node.isLeaf()){
+                computeTransitions(node);
+                return;
+            }
+
+            ForkJoinTask.invokeAll(new TransitionTask(node.left), new TransitionTask(node.right));
+
+            for(int state = 0; state < STATE_COUNT; state++){
+                node.transitions[state] = node.right.transitions[node.left.transitions[state]];
+            }
+        }
+    }
+
+    /**
+     * This task passes the state every node begins in down the tree, and sums up the brackets of every node
+     * (from the leaves up to the root)
+     */
+    private final class BracketTask extends RecursiveAction {
+
+        private final Node node;
+        private final byte state;
+
+        private BracketTask(Node node, byte state){
+            this.node = node;
+            this.state = state;
+        }
+
+        @Override
+        protected void compute(){
+            if(node.isLeaf()){
+                node.state = state;
+                scan(node, state, false);
+                return;
+            }
+
+            ForkJoinTask.invokeAll(new BracketTask(node.left, state), new BracketTask(node.right, node.left.transitions[state]));
+
+//          the closing brackets of the right node first close the opening brackets of the left node
+            Node l = node.left;
+            Node r = node.right;
+
+            node.closes = l.closes + Math.max(0, r.closes - l.opens);
+            node.opens = r.opens + Math.max(0, l.opens - r.closes);
+            node.strays = l.strays + r.strays;
+        }
+    }
+
+    /**
+     * This task passes the nesting depth every node begins at and the minimum nesting depth after every node down the tree,
+     * and collects the errors of every chunk
+     */
+    private final class ErrorTask extends RecursiveAction {
+
+        private final Node node;
+        private final int depth;
+        private final int minimumAfter;
+
+        private ErrorTask(Node node, int depth, int minimumAfter){
+            this.node = node;
+            this.depth = depth;
+            this.minimumAfter = minimumAfter;
+        }
+
+        @Override
+        protected void compute(){
+            if(node.isLeaf()){
+                node.depth = depth;
+                node.minimumAfter = minimumAfter;
+                scan(node, node.state, true);
+                return;
+            }
+
+//          any closing bracket that would close the main program is an error and thus doesn't change the depth
+            int lowest = Math.max(0, depth - node.left.closes);
+            int middle = lowest + node.left.opens;
+            int rightLowest = Math.max(0, middle - node.right.closes);
+
+            ForkJoinTask.invokeAll(
+                    new ErrorTask(node.left, depth, Math.min(minimumAfter, rightLowest)),
+                    new ErrorTask(node.right, middle, minimumAfter)
+            );
+        }
+    }
+}
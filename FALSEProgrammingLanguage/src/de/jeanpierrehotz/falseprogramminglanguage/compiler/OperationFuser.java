@@ -0,0 +1,136 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.compiler;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.Operation;
+import de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations.*;
+
+import java.util.ArrayList;
+
+/**
+ * This class replaces common sequences of operations inside a parsed program by single {@link FusedOperation}s,
+ * which do the work of the whole sequence in one step:
+ * <ul>
+ * <li>{@code a;} by a {@link LoadVariableOperation}</li>
+ * <li>{@code a:} by a {@link StoreVariableOperation}</li>
+ * <li>{@code 1+} and {@code 1-} by an {@link AddConstantOperation}</li>
+ * <li>{@code 0=} and {@code 0>} by a {@link CompareZeroOperation}</li>
+ * <li>{@code $@} by a {@link DuplicateRotateOperation}</li>
+ * <li>{@code [...]!} by an {@link InlineCallOperation}</li>
+ * <li>{@code [...]?} by a {@link ConditionalCallOperation}</li>
+ * </ul>
+ */
+public class OperationFuser {
+
+    /**
+     * We don't want anyone to instantiate this class, since it acts in a static context only.
+     */
+    private OperationFuser(){}
+
+    /**
+     * This method replaces every common sequence inside the given operations (and inside any lambda function
+     * contained by the operations) by the according fused operation.<br>
+     * Since fusing the operations of a function doesn't depend on the operations of any other function, the bodies
+     * of the lambda functions are simply collected in a list instead of being fused recursively, so that the nesting
+     * depth of the functions is not limited by the call stack.
+     * @param operations the operations to fuse; the list is changed in place
+     * @return the given list
+     */
+    public static ArrayList<Operation> fuse(ArrayList<Operation> operations){
+        ArrayList<ArrayList<Operation>> pending = new ArrayList<>();
+        pending.add(operations);
+
+        while(!pending.isEmpty()){
+            ArrayList<Operation> current = pending.remove(pending.size() - 1);
+
+//          we'll fuse the body of any lambda function as well
+            for(Operation op : current){
+                if(op instanceof LambdaFunctionOperation){
+                    pending.add(((LambdaFunctionOperation) op).getFunction().getInstructions());
+                }
+            }
+
+            fuseSequences(current);
+        }
+
+        return operations;
+    }
+
+    /**
+     * This method replaces every common sequence inside the given operations (but not inside the lambda functions
+     * contained by the operations) by the according fused operation.
+     * @param operations the operations to fuse; the list is changed in place
+     */
+    private static void fuseSequences(ArrayList<Operation> operations){
+        ArrayList<Operation> fused = new ArrayList<>();
+
+        for(int i = 0; i < operations.size(); i++){
+            Operation op = operations.get(i);
+
+            Operation fusedOp = (i + 1 < operations.size())? fuse(op, operations.get(i + 1)): null;
+
+            if(fusedOp != null){
+                fused.add(fusedOp);
+                i++;
+            }else{
+                fused.add(op);
+            }
+        }
+
+        operations.clear();
+        operations.addAll(fused);
+    }
+
+    /**
+     * This method fuses the given operations, if they form a common sequence
+     * @param op the first operation
+     * @param next the operation directly following the first operation
+     * @return the fused operation; {@code null} if the operations cannot be fused
+     */
+    private static Operation fuse(Operation op, Operation next){
+        if(op instanceof VariableAdressOperation){
+            if(next instanceof ReadOperation){
+                return new LoadVariableOperation((VariableAdressOperation) op, (ReadOperation) next);
+            }else if(next instanceof AssignOperation){
+                return new StoreVariableOperation((VariableAdressOperation) op, (AssignOperation) next);
+            }
+        }else if(op instanceof IntegerValueOperation){
+            IntegerValueOperation value = (IntegerValueOperation) op;
+
+            if(next instanceof AddOperation){
+                return new AddConstantOperation(value, (AddOperation) next);
+            }else if(next instanceof SubtractOperation){
+                return new AddConstantOperation(value, (SubtractOperation) next);
+            }else if(value.getValue() == 0 && next instanceof EqualsOperation){
+                return new CompareZeroOperation(value, (EqualsOperation) next);
+            }else if(value.getValue() == 0 && next instanceof GreaterThanOperation){
+                return new CompareZeroOperation(value, (GreaterThanOperation) next);
+            }
+        }else if(op instanceof DuplicateOperation){
+            if(next instanceof RotateOperation){
+                return new DuplicateRotateOperation((DuplicateOperation) op, (RotateOperation) next);
+            }
+        }else if(op instanceof LambdaFunctionOperation){
+            if(next instanceof ExecutionOperation){
+                return new InlineCallOperation((LambdaFunctionOperation) op, (ExecutionOperation) next);
+            }else if(next instanceof IfOperation){
+                return new ConditionalCallOperation((LambdaFunctionOperation) op, (IfOperation) next);
+            }
+        }
+
+        return null;
+    }
+}
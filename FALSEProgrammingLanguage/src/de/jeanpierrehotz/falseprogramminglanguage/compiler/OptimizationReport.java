@@ -0,0 +1,109 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.compiler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class records what the {@link ProgramOptimizer} has done to a program.<br>
+ * Every optimization is described by one entry, and the amounts of folded and removed operations
+ * are counted, so that you can see how much smaller the program has become.
+ */
+public class OptimizationReport {
+
+    /**
+     * The descriptions of the optimizations that have been done
+     */
+    private List<String> entries;
+
+    /**
+     * The amount of operations that have been replaced by a constant
+     */
+    private int foldedOperations;
+    /**
+     * The amount of operations that have been removed without replacement
+     */
+    private int removedOperations;
+
+    /**
+     * This constructor creates an empty report
+     */
+    public OptimizationReport(){
+        this.entries = new ArrayList<>();
+        this.foldedOperations = 0;
+        this.removedOperations = 0;
+    }
+
+    /**
+     * This method records that the given code has been folded into the given constant
+     * @param index the index of the last folded operation
+     * @param code the code that has been folded
+     * @param count the amount of operations that have been folded
+     * @param result the code of the constant the operations have been folded into
+     */
+    public void addFolding(int index, String code, int count, String result){
+        entries.add("Folded \"" + code + "\" into \"" + result + "\" at instruction number " + index);
+        foldedOperations += count;
+    }
+
+    /**
+     * This method records that the given code has been removed
+     * @param index the index of the last removed operation
+     * @param code the code that has been removed
+     * @param count the amount of operations that have been removed
+     * @param reason the reason why the code could be removed
+     */
+    public void addRemoval(int index, String code, int count, String reason){
+        entries.add("Removed \"" + code + "\" at instruction number " + index + " (" + reason + ")");
+        removedOperations += count;
+    }
+
+    /**
+     * This method gives you the descriptions of every optimization that has been done
+     * @return the descriptions of the optimizations
+     */
+    public List<String> getEntries(){
+        return entries;
+    }
+
+    public int getFoldedOperations(){
+        return foldedOperations;
+    }
+
+    public int getRemovedOperations(){
+        return removedOperations;
+    }
+
+    /**
+     * This method gives you every entry of this report
+     * @return the entries each separated by a line break
+     */
+    @Override
+    public String toString() {
+        String msg = "";
+
+        for(String entry : entries){
+            msg += entry + "\n";
+        }
+
+        if(msg.endsWith("\n")){
+            msg = msg.substring(0, msg.length() - 1);
+        }
+
+        return msg;
+    }
+}
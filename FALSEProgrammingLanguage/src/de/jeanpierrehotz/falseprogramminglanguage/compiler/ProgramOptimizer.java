@@ -0,0 +1,302 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.compiler;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.Operation;
+import de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations.*;
+import de.jeanpierrehotz.falseprogramminglanguage.language.FalseLanguageDefinition;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class optimizes a parsed program before it is executed:
+ * <ul>
+ * <li>arithmetic, comparisons and logic on constants are folded into a single constant (e.g. {@code 2 3*1+} into {@code 7})</li>
+ * <li>conditional functions with a constant condition are either removed ({@code 0[...]?}) or inlined ({@code 1_[...]?})</li>
+ * <li>constants and functions that are pushed and directly dropped (e.g. {@code [...]%}) are removed</li>
+ * </ul>
+ * Operations that would cause an error (like a division by zero) are never folded, so that the error
+ * still occurs when the program is executed. Everything that has been done is recorded in an {@link OptimizationReport}.
+ */
+public class ProgramOptimizer {
+
+    /**
+     * We don't want anyone to instantiate this class, since it acts in a static context only.
+     */
+    private ProgramOptimizer(){}
+
+    /**
+     * This method optimizes the given operations (and any lambda function contained by the operations).<br>
+     * The body of a lambda function is optimized before the function itself, whereas the operations that are currently
+     * optimized are tracked with an explicit stack, so that the nesting depth of the functions is not limited by the call stack.
+     * @param operations the operations to optimize; the list is changed in place
+     * @param report the report to record the optimizations in
+     * @return the given list
+     */
+    public static ArrayList<Operation> optimize(ArrayList<Operation> operations, OptimizationReport report){
+        ArrayList<Frame> frames = new ArrayList<>();
+        frames.add(new Frame(operations));
+
+        while(!frames.isEmpty()){
+            Frame frame = frames.get(frames.size() - 1);
+
+//          if every operation has been appended the optimized operations replace the original ones
+            if(frame.next == frame.operations.size()){
+                frame.operations.clear();
+                frame.operations.addAll(frame.optimized);
+
+                frames.remove(frames.size() - 1);
+                continue;
+            }
+
+            Operation op = frame.operations.get(frame.next);
+
+//          the body of a lambda function is optimized before the function itself
+            if(op instanceof LambdaFunctionOperation && !frame.bodyOptimized){
+                frame.bodyOptimized = true;
+                frames.add(new Frame(((LambdaFunctionOperation) op).getFunction().getInstructions()));
+                continue;
+            }
+
+            frame.next++;
+            frame.bodyOptimized = false;
+            append(frame.optimized, op, report);
+        }
+
+        return operations;
+    }
+
+    /**
+     * This method appends the given operation to the already optimized operations
+     * and optimizes the end of the optimized operations as long as possible.
+     * The body of the operation (if it is a lambda function) has to be optimized already.
+     * @param optimized the already optimized operations
+     * @param op the operation to append
+     * @param report the report to record the optimizations in
+     */
+    private static void append(ArrayList<Operation> optimized, Operation op, OptimizationReport report){
+        optimized.add(op);
+
+        int size;
+        do{
+            size = optimized.size();
+            reduce(optimized, report);
+        }while(optimized.size() < size);
+    }
+
+    /**
+     * This method optimizes the last operations of the given list once (if possible).
+     * @param optimized the already optimized operations
+     * @param report the report to record the optimizations in
+     */
+    private static void reduce(ArrayList<Operation> optimized, OptimizationReport report){
+        int size = optimized.size();
+
+        if(size == 0){
+            return;
+        }
+
+        Operation last = optimized.get(size - 1);
+
+        Integer first = (size >= 3)? constant(optimized.get(size - 3)): null;
+        Integer second = (size >= 2)? constant(optimized.get(size - 2)): null;
+
+//      binary operation on two constants
+        if(first != null && second != null){
+            Integer result = fold(first, second, last);
+
+            if(result != null){
+                replace(optimized, 3, result, report);
+                return;
+            }
+        }
+
+//      unary operation on a constant
+        if(second != null){
+            Integer result = null;
+
+            if(last instanceof UnaryMinusOperation && second != Integer.MIN_VALUE){
+                result = - second;
+            }else if(last instanceof NotOperation && isBoolean(second)){
+                result = truthValue(second != FalseLanguageDefinition.TRUE);
+            }
+
+            if(result != null){
+                replace(optimized, 2, result, report);
+                return;
+            }
+        }
+
+//      a constant or a function that is dropped right away
+        if(size >= 2 && last instanceof DeleteOperation
+                && (second != null || optimized.get(size - 2) instanceof LambdaFunctionOperation)){
+            report.addRemoval(last.getIndex(), toCode(optimized.subList(size - 2, size)), 2, "unused value");
+            remove(optimized, 2);
+            return;
+        }
+
+//      a conditional function with a constant condition
+        if(first != null && isBoolean(first) && optimized.get(size - 2) instanceof LambdaFunctionOperation && last instanceof IfOperation){
+            Function function = ((LambdaFunctionOperation) optimized.get(size - 2)).getFunction();
+
+            if(first == FalseLanguageDefinition.FALSE){
+                report.addRemoval(last.getIndex(), toCode(optimized.subList(size - 3, size)), 3, "unreachable code");
+                remove(optimized, 3);
+            }else{
+                report.addRemoval(last.getIndex(), toCode(optimized.subList(size - 3, size)), 3, "condition is always true; the function has been inlined");
+                remove(optimized, 3);
+
+//              the body of the function has already been optimized, so its operations can simply be appended
+                for(Operation op : function.getInstructions()){
+                    append(optimized, op, report);
+                }
+            }
+        }
+    }
+
+    /**
+     * This method folds the given constants with the given operation
+     * @param n1 the deeper constant
+     * @param n2 the topmost constant
+     * @param op the operation to apply
+     * @return the result of the operation; {@code null} if the operation cannot be folded
+     */
+    private static Integer fold(int n1, int n2, Operation op){
+        if(op instanceof AddOperation){
+            return n1 + n2;
+        }else if(op instanceof SubtractOperation){
+            return n1 - n2;
+        }else if(op instanceof MultiplyOperation){
+            return n1 * n2;
+        }else if(op instanceof DivideOperation){
+//          a division by zero has to fail when the program is executed
+            return (n2 != 0)? n1 / n2: null;
+        }else if(op instanceof EqualsOperation){
+            return truthValue(n1 == n2);
+        }else if(op instanceof GreaterThanOperation){
+            return truthValue(n1 > n2);
+        }else if(op instanceof AndOperation && isBoolean(n1) && isBoolean(n2)){
+            return truthValue(n1 == FalseLanguageDefinition.TRUE && n2 == FalseLanguageDefinition.TRUE);
+        }else if(op instanceof OrOperation && isBoolean(n1) && isBoolean(n2)){
+            return truthValue(n1 == FalseLanguageDefinition.TRUE || n2 == FalseLanguageDefinition.TRUE);
+        }
+
+        return null;
+    }
+
+    /**
+     * This method replaces the last operations of the given list by the given constant
+     * @param optimized the already optimized operations
+     * @param count the amount of operations to replace
+     * @param value the value of the constant
+     * @param report the report to record the optimization in
+     */
+    private static void replace(ArrayList<Operation> optimized, int count, int value, OptimizationReport report){
+//      the smallest integer cannot be written in FALSE code, so it must not be the result of any folding
+        if(value == Integer.MIN_VALUE){
+            return;
+        }
+
+        int size = optimized.size();
+        int index = optimized.get(size - 1).getIndex();
+        IntegerValueOperation constant = new IntegerValueOperation(index, value);
+
+        report.addFolding(index, toCode(optimized.subList(size - count, size)), count, toCode(constant));
+
+        remove(optimized, count);
+        optimized.add(constant);
+    }
+
+    private static void remove(ArrayList<Operation> optimized, int count){
+        for(int i = 0; i < count; i++){
+            optimized.remove(optimized.size() - 1);
+        }
+    }
+
+    /**
+     * This method gives you the value of the given operation, if it pushes a constant integer
+     * @param op the operation
+     * @return the value of the constant; {@code null} if the operation is no constant
+     */
+    private static Integer constant(Operation op){
+        if(op instanceof IntegerValueOperation){
+            return ((IntegerValueOperation) op).getValue();
+        }else if(op instanceof CharacterValueOperation){
+            return (int) ((CharacterValueOperation) op).getValue();
+        }
+
+        return null;
+    }
+
+    private static boolean isBoolean(int value){
+        return value == FalseLanguageDefinition.TRUE || value == FalseLanguageDefinition.FALSE;
+    }
+
+    private static int truthValue(boolean value){
+        return value? FalseLanguageDefinition.TRUE: FalseLanguageDefinition.FALSE;
+    }
+
+    private static String toCode(Operation op){
+        List<Operation> ops = new ArrayList<>();
+        ops.add(op);
+        return toCode(ops);
+    }
+
+    /**
+     * This method gives you the FALSE code of the given operations
+     * @param ops the operations
+     * @return the code of the operations
+     */
+    private static String toCode(List<Operation> ops){
+        String code = "";
+
+        for(int i = 0; i < ops.size(); i++){
+            Operation op = ops.get(i);
+
+            if(!(op instanceof IntegerValueOperation)){
+                code += op.toString();
+            }else{
+                code += ((IntegerValueOperation) op).getValueWithWhiteSpace(i > 0 && ops.get(i - 1) instanceof IntegerValueOperation);
+            }
+        }
+
+        return code;
+    }
+
+    /**
+     * This class resembles operations that are currently optimized
+     */
+    private static final class Frame {
+
+        private final ArrayList<Operation> operations;
+        private final ArrayList<Operation> optimized;
+
+        /**
+         * The index of the next operation to append
+         */
+        private int next;
+        /**
+         * Whether the body of the next operation (which is a lambda function) has already been optimized
+         */
+        private boolean bodyOptimized;
+
+        private Frame(ArrayList<Operation> operations){
+            this.operations = operations;
+            this.optimized = new ArrayList<>();
+        }
+    }
+}
@@ -15,22 +15,72 @@
 
 package de.jeanpierrehotz.falseprogramminglanguage.data;
 
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.ExecutionAbortedInterpretError;
+
 /**
- * Created by Admin on 01.10.2016.
+ * Created by Admin on 01.10.2016.<br>
+ * <br>
+ * This class shows whether a program is to be aborted.<br>
+ * A running program doesn't check this indicator after every instruction, but only at its safepoints,
+ * which are every call of a function (including every evaluation of the condition of a while-loop), every
+ * repetition of a loop and every time input has been read. Thus the program is aborted after at most as many
+ * instructions as there are between two safepoints. Since a program may also be blocked while reading from the console,
+ * the thread executing it is interrupted when the program is aborted.
  */
 public class ExecutionAbortIndicator {
 
-    private boolean toBeAborted;
+    /**
+     * Whether the program is to be aborted; this field is volatile, so that the JIT mustn't hoist reading it out of any loop
+     */
+    private volatile boolean toBeAborted;
+
+    /**
+     * The thread currently executing the program; {@code null} if the program is not executed
+     */
+    private Thread executingThread;
 
     public ExecutionAbortIndicator(){
         toBeAborted = false;
     }
 
-    public void abortExecution(){
+    /**
+     * This method signalizes that the program is to be aborted and interrupts the thread executing it
+     */
+    public synchronized void abortExecution(){
         this.toBeAborted = true;
+
+        if(executingThread != null){
+            executingThread.interrupt();
+        }
+    }
+
+    /**
+     * This method sets the thread that is currently executing the program
+     * @param executingThread the thread executing the program; {@code null} if the execution has ended
+     */
+    public synchronized void setExecutingThread(Thread executingThread){
+        this.executingThread = executingThread;
+    }
+
+    /**
+     * This method resets the indicator, so that it can be used for another execution of the program
+     */
+    public synchronized void reset(){
+        this.toBeAborted = false;
+        this.executingThread = null;
     }
 
     public boolean isToBeAborted() {
         return toBeAborted;
     }
+
+    /**
+     * This method is called at every safepoint of a program and unwinds the program, if it is to be aborted
+     * @throws ExecutionAbortedInterpretError if the program is to be aborted
+     */
+    public void poll() throws ExecutionAbortedInterpretError {
+        if(toBeAborted){
+            throw new ExecutionAbortedInterpretError();
+        }
+    }
 }
@@ -16,11 +16,12 @@
 package de.jeanpierrehotz.falseprogramminglanguage.data;
 
 import de.jeanpierrehotz.falseprogramminglanguage.compiler.FalseCompiler;
+import de.jeanpierrehotz.falseprogramminglanguage.compiler.OperationFuser;
+import de.jeanpierrehotz.falseprogramminglanguage.compiler.OptimizationReport;
 import de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations.*;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -37,8 +38,30 @@ public class FalseProgram extends OperationGroup {
     public static final byte PROGRAM_BEGIN = 7,
             PROGRAM_END = 127;
 
+    private static final String ILLEGAL_BYTE_CODE = "The byte code has been illegaly changed!";
+
+    /**
+     * The optimizations the compiler has done to this program
+     */
+    private final OptimizationReport optimizationReport;
+
     public FalseProgram(ArrayList<Operation> instr) {
+        this(instr, new OptimizationReport());
+    }
+
+    public FalseProgram(ArrayList<Operation> instr, OptimizationReport optimizationReport) {
         super(instr);
+        this.optimizationReport = optimizationReport;
+    }
+
+    /**
+     * This method gives you the optimizations the compiler has done to this program.<br>
+     * Programs that have been loaded from byte code have already been optimized before they've been saved,
+     * thus their report is empty.
+     * @return the report of the optimizations
+     */
+    public OptimizationReport getOptimizationReport(){
+        return optimizationReport;
     }
 
     @Override
@@ -91,195 +114,192 @@ public class FalseProgram extends OperationGroup {
         byte[] data = Files.readAllBytes(Paths.get(file));
 
         if(data[0] != PROGRAM_BEGIN || data[data.length - 1] != PROGRAM_END){
-            throw new IOException("The byte code has been illegaly changed!");
+            throw new IOException(ILLEGAL_BYTE_CODE);
         }
 
-        return new FalseProgram(parseByteCode(data));
+        return new FalseProgram(OperationFuser.fuse(parseByteCode(data)));
     }
 
+    /**
+     * This method decodes the given byte code in one single scan.<br>
+     * The functions that haven't been ended yet are tracked with an explicit stack, so that neither the nesting depth
+     * of the functions is limited by the depth of the call stack nor any function has to be scanned more than once.
+     * @param data the byte code (including {@link #PROGRAM_BEGIN} and {@link #PROGRAM_END})
+     * @return the operations of the main program
+     * @throws IOException if the byte code is malformed
+     */
     private static ArrayList<Operation> parseByteCode(byte[] data) throws IOException {
-        return parseByteCode(1, data.length - 1, data, new FalseCompiler.OccurrenceCounter());
-    }
-
-    private static ArrayList<Operation> parseByteCode(int beg, int end, byte[] data, FalseCompiler.OccurrenceCounter ctr) throws IOException {
-        ArrayList<Operation> operations = new ArrayList<>();
+        FalseCompiler.OccurrenceCounter ctr = new FalseCompiler.OccurrenceCounter();
 
-        int temp_beg;
-        int temp_end;
+//      the operations of the main program (at index 0) and of every function that hasn't been ended yet
+        ArrayList<ArrayList<Operation>> groups = new ArrayList<>();
+//      the indices of the functions that haven't been ended yet
+        ArrayList<Integer> functionIndices = new ArrayList<>();
 
-        int level;
+        ArrayList<Operation> current = new ArrayList<>();
+        groups.add(current);
 
-        ByteBuffer bb;
+        int end = data.length - 1;
+        int i = 1;
 
-        for(int i = beg; i < end && i < data.length; i++){
-            switch (data[i]){
+        while(i < end){
+            switch (data[i++]){
                 case Function.OPERATION_BEGIN_BYTE:
-                    boolean string = false;
-
-                    temp_beg = i + 1;
-                    temp_end = temp_beg;
-
-                    level = 0;
-
-                    while(temp_end < data.length && (data[temp_end] != Function.OPERATION_END_BYTE || string || level > 0)){
-                        if(data[temp_end] == Function.OPERATION_BEGIN_BYTE){
-                            level++;
-                        }else if(data[temp_end] == Function.OPERATION_END_BYTE){
-                            level--;
-                        }else if(!string && data[temp_end] == PrintStringOperation.OPERATION_BEGIN_BYTE){
-                            string = true;
-                        }else if(string && data[temp_end] == PrintStringOperation.OPERATION_END_BYTE){
-                            string = false;
-                        }
-                        temp_end++;
-                    }
+//                  the index of a function is counted before the indices of its operations
+                    functionIndices.add(ctr.count());
 
-                    operations.add(new LambdaFunctionOperation(ctr.count(), parseByteCode(temp_beg, temp_end, data, ctr)));
-
-                    i = temp_end;
+                    current = new ArrayList<>();
+                    groups.add(current);
+                    break;
+                case Function.OPERATION_END_BYTE:
+                    if(groups.size() == 1){
+                        throw new IOException(ILLEGAL_BYTE_CODE);
+                    }
 
+                    ArrayList<Operation> function = groups.remove(groups.size() - 1);
+                    current = groups.get(groups.size() - 1);
+                    current.add(new LambdaFunctionOperation(functionIndices.remove(functionIndices.size() - 1), function));
                     break;
                 case PrintStringOperation.OPERATION_BEGIN_BYTE:
-                    String content = "";
+                    StringBuilder content = new StringBuilder();
 
-                    temp_beg = i + 1;
-                    temp_end = temp_beg;
-
-                    while(temp_end < data.length && data[temp_end] != PrintStringOperation.OPERATION_END_BYTE){
-                        bb = ByteBuffer.allocate(2);
-                        bb.put(data[temp_end]).put(data[temp_end + 1]).position(0);
-                        content += bb.getChar();
-
-                        temp_end += 2;
+                    while(i < end && data[i] != PrintStringOperation.OPERATION_END_BYTE){
+                        content.append((char) readOperand(data, i, 2, end));
+                        i += 2;
                     }
+                    if(i == end){
+                        throw new IOException(ILLEGAL_BYTE_CODE);
+                    }
+                    i++;
 
-                    operations.add(new PrintStringOperation(ctr.count(), content));
-                    i = temp_end;
-
+                    current.add(new PrintStringOperation(ctr.count(), content.toString()));
                     break;
 
                 case VariableAdressOperation.OPERATION_BYTE:
+                    readOperand(data, i, 1, end);
+                    current.add(new VariableAdressOperation(ctr.count(), (char) data[i]));
                     i++;
-                    operations.add(new VariableAdressOperation(ctr.count(), (char) data[i]));
                     break;
                 case CharacterValueOperation.OPERATION_BYTE:
-                    i++;
-
-                    bb = ByteBuffer.allocate(2);
-                    bb.put(data[i++]).put(data[i]).position(0);
-
-                    operations.add(new CharacterValueOperation(ctr.count(), bb.getChar()));
-
+                    current.add(new CharacterValueOperation(ctr.count(), (char) readOperand(data, i, 2, end)));
+                    i += 2;
                     break;
                 case IntegerValueOperation.OPERATION_BYTE:
+                    current.add(new IntegerValueOperation(ctr.count(), readOperand(data, i, 4, end)));
+                    i += 4;
+                    break;
                 case AssemblyOperation.OPERATION_BYTE:
-                    boolean integer = data[i] == IntegerValueOperation.OPERATION_BYTE;
-                    i++;
-
-                    bb = ByteBuffer.allocate(4);
-                    bb.put(data[i++]).put(data[i++]).put(data[i++]).put(data[i]).position(0);
-
-                    if(integer) {
-                        operations.add(new IntegerValueOperation(ctr.count(), bb.getInt()));
-                    }else{
-                        operations.add(new AssemblyOperation(ctr.count(), bb.getInt()));
-                    }
-
+                    current.add(new AssemblyOperation(ctr.count(), readOperand(data, i, 4, end)));
+                    i += 4;
                     break;
                 case AssignOperation.OPERATION_BYTE:
-                    operations.add(new AssignOperation(ctr.count()));
+                    current.add(new AssignOperation(ctr.count()));
                     break;
                 case ReadOperation.OPERATION_BYTE:
-                    operations.add(new ReadOperation(ctr.count()));
+                    current.add(new ReadOperation(ctr.count()));
                     break;
                 case ExecutionOperation.OPERATION_BYTE:
-                    operations.add(new ExecutionOperation(ctr.count()));
+                    current.add(new ExecutionOperation(ctr.count()));
                     break;
                 case AddOperation.OPERATION_BYTE:
-                    operations.add(new AddOperation(ctr.count()));
+                    current.add(new AddOperation(ctr.count()));
                     break;
                 case SubtractOperation.OPERATION_BYTE:
-                    operations.add(new SubtractOperation(ctr.count()));
+                    current.add(new SubtractOperation(ctr.count()));
                     break;
                 case MultiplyOperation.OPERATION_BYTE:
-                    operations.add(new MultiplyOperation(ctr.count()));
+                    current.add(new MultiplyOperation(ctr.count()));
                     break;
                 case DivideOperation.OPERATION_BYTE:
-                    operations.add(new DivideOperation(ctr.count()));
+                    current.add(new DivideOperation(ctr.count()));
                     break;
                 case UnaryMinusOperation.OPERATION_BYTE:
-                    operations.add(new UnaryMinusOperation(ctr.count()));
+                    current.add(new UnaryMinusOperation(ctr.count()));
                     break;
                 case EqualsOperation.OPERATION_BYTE:
-                    operations.add(new EqualsOperation(ctr.count()));
+                    current.add(new EqualsOperation(ctr.count()));
                     break;
                 case GreaterThanOperation.OPERATION_BYTE:
-                    operations.add(new GreaterThanOperation(ctr.count()));
+                    current.add(new GreaterThanOperation(ctr.count()));
                     break;
                 case AndOperation.OPERATION_BYTE:
-                    operations.add(new AndOperation(ctr.count()));
+                    current.add(new AndOperation(ctr.count()));
                     break;
                 case OrOperation.OPERATION_BYTE:
-                    operations.add(new OrOperation(ctr.count()));
+                    current.add(new OrOperation(ctr.count()));
                     break;
                 case NotOperation.OPERATION_BYTE:
-                    operations.add(new NotOperation(ctr.count()));
+                    current.add(new NotOperation(ctr.count()));
                     break;
                 case DuplicateOperation.OPERATION_BYTE:
-                    operations.add(new DuplicateOperation(ctr.count()));
+                    current.add(new DuplicateOperation(ctr.count()));
                     break;
                 case DeleteOperation.OPERATION_BYTE:
-                    operations.add(new DeleteOperation(ctr.count()));
+                    current.add(new DeleteOperation(ctr.count()));
                     break;
                 case SwapOperation.OPERATION_BYTE:
-                    operations.add(new SwapOperation(ctr.count()));
+                    current.add(new SwapOperation(ctr.count()));
                     break;
                 case RotateOperation.OPERATION_BYTE:
-                    operations.add(new RotateOperation(ctr.count()));
+                    current.add(new RotateOperation(ctr.count()));
                     break;
                 case PickOperation.OPERATION_BYTE:
-                    operations.add(new PickOperation(ctr.count()));
+                    current.add(new PickOperation(ctr.count()));
                     break;
                 case IfOperation.OPERATION_BYTE:
-                    operations.add(new IfOperation(ctr.count()));
+                    current.add(new IfOperation(ctr.count()));
                     break;
                 case WhileOperation.OPERATION_BYTE:
-                    operations.add(new WhileOperation(ctr.count()));
+                    current.add(new WhileOperation(ctr.count()));
                     break;
                 case PrintNumberOperation.OPERATION_BYTE:
-                    operations.add(new PrintNumberOperation(ctr.count()));
+                    current.add(new PrintNumberOperation(ctr.count()));
                     break;
                 case FlushOperation.OPERATION_BYTE:
-                    operations.add(new FlushOperation(ctr.count()));
+                    current.add(new FlushOperation(ctr.count()));
                     break;
                 case ReadCharacterOperation.OPERATION_BYTE:
-                    operations.add(new ReadCharacterOperation(ctr.count()));
+                    current.add(new ReadCharacterOperation(ctr.count()));
                     break;
                 case PrintCharacterOperation.OPERATION_BYTE:
-                    operations.add(new PrintCharacterOperation(ctr.count()));
+                    current.add(new PrintCharacterOperation(ctr.count()));
                     break;
                 default:
-                    throw new IOException("The byte code has been illegaly changed!");
+                    throw new IOException(ILLEGAL_BYTE_CODE);
             }
         }
 
-        return operations;
-    }
+//      every function has to be ended before the program ends
+        if(groups.size() > 1){
+            throw new IOException(ILLEGAL_BYTE_CODE);
+        }
 
-    @Override
-    public String toString() {
-        String content = "";
+        return current;
+    }
 
-        for(int i = 0; i < instructions.size(); i++){
-            Operation op = instructions.get(i);
+    /**
+     * This method reads the big-endian operand of the given length that begins at the given index
+     * @param data the byte code
+     * @param i the index of the first byte of the operand
+     * @param length the amount of bytes of the operand (maximum four)
+     * @param end the index the operands have to end before
+     * @return the value of the operand
+     * @throws IOException if the operand exceeds the given end
+     */
+    private static int readOperand(byte[] data, int i, int length, int end) throws IOException {
+        if(i + length > end){
+            throw new IOException(ILLEGAL_BYTE_CODE);
+        }
 
-            if(!(op instanceof IntegerValueOperation)){
-                content += op.toString();
-            }else{
-                content += ((IntegerValueOperation) op).getValueWithWhiteSpace(i > 0 && instructions.get(i - 1) instanceof IntegerValueOperation);
-            }
+        int value = 0;
+        for(int j = 0; j < length; j++){
+            value = (value << 8) | (data[i + j] & 0xFF);
         }
+        return value;
+    }
 
-        return content;
+    @Override
+    public String toString() {
+        return instructionsToString();
     }
 }
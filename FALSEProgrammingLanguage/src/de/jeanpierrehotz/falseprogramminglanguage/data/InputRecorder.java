@@ -0,0 +1,149 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.data;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class records every input a program consumes through a {@link StandardInOutPutCompat}, so that the very same
+ * execution can be repeated later on by an {@link InputReplayer}.<br>
+ * The log begins with {@link #MAGIC} and {@link #VERSION}, followed by one event for every line that has been read by
+ * flushing (or the end of the input), and for every character that has been read by the program. Every event consists
+ * of its kind, the nanoseconds since the previous event and its content; all numbers are written as variable length
+ * integers, so that a typical event only takes a few bytes.
+ */
+public class InputRecorder implements Closeable {
+
+    /**
+     * The first bytes of every log
+     */
+    static final int MAGIC = 0x46414C49;
+    /**
+     * The version of the format of the log
+     */
+    static final byte VERSION = 1;
+
+    /**
+     * A line that has been read by flushing; content: the length of the line in bytes and the line encoded as UTF-8
+     */
+    static final byte EVENT_LINE = 1;
+    /**
+     * The end of the input has been reached by flushing; no content
+     */
+    static final byte EVENT_END_OF_INPUT = 2;
+    /**
+     * A character that has been read by the program; content: the character plus one (since it may be {@code -1})
+     */
+    static final byte EVENT_CHARACTER = 3;
+
+    private final OutputStream out;
+
+    /**
+     * The time (as given by {@link System#nanoTime()}) of the last event
+     */
+    private long lastEvent;
+
+    /**
+     * This constructor creates a recorder writing its log to the given stream
+     * @param out the stream to write the log to
+     * @throws IOException if the header of the log cannot be written
+     */
+    public InputRecorder(OutputStream out) throws IOException {
+        this.out = out;
+        this.lastEvent = System.nanoTime();
+
+        writeInt(MAGIC);
+        out.write(VERSION);
+    }
+
+    /**
+     * This method records a line that has been read by flushing
+     * @param line the line that has been read
+     */
+    public void recordLine(String line){
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+
+        try{
+            writeEvent(EVENT_LINE);
+            writeVarLong(bytes.length);
+            out.write(bytes);
+        }catch(IOException exc){
+            throw new UncheckedIOException(exc);
+        }
+    }
+
+    /**
+     * This method records that the end of the input has been reached by flushing
+     */
+    public void recordEndOfInput(){
+        try{
+            writeEvent(EVENT_END_OF_INPUT);
+        }catch(IOException exc){
+            throw new UncheckedIOException(exc);
+        }
+    }
+
+    /**
+     * This method records a character that has been read by the program
+     * @param character the character that has been read; {@code -1} if there was no character
+     */
+    public void recordCharacter(int character){
+        try{
+            writeEvent(EVENT_CHARACTER);
+            writeVarLong(character + 1);
+        }catch(IOException exc){
+            throw new UncheckedIOException(exc);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeEvent(byte kind) throws IOException {
+        long now = System.nanoTime();
+
+        out.write(kind);
+        writeVarLong(now - lastEvent);
+
+        lastEvent = now;
+    }
+
+    private void writeInt(int value) throws IOException {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    /**
+     * This method writes the given non-negative number with seven bits per byte, the highest bit showing whether more bytes follow
+     * @param value the number to write
+     */
+    private void writeVarLong(long value) throws IOException {
+        while((value & ~0x7FL) != 0){
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        out.write((int) value);
+    }
+}
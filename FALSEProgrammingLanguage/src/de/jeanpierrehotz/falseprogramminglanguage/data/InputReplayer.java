@@ -0,0 +1,167 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.data;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class feeds the input that has been recorded by an {@link InputRecorder} back to a program,
+ * so that an execution can be repeated as often as needed without anyone typing its input.<br>
+ * The input is replayed at full speed; the times of the recorded events are only kept for analysing them
+ * (see {@link #getRecordedTime()}). If the program consumes its input differently from the recorded execution
+ * the replay is stopped, since the executions have diverged.
+ */
+public class InputReplayer implements Closeable {
+
+    private final InputStream in;
+
+    /**
+     * The kind of the next event; {@code -1} if the log has ended
+     */
+    private int nextEvent;
+
+    /**
+     * The nanoseconds between the beginning of the recording and the last replayed event
+     */
+    private long recordedTime;
+
+    /**
+     * This constructor creates a replayer reading the log from the given stream
+     * @param in the stream to read the log from
+     * @throws IOException if the log cannot be read or is no log of an {@link InputRecorder}
+     */
+    public InputReplayer(InputStream in) throws IOException {
+        this.in = in;
+        this.recordedTime = 0;
+
+        int magic = (readByte() << 24) | (readByte() << 16) | (readByte() << 8) | readByte();
+        if(magic != InputRecorder.MAGIC || readByte() != InputRecorder.VERSION){
+            throw new IOException("The input log has been illegaly changed!");
+        }
+
+        this.nextEvent = in.read();
+    }
+
+    /**
+     * This method gives you the next line that has been read by flushing
+     * @return the recorded line; {@code null} if the end of the input has been reached
+     * @throws IllegalStateException if the recorded execution hasn't flushed at this point
+     */
+    public String nextLine(){
+        try{
+            if(nextEvent == InputRecorder.EVENT_END_OF_INPUT){
+                readTime();
+                nextEvent = in.read();
+                return null;
+            }
+
+            expect(InputRecorder.EVENT_LINE);
+            readTime();
+
+            byte[] bytes = new byte[(int) readVarLong()];
+            for(int i = 0; i < bytes.length; i++){
+                bytes[i] = (byte) readByte();
+            }
+
+            String line = new String(bytes, StandardCharsets.UTF_8);
+            nextEvent = in.read();
+            return line;
+        }catch(IOException exc){
+            throw new UncheckedIOException(exc);
+        }
+    }
+
+    /**
+     * This method gives you the next character that has been read by the program
+     * @return the recorded character; {@code -1} if there was no character
+     * @throws IllegalStateException if the recorded execution hasn't read a character at this point
+     */
+    public int nextCharacter(){
+        try{
+            expect(InputRecorder.EVENT_CHARACTER);
+            readTime();
+
+            int character = (int) readVarLong() - 1;
+            nextEvent = in.read();
+            return character;
+        }catch(IOException exc){
+            throw new UncheckedIOException(exc);
+        }
+    }
+
+    /**
+     * This method determines whether every recorded event has been replayed
+     * @return whether the log has ended
+     */
+    public boolean isFinished(){
+        return nextEvent == -1;
+    }
+
+    /**
+     * This method gives you the time of the last replayed event relative to the beginning of the recording
+     * @return the recorded time in nanoseconds
+     */
+    public long getRecordedTime(){
+        return recordedTime;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void expect(byte kind){
+        if(nextEvent != kind){
+            throw new IllegalStateException("The replayed execution has diverged from the recorded one!");
+        }
+    }
+
+    /**
+     * This method reads the time of the current event, which precedes its content
+     */
+    private void readTime() throws IOException {
+        recordedTime += readVarLong();
+    }
+
+    private int readByte() throws IOException {
+        int b = in.read();
+
+        if(b == -1){
+            throw new EOFException("The input log has ended unexpectedly!");
+        }
+
+        return b;
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        int shift = 0;
+        int b;
+
+        do{
+            b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        }while((b & 0x80) != 0);
+
+        return value;
+    }
+}
@@ -0,0 +1,364 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.data;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.WrongDataTypeInterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations.Function;
+import de.jeanpierrehotz.falseprogramminglanguage.language.FalseLanguageDefinition;
+
+import java.util.Arrays;
+
+/**
+ * This class resembles the memory stack of a FALSE program.<br>
+ * Every item is stored as a primitive value together with a tag that shows what type the item is of, so that
+ * pushing and popping items never allocates any objects:
+ * <ul>
+ * <li>integers ({@link #TYPE_INTEGER}) store their value</li>
+ * <li>variable adresses ({@link #TYPE_VARIABLE}) store the character of the variable</li>
+ * <li>functions ({@link #TYPE_FUNCTION}) store an id (which is {@code -1} if the function has none) and a reference to the function</li>
+ * <li>undefined values ({@link #TYPE_UNDEFINED}), as read from a variable that hasn't been assigned yet, store nothing</li>
+ * </ul>
+ * The depths used to access the items are counted from the top of the stack, so the depth 0 is the topmost item.
+ */
+public class OperandStack {
+
+    public static final byte TYPE_INTEGER = 0;
+    public static final byte TYPE_VARIABLE = 1;
+    public static final byte TYPE_FUNCTION = 2;
+    public static final byte TYPE_UNDEFINED = 3;
+
+    /**
+     * The names of the types as they are shown in error messages (indexed by the type)
+     */
+    private static final String[] TYPE_NAMES = {
+            Integer.class.toString(),
+            Character.class.toString(),
+            Function.class.toString(),
+            "null"
+    };
+
+    /**
+     * The types of the items on the stack
+     */
+    private byte[] types;
+    /**
+     * The primitive values of the items on the stack
+     */
+    private int[] values;
+    /**
+     * The functions referenced by the items on the stack; the slots of any items that are no functions
+     * may contain stale references, which are never read
+     */
+    private Function[] functions;
+
+    /**
+     * The amount of items on the stack
+     */
+    private int size;
+
+    public OperandStack(){
+        this(64);
+    }
+
+    public OperandStack(int capacity){
+        this.types = new byte[capacity];
+        this.values = new int[capacity];
+        this.functions = new Function[capacity];
+        this.size = 0;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    /**
+     * This method removes every item from the stack
+     */
+    public void clear(){
+        Arrays.fill(functions, 0, size, null);
+        size = 0;
+    }
+
+    public void pushInteger(int value){
+        if(size == types.length){
+            grow();
+        }
+
+        types[size] = TYPE_INTEGER;
+        values[size] = value;
+        size++;
+    }
+
+    public void pushVariable(char variableAdress){
+        if(size == types.length){
+            grow();
+        }
+
+        types[size] = TYPE_VARIABLE;
+        values[size] = variableAdress;
+        size++;
+    }
+
+    public void pushFunction(Function function){
+        pushFunction(function, -1);
+    }
+
+    /**
+     * This method pushes the given function with the given id on top of the stack
+     * @param function the function to push
+     * @param id the id of the function (as used by {@link de.jeanpierrehotz.falseprogramminglanguage.interpreter.BytecodeProgram}s);
+     *           {@code -1} if the function has no id
+     */
+    public void pushFunction(Function function, int id){
+        if(size == types.length){
+            grow();
+        }
+
+        types[size] = TYPE_FUNCTION;
+        values[size] = id;
+        functions[size] = function;
+        size++;
+    }
+
+    public void pushUndefined(){
+        if(size == types.length){
+            grow();
+        }
+
+        types[size] = TYPE_UNDEFINED;
+        size++;
+    }
+
+    /**
+     * This method pushes an item with the given type, value and function on top of the stack
+     * (just like they are given by {@link #getType(int)}, {@link #getValue(int)} and {@link #getFunctionReference(int)}).
+     * @param type the type of the item
+     * @param value the primitive value of the item
+     * @param function the function referenced by the item
+     */
+    public void push(byte type, int value, Function function){
+        if(size == types.length){
+            grow();
+        }
+
+        types[size] = type;
+        values[size] = value;
+        functions[size] = function;
+        size++;
+    }
+
+    /**
+     * This method removes the given amount of items from the top of the stack.
+     * The size of the stack has to be checked beforehand.
+     * @param count the amount of items to remove
+     */
+    public void drop(int count){
+        size -= count;
+    }
+
+    public byte getType(int depth){
+        return types[size - 1 - depth];
+    }
+
+    public int getValue(int depth){
+        return values[size - 1 - depth];
+    }
+
+    public Function getFunctionReference(int depth){
+        return functions[size - 1 - depth];
+    }
+
+    /**
+     * This method gives you the item at given depth as an object
+     * @param depth the depth of the item
+     * @return the item as object
+     */
+    public Object getObject(int depth){
+        int i = size - 1 - depth;
+
+        switch(types[i]){
+            case TYPE_INTEGER:
+                return values[i];
+            case TYPE_VARIABLE:
+                return (char) values[i];
+            case TYPE_FUNCTION:
+                return functions[i];
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * This method gives you the integer at the given depth
+     * @param depth the depth of the item
+     * @param index the index of the operation that reads the item (for the error message)
+     * @return the value of the integer
+     * @throws WrongDataTypeInterpretError if the item is no integer
+     */
+    public int getInteger(int depth, int index) throws WrongDataTypeInterpretError {
+        int i = size - 1 - depth;
+
+        if(types[i] != TYPE_INTEGER){
+            throw new WrongDataTypeInterpretError("Datatype error: Expected Integer; Found " + TYPE_NAMES[types[i]] + "\nOccured at instruction number " + index);
+        }
+
+        return values[i];
+    }
+
+    /**
+     * This method gives you the boolean at the given depth
+     * @param depth the depth of the item
+     * @param index the index of the operation that reads the item (for the error message)
+     * @return whether the item is {@link FalseLanguageDefinition#TRUE}
+     * @throws WrongDataTypeInterpretError if the item is neither {@link FalseLanguageDefinition#TRUE} nor {@link FalseLanguageDefinition#FALSE}
+     */
+    public boolean getBoolean(int depth, int index) throws WrongDataTypeInterpretError {
+        int i = size - 1 - depth;
+
+        if(types[i] != TYPE_INTEGER || (values[i] != FalseLanguageDefinition.TRUE && values[i] != FalseLanguageDefinition.FALSE)){
+            throw new WrongDataTypeInterpretError("Datatype error: Expected Boolean represented by Integer; Found " + TYPE_NAMES[types[i]] + "; Booleans may only contain -1 (true) or 0 (false).\nOccured at instruction number " + index);
+        }
+
+        return values[i] == FalseLanguageDefinition.TRUE;
+    }
+
+    /**
+     * This method gives you the function at the given depth
+     * @param depth the depth of the item
+     * @param index the index of the operation that reads the item (for the error message)
+     * @return the function
+     * @throws WrongDataTypeInterpretError if the item is no function
+     */
+    public Function getFunction(int depth, int index) throws WrongDataTypeInterpretError {
+        int i = size - 1 - depth;
+
+        if(types[i] != TYPE_FUNCTION){
+            throw new WrongDataTypeInterpretError("Datatype error: Expected Function; Found " + TYPE_NAMES[types[i]] + "\nOccured at instruction number " + index);
+        }
+
+        return functions[i];
+    }
+
+    /**
+     * This method gives you the variable adress at the given depth
+     * @param depth the depth of the item
+     * @param index the index of the operation that reads the item (for the error message)
+     * @return the variable adress
+     * @throws WrongDataTypeInterpretError if the item is no variable adress
+     */
+    public char getVariableAdress(int depth, int index) throws WrongDataTypeInterpretError {
+        int i = size - 1 - depth;
+
+        if(types[i] != TYPE_VARIABLE){
+            throw new WrongDataTypeInterpretError("Datatype error: Expected VarAdress represented by Character; Found " + TYPE_NAMES[types[i]] + "\nOccured at instruction number " + index);
+        }
+
+        return (char) values[i];
+    }
+
+    /**
+     * This method duplicates the topmost item.
+     * The size of the stack has to be checked beforehand.
+     */
+    public void duplicate(){
+        pick(0);
+    }
+
+    /**
+     * This method swaps the two topmost items.
+     * The size of the stack has to be checked beforehand.
+     */
+    public void swap(){
+        int a = size - 1;
+        int b = size - 2;
+
+        byte type = types[a];
+        int value = values[a];
+        Function function = functions[a];
+
+        types[a] = types[b];
+        values[a] = values[b];
+        functions[a] = functions[b];
+
+        types[b] = type;
+        values[b] = value;
+        functions[b] = function;
+    }
+
+    /**
+     * This method rotates the three topmost items, so that the third item is moved to the top of the stack.<br>
+     * For example the stack 1 2 3 results in the stack 2 3 1.
+     * The size of the stack has to be checked beforehand.
+     */
+    public void rotate(){
+        int a = size - 3;
+
+        byte type = types[a];
+        int value = values[a];
+        Function function = functions[a];
+
+        System.arraycopy(types, a + 1, types, a, 2);
+        System.arraycopy(values, a + 1, values, a, 2);
+        System.arraycopy(functions, a + 1, functions, a, 2);
+
+        types[size - 1] = type;
+        values[size - 1] = value;
+        functions[size - 1] = function;
+    }
+
+    /**
+     * This method picks the item at given position.<br>
+     * This means that the item is taken (not removed though!) and added on top of the stack again.<br>
+     * For example the stack is 1 2 3 4 and we pick the item at position 2 this results in the stack 1 2 3 4 2.<br>
+     * Thus picking the item at position 0 would only duplicate the topmost item
+     * @param depth the depth of the item to pick
+     * @throws ArrayIndexOutOfBoundsException if the depth is out of bounds
+     */
+    public void pick(int depth){
+//      make sure the index is in bounds
+        if(depth < 0 || depth >= size){
+            throw new ArrayIndexOutOfBoundsException(depth);
+        }
+
+        if(size == types.length){
+            grow();
+        }
+
+        int i = size - 1 - depth;
+
+        types[size] = types[i];
+        values[size] = values[i];
+        functions[size] = functions[i];
+        size++;
+    }
+
+    /**
+     * This method gives you a textual representation of the item at given depth
+     * @param depth the depth of the item
+     * @return the item as text
+     */
+    public String toString(int depth){
+        return String.valueOf(getObject(depth));
+    }
+
+    private void grow(){
+        int capacity = Math.max(8, 2 * types.length);
+
+        types = Arrays.copyOf(types, capacity);
+        values = Arrays.copyOf(values, capacity);
+        functions = Arrays.copyOf(functions, capacity);
+    }
+}
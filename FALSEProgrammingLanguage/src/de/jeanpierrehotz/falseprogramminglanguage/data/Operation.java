@@ -18,8 +18,6 @@ package de.jeanpierrehotz.falseprogramminglanguage.data;
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
 import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
 
-import java.util.HashMap;
-
 /**
  * This class is the abstract super class for every instruction used in the False programming language
  */
@@ -28,7 +26,7 @@ public abstract class Operation {
     /**
      * Should be shown when an error is thrown!
      */
-    protected int index;
+    protected final int index;
 
     /**
      * This constructor initializes only the index of the operation
@@ -48,7 +46,7 @@ public abstract class Operation {
      * @param indicator the indicator that shows whether to abort the program or not
      * @throws InterpretError if there is an determined error while executing the operation
      */
-    public abstract void operate(StackMemory<Object> stack, HashMap<Character, Object> variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator) throws InterpretError;
+    public abstract void operate(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator) throws InterpretError;
 
     /**
      * This method creates a array of bytes that resembles this operation in byte code.
@@ -56,4 +54,12 @@ public abstract class Operation {
      */
     public abstract Byte[] toByteArray();
 
+    /**
+     * This method gives you the index this operation has occurred in the code
+     * @return the index of this operation
+     */
+    public int getIndex(){
+        return index;
+    }
+
 }
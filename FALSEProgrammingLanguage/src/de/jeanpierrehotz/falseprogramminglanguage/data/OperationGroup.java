@@ -16,10 +16,13 @@
 package de.jeanpierrehotz.falseprogramminglanguage.data;
 
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations.FusedOperation;
+import de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations.IntegerValueOperation;
 import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
+import de.jeanpierrehotz.falseprogramminglanguage.language.FalseLanguageDefinition;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 
 /**
  * This method resembles a group of Operations that are stored inside one operation
@@ -29,7 +32,7 @@ public abstract class OperationGroup extends Operation {
     /**
      * The instructions that are resembled by this group
      */
-    protected ArrayList<Operation> instructions;
+    protected final ArrayList<Operation> instructions;
 
     /**
      * This constructor can be used to initialize the instruction list
@@ -40,10 +43,53 @@ public abstract class OperationGroup extends Operation {
         this.instructions = instr;
     }
 
+    /**
+     * This method gives you the instructions that are resembled by this group
+     * @return the list of instructions of this group
+     */
+    public ArrayList<Operation> getInstructions(){
+        return instructions;
+    }
+
+    /**
+     * This method gives you the textual representation of the instructions of this group.<br>
+     * Fused operations are represented by the operations they replace, so that integers following each other
+     * are always separated by whitespace.
+     * @return the instructions as FALSE code
+     */
+    protected String instructionsToString(){
+        ArrayList<Operation> unfused = new ArrayList<>();
+
+        for(Operation op : instructions){
+            if(op instanceof FusedOperation){
+                unfused.addAll(Arrays.asList(((FusedOperation) op).getOperations()));
+            }else{
+                unfused.add(op);
+            }
+        }
+
+        String content = "";
+
+        for(int i = 0; i < unfused.size(); i++){
+            Operation op = unfused.get(i);
+
+            if(!(op instanceof IntegerValueOperation)){
+                content += op.toString();
+            }else{
+                content += ((IntegerValueOperation) op).getValueWithWhiteSpace(i > 0 && unfused.get(i - 1) instanceof IntegerValueOperation);
+            }
+        }
+
+        return content;
+    }
+
     @Override
-    public void operate(StackMemory<Object> stack, HashMap<Character, Object> variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator) throws InterpretError {
-//      this method operates as long as we have not worked through every instruction and as long as this program is not to be aborted
-        for(int i = 0; i < instructions.size() && !indicator.isToBeAborted(); i++){
+    public void operate(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator) throws InterpretError {
+//      every call of a function is a safepoint, where we'll check whether this program is to be aborted
+        indicator.poll();
+
+//      this method operates as long as we have not worked through every instruction
+        for(int i = 0; i < instructions.size(); i++){
 //          we'll simply operate the instruction at the given index
             instructions.get(i).operate(stack, variables, interpreter, indicator);
 
@@ -61,14 +107,14 @@ public abstract class OperationGroup extends Operation {
      * This method prints given Stack to the stdout printstream
      * @param stack the stack to print
      */
-    public void printStack(StackMemory<Object> stack){
+    public void printStack(OperandStack stack){
         int tabsize = 10;
 
         String content = "";
 
         System.out.println("Stack[size=" + stack.size() + ";]");
         for(int i = 0; i < stack.size(); i++){
-            content += stack.get(i);
+            content += stack.toString(stack.size() - 1 - i);
 
             while(content.length() < (i + 1) * tabsize){
                 content += " ";
@@ -81,15 +127,19 @@ public abstract class OperationGroup extends Operation {
      * This method prints given variables to the stdout printstream
      * @param variables the variables to print
      */
-    public void printVariables(HashMap<Character, Object> variables){
+    public void printVariables(VariableMemory variables){
         int tabsize = 10;
 
         String content = "";
         int ctr = 0;
 
         System.out.println("Variables");
-        for(Character c : variables.keySet()){
-            content += c + "=" + variables.get(c);
+        for(int i = 0; i < VariableMemory.VARIABLE_COUNT; i++){
+            if(!variables.isAssigned(i)){
+                continue;
+            }
+
+            content += (char) (FalseLanguageDefinition.VARIABLE_SCOPE_BEGIN + i) + "=" + variables.toString(i);
 
             ctr++;
 
@@ -15,20 +15,37 @@
 
 package de.jeanpierrehotz.falseprogramminglanguage.data;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.io.PrintStream;
-import java.util.Scanner;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
 
 /**
  * This class is used by the {@link de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter}-class to
- * make usage of other in- and outputstreams than the standard in and out possible with False programs.
+ * make usage of other in- and outputstreams than the standard in and out possible with False programs.<br>
+ * Reading input never holds a monitor of this class, so that a program that is executed on a virtual thread
+ * doesn't pin its carrier thread while it is blocked by reading.<br>
+ * Any input the program consumes may be recorded by an {@link InputRecorder}, and a recorded execution may be
+ * repeated by an {@link InputReplayer}, which replaces the input stream.
  */
 public class StandardInOutPutCompat {
 
     /**
-     * The scanner that scans text from the given inputstream
+     * The inputstream the program reads from
      */
-    private Scanner input;
+    private InputStream inStream;
+    /**
+     * The reader that reads text from the given inputstream; since we read every character on its own
+     * and the reader already buffers the bytes it decodes, there's no need for another buffer.
+     * The reader (and its buffer) is only created once the program actually reads input.
+     */
+    private Reader input;
     /**
      * The printstream the program should print to
      */
@@ -39,16 +56,41 @@ public class StandardInOutPutCompat {
      */
     private String inputBuffer;
 
+    /**
+     * The characters of the next line that have been read from the input stream so far
+     */
+    private StringBuilder pendingLine;
+    /**
+     * Whether the pending line has been terminated, so that it may be read into the buffer
+     */
+    private boolean lineComplete;
+    /**
+     * Whether the last line has been terminated by {@code '\r'}, so that a directly following {@code '\n'} belongs to it
+     */
+    private boolean carriageReturn;
+    /**
+     * Whether the end of the input stream has been reached
+     */
+    private boolean endOfInput;
+
+    /**
+     * The recorder recording any consumed input; {@code null} if the input isn't recorded
+     */
+    private InputRecorder recorder;
+    /**
+     * The replayer giving the input instead of the input stream; {@code null} if the input stream is read
+     */
+    private InputReplayer replayer;
+
     /**
      * This constructor creates a {@link StandardInOutPutCompat}-object for given in and output streams
      * @param inStream the input stream to use with the program
      * @param outStream the output stream to use with the program
      */
     public StandardInOutPutCompat(InputStream inStream, PrintStream outStream){
-        this.input = new Scanner(inStream);
-        this.output = outStream;
+        this.pendingLine = new StringBuilder();
 
-        this.inputBuffer = "";
+        rebind(inStream, outStream);
     }
 
     /**
@@ -59,6 +101,98 @@ public class StandardInOutPutCompat {
         this(System.in, System.out);
     }
 
+    /**
+     * This method binds this object to the given streams, so that it can be reused for another execution.
+     * Any input that has been read from the previous input stream is discarded.
+     * @param inStream the input stream to use with the program
+     * @param outStream the output stream to use with the program
+     */
+    public void rebind(InputStream inStream, PrintStream outStream){
+        this.inStream = inStream;
+        this.input = null;
+        this.output = outStream;
+
+        this.inputBuffer = "";
+
+        this.pendingLine.setLength(0);
+        this.lineComplete = false;
+        this.carriageReturn = false;
+        this.endOfInput = false;
+
+        this.recorder = null;
+        this.replayer = null;
+    }
+
+    /**
+     * This method sets the recorder that records every line read by flushing and every character read by the program
+     * @param recorder the recorder to use; {@code null} to stop recording
+     */
+    public void setRecorder(InputRecorder recorder){
+        this.recorder = recorder;
+    }
+
+    /**
+     * This method sets the replayer that gives the input of the program instead of the input stream
+     * @param replayer the replayer to use; {@code null} to read the input stream again
+     */
+    public void setReplayer(InputReplayer replayer){
+        this.replayer = replayer;
+    }
+
+    /**
+     * This method writes the input that has been read but not consumed by the program yet to the given stream,
+     * which is the buffer of the last flushing as well as the characters of the next line that have already been
+     * read from the input stream (e.g. by {@link #isInputReady()}).
+     * Texts are written as UTF-8 prefixed by their length, so that a line may be of any length.
+     * @param out the stream to write the input to
+     * @throws IOException if the input cannot be written
+     */
+    public void writeInput(DataOutputStream out) throws IOException {
+        writeText(out, inputBuffer);
+        writeText(out, pendingLine.toString());
+        out.writeBoolean(lineComplete);
+        out.writeBoolean(carriageReturn);
+    }
+
+    /**
+     * This method replaces the input that hasn't been consumed by the program yet by the input read from the given stream
+     * (as it has been written by {@link #writeInput(DataOutputStream)}), e.g. when an execution is restored from a checkpoint.
+     * @param in the stream to read the input from
+     * @throws IOException if the input cannot be read or is invalid
+     */
+    public void readInput(DataInputStream in) throws IOException {
+        String buffer = readText(in);
+        String line = readText(in);
+        boolean complete = in.readBoolean();
+        boolean terminatedByCarriageReturn = in.readBoolean();
+
+        this.inputBuffer = buffer;
+        this.pendingLine.setLength(0);
+        this.pendingLine.append(line);
+        this.lineComplete = complete;
+        this.carriageReturn = terminatedByCarriageReturn;
+    }
+
+    private static void writeText(DataOutputStream out, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readText(DataInputStream in) throws IOException {
+        int length = in.readInt();
+
+        if(length < 0){
+            throw new IOException("The length of a text must not be negative!");
+        }
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
     /**
      * This method writes the given String to the output stream
      * @param content the text to print
@@ -89,25 +223,179 @@ public class StandardInOutPutCompat {
      * it will return the integer value of the next character.
      */
     public int readCharacter(){
+        int c;
+
 //      if the buffer is not empty
         if(!inputBuffer.equals("")){
 //          trim the buffer and return the next character
-            char c = inputBuffer.charAt(0);
+            c = inputBuffer.charAt(0);
             inputBuffer = inputBuffer.substring(1);
-            return (int) c;
         }
 //      otherwise (if the buffer is empty)
         else{
 //          we'll return -1
-            return -1;
+            c = -1;
         }
+
+//      the buffer of a replayed execution has been filled by the recorded lines, so it has to give the recorded character
+        if(replayer != null && replayer.nextCharacter() != c){
+            throw new IllegalStateException("The replayed execution has diverged from the recorded one!");
+        }
+
+        if(recorder != null){
+            recorder.recordCharacter(c);
+        }
+
+        return c;
     }
 
     /**
-     * This method flushes the outputstream and reads a new line into the buffer from the input stream
+     * This method flushes the outputstream and reads a new line into the buffer from the input stream.<br>
+     * If reading is interrupted (because the program has been aborted) the buffer is simply left empty.
+     * @throws NoSuchElementException if the end of the input stream has been reached
      */
     public void flush(){
         output.flush();
-        inputBuffer = input.nextLine();
+
+        if(replayer != null){
+            String line = replayer.nextLine();
+
+            if(line == null){
+                throw new NoSuchElementException("No line found");
+            }
+
+            inputBuffer = line;
+            return;
+        }
+
+        boolean interrupted = false;
+
+        try{
+            while(!lineComplete && !endOfInput){
+                readNextCharacter();
+            }
+        }catch(InterruptedIOException exc){
+            interrupted = true;
+        }catch(IOException exc){
+//          just like a scanner we'll treat an input stream that cannot be read anymore like a closed one
+            endOfInput = true;
+        }
+
+        if(!lineComplete){
+//          any characters that have been read before the interruption are kept for the next line
+            if(interrupted){
+                inputBuffer = "";
+                return;
+            }
+
+            if(pendingLine.length() == 0){
+                if(!Thread.currentThread().isInterrupted()){
+                    if(recorder != null){
+                        recorder.recordEndOfInput();
+                    }
+
+                    throw new NoSuchElementException("No line found");
+                }
+
+                inputBuffer = "";
+                return;
+            }
+        }
+
+        inputBuffer = pendingLine.toString();
+        pendingLine.setLength(0);
+        lineComplete = false;
+
+        if(recorder != null){
+            recorder.recordLine(inputBuffer);
+        }
+    }
+
+    /**
+     * This method flushes the outputstream without reading any input
+     */
+    public void flushOutput(){
+        output.flush();
+    }
+
+    /**
+     * This method determines whether {@link #flush()} can read a new line without blocking.
+     * Any characters that are available are read from the input stream without blocking.
+     * @return whether a whole line (or the end of the input stream) is available
+     */
+    public boolean isInputReady(){
+        if(replayer != null){
+            return true;
+        }
+
+        try{
+            while(!lineComplete && !endOfInput && reader().ready()){
+                readNextCharacter();
+            }
+        }catch(InterruptedIOException exc){
+//          the program is about to be aborted, so it doesn't matter whether there is any input
+        }catch(IOException exc){
+            endOfInput = true;
+        }
+
+        return lineComplete || endOfInput;
+    }
+
+    /**
+     * This method blocks until {@link #flush()} can read a new line without blocking,
+     * which is the case once a whole line or the end of the input stream has been read.<br>
+     * If reading is interrupted (because the program has been aborted) this method simply returns.
+     */
+    public void awaitInput(){
+        if(replayer != null){
+            return;
+        }
+
+        try{
+            while(!lineComplete && !endOfInput){
+                readNextCharacter();
+            }
+        }catch(InterruptedIOException exc){
+//          the program is about to be aborted, so it doesn't matter whether there is any input
+        }catch(IOException exc){
+            endOfInput = true;
+        }
+    }
+
+    private Reader reader(){
+        if(input == null){
+            input = new InputStreamReader(inStream);
+        }
+
+        return input;
+    }
+
+    /**
+     * This method reads the next character from the input stream into the pending line.<br>
+     * Just like a {@link java.util.Scanner} this method terminates a line by {@code "\r\n"}, {@code '\n'}, {@code '\r'},
+     * {@code '\u0085'}, {@code '\u2028'} or {@code '\u2029'}.
+     * @throws IOException if the input stream cannot be read
+     */
+    private void readNextCharacter() throws IOException {
+        int c = reader().read();
+
+        if(c == -1){
+            endOfInput = true;
+            return;
+        }
+
+//      the '\n' of "\r\n" may only be read after the line has already been terminated by the '\r'
+        boolean lineFeedAfterCarriageReturn = carriageReturn && c == '\n';
+        carriageReturn = (c == '\r');
+
+        if(lineFeedAfterCarriageReturn){
+            return;
+        }
+
+        if(c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029'){
+            lineComplete = true;
+        }else{
+            pendingLine.append((char) c);
+        }
     }
 }
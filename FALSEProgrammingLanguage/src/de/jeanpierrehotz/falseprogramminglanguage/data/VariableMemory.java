@@ -0,0 +1,174 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.data;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations.Function;
+import de.jeanpierrehotz.falseprogramminglanguage.language.FalseLanguageDefinition;
+
+import java.util.Arrays;
+
+/**
+ * This class resembles the variables of a FALSE program.<br>
+ * Since there are only the variables {@link FalseLanguageDefinition#VARIABLE_SCOPE_BEGIN} to
+ * {@link FalseLanguageDefinition#VARIABLE_SCOPE_END} every variable has a fixed slot, which stores
+ * its value tagged just like the items of an {@link OperandStack}.
+ */
+public class VariableMemory {
+
+    /**
+     * The amount of variables available in a FALSE program
+     */
+    public static final int VARIABLE_COUNT = FalseLanguageDefinition.VARIABLE_SCOPE_END - FalseLanguageDefinition.VARIABLE_SCOPE_BEGIN + 1;
+
+    /**
+     * The type of a variable that hasn't been assigned yet
+     */
+    public static final byte NOT_ASSIGNED = -1;
+
+    /**
+     * The types of the values of the variables (as defined in {@link OperandStack})
+     */
+    private byte[] types;
+    /**
+     * The primitive values of the variables
+     */
+    private int[] values;
+    /**
+     * The functions referenced by the variables
+     */
+    private Function[] functions;
+
+    public VariableMemory(){
+        this.types = new byte[VARIABLE_COUNT];
+        this.values = new int[VARIABLE_COUNT];
+        this.functions = new Function[VARIABLE_COUNT];
+
+        clear();
+    }
+
+    /**
+     * This method gives you the slot of the given variable
+     * @param variableAdress the variable adress
+     * @return the slot the variable is stored in
+     */
+    public static int slot(char variableAdress){
+        return variableAdress - FalseLanguageDefinition.VARIABLE_SCOPE_BEGIN;
+    }
+
+    /**
+     * This method resets every variable to not being assigned
+     */
+    public void clear(){
+        Arrays.fill(types, NOT_ASSIGNED);
+        Arrays.fill(functions, null);
+    }
+
+    /**
+     * This method stores the item at given depth of the given stack in the variable in the given slot.
+     * The item is not removed from the stack.
+     * @param slot the slot of the variable
+     * @param stack the stack containing the item
+     * @param depth the depth of the item
+     */
+    public void store(int slot, OperandStack stack, int depth){
+        types[slot] = stack.getType(depth);
+        values[slot] = stack.getValue(depth);
+        functions[slot] = stack.getFunctionReference(depth);
+    }
+
+    /**
+     * This method stores the given integer in the variable in the given slot.
+     * @param slot the slot of the variable
+     * @param value the integer to store
+     */
+    public void storeInteger(int slot, int value){
+        types[slot] = OperandStack.TYPE_INTEGER;
+        values[slot] = value;
+        functions[slot] = null;
+    }
+
+    /**
+     * This method pushes the value of the variable in the given slot on top of the given stack.
+     * If the variable hasn't been assigned yet an undefined value is pushed.
+     * @param slot the slot of the variable
+     * @param stack the stack to push the value on
+     */
+    public void load(int slot, OperandStack stack){
+        if(types[slot] == NOT_ASSIGNED){
+            stack.pushUndefined();
+        }else{
+            stack.push(types[slot], values[slot], functions[slot]);
+        }
+    }
+
+    /**
+     * This method stores an item with the given type, value and function in the variable in the given slot
+     * (just like they are given by {@link #getType(int)}, {@link #getValue(int)} and {@link #getFunctionReference(int)}).
+     * @param slot the slot of the variable
+     * @param type the type of the item; any negative value if the variable isn't assigned
+     * @param value the primitive value of the item
+     * @param function the function referenced by the item
+     */
+    public void store(int slot, byte type, int value, Function function){
+        types[slot] = (type < 0)? NOT_ASSIGNED: type;
+        values[slot] = value;
+        functions[slot] = function;
+    }
+
+    /**
+     * This method gives you the type of the variable in the given slot (as defined in {@link OperandStack})
+     * @param slot the slot of the variable
+     * @return the type of the variable; {@link #NOT_ASSIGNED} if the variable hasn't been assigned yet
+     */
+    public byte getType(int slot){
+        return types[slot];
+    }
+
+    public int getValue(int slot){
+        return values[slot];
+    }
+
+    public Function getFunctionReference(int slot){
+        return functions[slot];
+    }
+
+    /**
+     * This method determines whether the variable in the given slot has been assigned
+     * @param slot the slot of the variable
+     * @return whether the variable has been assigned
+     */
+    public boolean isAssigned(int slot){
+        return types[slot] != NOT_ASSIGNED;
+    }
+
+    /**
+     * This method gives you a textual representation of the value of the variable in the given slot
+     * @param slot the slot of the variable
+     * @return the value of the variable as text
+     */
+    public String toString(int slot){
+        switch(types[slot]){
+            case OperandStack.TYPE_INTEGER:
+                return Integer.toString(values[slot]);
+            case OperandStack.TYPE_VARIABLE:
+                return Character.toString((char) values[slot]);
+            case OperandStack.TYPE_FUNCTION:
+                return String.valueOf(functions[slot]);
+            default:
+                return "null";
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.EmptyStackInterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
+
+/**
+ * This operation replaces an integer that is directly followed by an addition or a subtraction (e.g. {@code 1+} or {@code 1-})
+ * and adds the (possibly negated) integer to the topmost item.
+ */
+public class AddConstantOperation extends FusedOperation {
+
+    private final int constant;
+
+    public AddConstantOperation(IntegerValueOperation value, AddOperation add) {
+        super(value, add);
+        this.constant = value.getValue();
+    }
+
+    public AddConstantOperation(IntegerValueOperation value, SubtractOperation subtract) {
+        super(value, subtract);
+//      since integers overflow the subtraction of a value is the same as the addition of the negated value
+        this.constant = - value.getValue();
+    }
+
+    @Override
+    public void operate(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+            throws InterpretError {
+
+        if(stack.size() < 1){
+            throw new EmptyStackInterpretError(index);
+        }
+
+        int n = stack.getInteger(0, index);
+
+        stack.drop(1);
+        stack.pushInteger(n + constant);
+    }
+
+    public int getConstant(){
+        return constant;
+    }
+}
@@ -17,15 +17,13 @@ package de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations
 
 import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
 import de.jeanpierrehotz.falseprogramminglanguage.data.Operation;
-import de.jeanpierrehotz.falseprogramminglanguage.data.StackMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.EmptyStackInterpretError;
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
-import de.jeanpierrehotz.falseprogramminglanguage.data.error.WrongDataTypeInterpretError;
 import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
 import de.jeanpierrehotz.falseprogramminglanguage.language.FalseLanguageDefinition;
 
-import java.util.HashMap;
-
 /**
  * Created by Admin on 17.09.2016.
  */
@@ -38,35 +36,22 @@ public class AndOperation extends Operation {
     }
 
     @Override
-    public void operate(StackMemory<Object> stack, HashMap<Character, Object> variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+    public void operate(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
             throws InterpretError {
 
-        Object n1;
-        Object n2;
-
-        if(stack.size() >= 2){
-            n2 = stack.pop();
-            n1 = stack.pop();
-        }else{
+        if(stack.size() < 2){
             throw new EmptyStackInterpretError(index);
         }
 
-        if(! (n1 instanceof Integer)){
-            throw new WrongDataTypeInterpretError("Datatype error: Expected Boolean represented by Integer; Found " + n1.getClass().toString() + "; Booleans may only contain -1 (true) or 0 (false).\nOccured at instruction number " + index);
-        }else if((int) n1 != FalseLanguageDefinition.TRUE && (int) n1 != FalseLanguageDefinition.FALSE){
-            throw new WrongDataTypeInterpretError("Datatype error: Expected Boolean represented by Integer; Found " + n1.getClass().toString() + "; Booleans may only contain -1 (true) or 0 (false).\nOccured at instruction number " + index);
-        }
+        boolean n1 = stack.getBoolean(1, index);
+        boolean n2 = stack.getBoolean(0, index);
 
-        if(! (n2 instanceof Integer)){
-            throw new WrongDataTypeInterpretError("Datatype error: Expected Boolean represented by Integer; Found " + n2.getClass().toString() + "; Booleans may only contain -1 (true) or 0 (false).\nOccured at instruction number " + index);
-        }else if((int) n2 != FalseLanguageDefinition.TRUE && (int) n2 != FalseLanguageDefinition.FALSE){
-            throw new WrongDataTypeInterpretError("Datatype error: Expected Boolean represented by Integer; Found " + n2.getClass().toString() + "; Booleans may only contain -1 (true) or 0 (false).\nOccured at instruction number " + index);
-        }
+        stack.drop(2);
 
-        if((int) n1 == (int) n2 && (int) n1 == FalseLanguageDefinition.TRUE){
-            stack.push(FalseLanguageDefinition.TRUE);
+        if(n1 && n2){
+            stack.pushInteger(FalseLanguageDefinition.TRUE);
         }else{
-            stack.push(FalseLanguageDefinition.FALSE);
+            stack.pushInteger(FalseLanguageDefinition.FALSE);
         }
     }
 
@@ -24,7 +24,7 @@ public class AssemblyOperation extends NOP {
 
     public static final byte OPERATION_BYTE = 12;
 
-    private int assemblyOperation;
+    private final int assemblyOperation;
 
     public AssemblyOperation(int index, int assemblyOperation) {
         super(index);
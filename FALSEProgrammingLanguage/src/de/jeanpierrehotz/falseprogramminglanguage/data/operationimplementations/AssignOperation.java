@@ -17,14 +17,12 @@ package de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations
 
 import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
 import de.jeanpierrehotz.falseprogramminglanguage.data.Operation;
-import de.jeanpierrehotz.falseprogramminglanguage.data.StackMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.EmptyStackInterpretError;
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
-import de.jeanpierrehotz.falseprogramminglanguage.data.error.WrongDataTypeInterpretError;
 import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
 
-import java.util.HashMap;
-
 /**
  * Created by Admin on 17.09.2016.
  */
@@ -37,23 +35,17 @@ public class AssignOperation extends Operation {
     }
 
     @Override
-    public void operate(StackMemory<Object> stack, HashMap<Character, Object> variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+    public void operate(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
             throws InterpretError {
-        Object adr;
-        Object val;
 
-        if(stack.size() >= 2){
-            adr = stack.pop();
-            val = stack.pop();
-        }else{
+        if(stack.size() < 2){
             throw new EmptyStackInterpretError(index);
         }
 
-        if(! (adr instanceof Character)) {
-            throw new WrongDataTypeInterpretError("Datatype error: Expected VarAdress represented by Character; Found " + adr.getClass().toString() + "\nOccured at instruction number " + index);
-        }
+        char adr = stack.getVariableAdress(0, index);
 
-        variables.put((Character) adr, val);
+        variables.store(VariableMemory.slot(adr), stack, 1);
+        stack.drop(2);
     }
 
     @Override
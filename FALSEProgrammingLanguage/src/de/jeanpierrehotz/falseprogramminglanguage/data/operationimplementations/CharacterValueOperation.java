@@ -17,12 +17,12 @@ package de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations
 
 import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
 import de.jeanpierrehotz.falseprogramminglanguage.data.Operation;
-import de.jeanpierrehotz.falseprogramminglanguage.data.StackMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
 import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
 
 import java.nio.ByteBuffer;
-import java.util.HashMap;
 
 /**
  * Created by Admin on 17.09.2016.
@@ -31,7 +31,7 @@ public class CharacterValueOperation extends Operation {
 
     public static final byte OPERATION_BYTE = 10;
 
-    private char value;
+    private final char value;
 
     public CharacterValueOperation(int index, char value) {
         super(index);
@@ -39,10 +39,14 @@ public class CharacterValueOperation extends Operation {
     }
 
     @Override
-    public void operate(StackMemory<Object> stack, HashMap<Character, Object> variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+    public void operate(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
             throws InterpretError {
 
-        stack.push((int) value);
+        stack.pushInteger(value);
+    }
+
+    public char getValue(){
+        return value;
     }
 
     @Override
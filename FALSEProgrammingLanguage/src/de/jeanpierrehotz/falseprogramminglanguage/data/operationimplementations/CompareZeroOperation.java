@@ -0,0 +1,69 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.EmptyStackInterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
+import de.jeanpierrehotz.falseprogramminglanguage.language.FalseLanguageDefinition;
+
+/**
+ * This operation replaces a zero that is directly followed by a comparison (e.g. {@code 0=} or {@code 0>})
+ * and compares the topmost item with zero.
+ */
+public class CompareZeroOperation extends FusedOperation {
+
+    /**
+     * Whether the topmost item is tested for being greater than zero (instead of being equal to zero)
+     */
+    private final boolean greater;
+
+    public CompareZeroOperation(IntegerValueOperation zero, EqualsOperation equals) {
+        super(zero, equals);
+        this.greater = false;
+    }
+
+    public CompareZeroOperation(IntegerValueOperation zero, GreaterThanOperation greaterThan) {
+        super(zero, greaterThan);
+        this.greater = true;
+    }
+
+    @Override
+    public void operate(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+            throws InterpretError {
+
+        if(stack.size() < 1){
+            throw new EmptyStackInterpretError(index);
+        }
+
+        int n = stack.getInteger(0, index);
+
+        stack.drop(1);
+
+        if(greater? n > 0: n == 0){
+            stack.pushInteger(FalseLanguageDefinition.TRUE);
+        }else{
+            stack.pushInteger(FalseLanguageDefinition.FALSE);
+        }
+    }
+
+    public boolean isGreater(){
+        return greater;
+    }
+}
@@ -17,13 +17,12 @@ package de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations
 
 import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
 import de.jeanpierrehotz.falseprogramminglanguage.data.Operation;
-import de.jeanpierrehotz.falseprogramminglanguage.data.StackMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.EmptyStackInterpretError;
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
 import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
 
-import java.util.HashMap;
-
 /**
  * Created by Admin on 17.09.2016.
  */
@@ -36,14 +35,14 @@ public class DeleteOperation extends Operation {
     }
 
     @Override
-    public void operate(StackMemory<Object> stack, HashMap<Character, Object> variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+    public void operate(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
             throws InterpretError {
 
-        if(stack.size() >= 1){
-            stack.pop();
-        }else{
+        if(stack.size() < 1){
             throw new EmptyStackInterpretError(index);
         }
+
+        stack.drop(1);
     }
 
     @Override
@@ -0,0 +1,48 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.EmptyStackInterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
+
+/**
+ * This operation replaces a duplication that is directly followed by a rotation ({@code $@}).<br>
+ * For example the stack 1 2 results in the stack 2 2 1.
+ */
+public class DuplicateRotateOperation extends FusedOperation {
+
+    public DuplicateRotateOperation(DuplicateOperation duplicate, RotateOperation rotate) {
+        super(duplicate, rotate);
+    }
+
+    @Override
+    public void operate(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+            throws InterpretError {
+
+        if(stack.size() < 1){
+            throw new EmptyStackInterpretError(operations[0].getIndex());
+        }else if(stack.size() < 2){
+            throw new EmptyStackInterpretError(index);
+        }
+
+        stack.duplicate();
+        stack.rotate();
+    }
+}
@@ -17,14 +17,12 @@ package de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations
 
 import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
 import de.jeanpierrehotz.falseprogramminglanguage.data.Operation;
-import de.jeanpierrehotz.falseprogramminglanguage.data.StackMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.EmptyStackInterpretError;
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
-import de.jeanpierrehotz.falseprogramminglanguage.data.error.WrongDataTypeInterpretError;
 import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
 
-import java.util.HashMap;
-
 /**
  * Created by Admin on 17.09.2016.
  */
@@ -37,22 +35,17 @@ public class ExecutionOperation extends Operation {
     }
 
     @Override
-    public void operate(StackMemory<Object> stack, HashMap<Character, Object> variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+    public void operate(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
             throws InterpretError {
 
-        Object function;// = stack.pop();
-
-        if(stack.size() >= 1){
-            function = stack.pop();
-        }else{
+        if(stack.size() < 1){
             throw new EmptyStackInterpretError(index);
         }
 
-        if(! (function instanceof Function)){
-            throw new WrongDataTypeInterpretError("Datatype error: Expected Function; Found " + function.getClass().toString() + "\nOccured at instruction number " + index);
-        }
+        Function function = stack.getFunction(0, index);
 
-        ((Function) function).operate(stack, variables, interpreter, indicator);
+        stack.drop(1);
+        function.operate(stack, variables, interpreter, indicator);
     }
 
     @Override
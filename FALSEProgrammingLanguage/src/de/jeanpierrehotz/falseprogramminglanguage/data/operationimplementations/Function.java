@@ -61,20 +61,6 @@ public class Function extends OperationGroup {
 
     @Override
     public String toString() {
-        String content = "[";
-
-        for(int i = 0; i < instructions.size(); i++){
-            Operation op = instructions.get(i);
-
-            if(!(op instanceof IntegerValueOperation)){
-                content += op.toString();
-            }else{
-                content += ((IntegerValueOperation) op).getValueWithWhiteSpace(i > 0 && instructions.get(i - 1) instanceof IntegerValueOperation);
-            }
-        }
-
-        content += "]";
-
-        return content;
+        return "[" + instructionsToString() + "]";
     }
 }
@@ -0,0 +1,76 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.Operation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * This class is the abstract super class for every operation that replaces a short sequence of operations
+ * (a so called superinstruction), which the compiler has found in the code.<br>
+ * A fused operation behaves exactly like the sequence of operations it replaces and reports any error with the
+ * index of the operation of the sequence that would have caused it. Since the replaced operations are kept
+ * the byte code and the textual representation of a fused operation are the ones of the replaced operations.
+ */
+public abstract class FusedOperation extends Operation {
+
+    /**
+     * The operations that are replaced by this operation
+     */
+    protected final Operation[] operations;
+
+    /**
+     * This constructor initializes the fused operation with the operations it replaces;
+     * the index of the fused operation is the index of the last replaced operation
+     * @param operations the operations that are replaced
+     */
+    public FusedOperation(Operation... operations) {
+        super(operations[operations.length - 1].getIndex());
+        this.operations = operations;
+    }
+
+    /**
+     * This method gives you the operations that are replaced by this operation
+     * @return the replaced operations
+     */
+    public Operation[] getOperations(){
+        return operations;
+    }
+
+    @Override
+    public Byte[] toByteArray() {
+        ArrayList<Byte> codeList = new ArrayList<>();
+
+        for(Operation op : operations){
+            codeList.addAll(Arrays.asList(op.toByteArray()));
+        }
+
+        return codeList.toArray(new Byte[codeList.size()]);
+    }
+
+    @Override
+    public String toString() {
+        String content = "";
+
+        for(Operation op : operations){
+            content += op.toString();
+        }
+
+        return content;
+    }
+}
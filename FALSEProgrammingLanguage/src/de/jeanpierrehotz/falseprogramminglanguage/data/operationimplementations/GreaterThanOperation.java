@@ -17,15 +17,13 @@ package de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations
 
 import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
 import de.jeanpierrehotz.falseprogramminglanguage.data.Operation;
-import de.jeanpierrehotz.falseprogramminglanguage.data.StackMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.EmptyStackInterpretError;
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
-import de.jeanpierrehotz.falseprogramminglanguage.data.error.WrongDataTypeInterpretError;
 import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
 import de.jeanpierrehotz.falseprogramminglanguage.language.FalseLanguageDefinition;
 
-import java.util.HashMap;
-
 /**
  * Created by Admin on 17.09.2016.
  */
@@ -38,30 +36,21 @@ public class GreaterThanOperation extends Operation {
     }
 
     @Override
-    public void operate(StackMemory<Object> stack, HashMap<Character, Object> variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+    public void operate(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
             throws InterpretError {
 
-        Object n1;
-        Object n2;
-
-        if(stack.size() >= 2){
-            n2 = stack.pop();
-            n1 = stack.pop();
-        }else{
+        if(stack.size() < 2){
             throw new EmptyStackInterpretError(index);
         }
 
-        if(! (n1 instanceof Integer)){
-            throw new WrongDataTypeInterpretError("Datatype error: Expected Integer; Found " + n1.getClass().toString() + "\nOccured at instruction number " + index);
-        }
-        if(! (n2 instanceof Integer)){
-            throw new WrongDataTypeInterpretError("Datatype error: Expected Integer; Found " + n2.getClass().toString() + "\nOccured at instruction number " + index);
-        }
+        int n1 = stack.getInteger(1, index);
+        int n2 = stack.getInteger(0, index);
 
-        if((int) n1 > (int) n2){
-            stack.push(FalseLanguageDefinition.TRUE);
+        stack.drop(2);
+        if(n1 > n2){
+            stack.pushInteger(FalseLanguageDefinition.TRUE);
         }else{
-            stack.push(FalseLanguageDefinition.FALSE);
+            stack.pushInteger(FalseLanguageDefinition.FALSE);
         }
     }
 
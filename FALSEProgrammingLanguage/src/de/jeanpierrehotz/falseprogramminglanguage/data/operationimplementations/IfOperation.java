@@ -17,14 +17,11 @@ package de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations
 
 import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
 import de.jeanpierrehotz.falseprogramminglanguage.data.Operation;
-import de.jeanpierrehotz.falseprogramminglanguage.data.StackMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.EmptyStackInterpretError;
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
-import de.jeanpierrehotz.falseprogramminglanguage.data.error.WrongDataTypeInterpretError;
 import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
-import de.jeanpierrehotz.falseprogramminglanguage.language.FalseLanguageDefinition;
-
-import java.util.HashMap;
 
 /**
  * Created by Admin on 17.09.2016.
@@ -38,31 +35,20 @@ public class IfOperation extends Operation {
     }
 
     @Override
-    public void operate(StackMemory<Object> stack, HashMap<Character, Object> variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+    public void operate(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
             throws InterpretError {
 
-        Object bool;
-        Object function;
-
-        if(stack.size() >= 2){
-            function = stack.pop();
-            bool = stack.pop();
-        }else{
+        if(stack.size() < 2){
             throw new EmptyStackInterpretError(index);
         }
 
-        if(! (bool instanceof Integer)){
-            throw new WrongDataTypeInterpretError("Datatype error: Expected Boolean represented by Integer; Found " + bool.getClass().toString() + "; Booleans may only contain -1 (true) or 0 (false).\nOccured at instruction number " + index);
-        }else if((int) bool != FalseLanguageDefinition.TRUE && (int) bool != FalseLanguageDefinition.FALSE){
-            throw new WrongDataTypeInterpretError("Datatype error: Expected Boolean represented by Integer; Found " + bool.getClass().toString() + "; Booleans may only contain -1 (true) or 0 (false).\nOccured at instruction number " + index);
-        }
+        boolean bool = stack.getBoolean(1, index);
+        Function function = stack.getFunction(0, index);
 
-        if(! (function instanceof Function)){
-            throw new WrongDataTypeInterpretError("Datatype error: Expected Function; Found " + function.getClass().toString() + "\nOccured at instruction number " + index);
-        }
+        stack.drop(2);
 
-        if((int) bool == FalseLanguageDefinition.TRUE){
-            ((Function) function).operate(stack, variables, interpreter, indicator);
+        if(bool){
+            function.operate(stack, variables, interpreter, indicator);
         }
     }
 
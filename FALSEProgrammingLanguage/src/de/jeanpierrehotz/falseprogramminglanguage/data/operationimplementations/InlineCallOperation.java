@@ -0,0 +1,46 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
+
+/**
+ * This operation replaces a lambda function that is directly executed ({@code [...]!})
+ * and executes the function without pushing it on the stack.
+ */
+public class InlineCallOperation extends FusedOperation {
+
+    private final Function function;
+
+    public InlineCallOperation(LambdaFunctionOperation lambda, ExecutionOperation execution) {
+        super(lambda, execution);
+        this.function = lambda.getFunction();
+    }
+
+    @Override
+    public void operate(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+            throws InterpretError {
+        function.operate(stack, variables, interpreter, indicator);
+    }
+
+    public Function getFunction(){
+        return function;
+    }
+}
@@ -17,12 +17,13 @@ package de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations
 
 import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
 import de.jeanpierrehotz.falseprogramminglanguage.data.Operation;
-import de.jeanpierrehotz.falseprogramminglanguage.data.StackMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
 import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
+import de.jeanpierrehotz.falseprogramminglanguage.language.FalseLanguageDefinition;
 
 import java.nio.ByteBuffer;
-import java.util.HashMap;
 
 /**
  * Created by Admin on 17.09.2016.
@@ -31,7 +32,7 @@ public class IntegerValueOperation extends Operation {
 
     public static final byte OPERATION_BYTE = 11;
 
-    private int value;
+    private final int value;
 
     public IntegerValueOperation(int index, int value) {
         super(index);
@@ -39,9 +40,13 @@ public class IntegerValueOperation extends Operation {
     }
 
     @Override
-    public void operate(StackMemory<Object> stack, HashMap<Character, Object> variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+    public void operate(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
             throws InterpretError {
-        stack.push(value);
+        stack.pushInteger(value);
+    }
+
+    public int getValue(){
+        return value;
     }
 
     @Override
@@ -66,6 +71,11 @@ public class IntegerValueOperation extends Operation {
     }
 
     public String getValueWithWhiteSpace(boolean ws){
+//      negative values (which may be created by the compiler) have to be written with the unary minus operator
+        if(value < 0){
+            return ((ws)? " ": "") + (- value) + FalseLanguageDefinition.UNARYMINUS_OPERATOR;
+        }
+
         return ((ws)? " ": "") + value;
     }
 }
@@ -17,19 +17,19 @@ package de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations
 
 import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
 import de.jeanpierrehotz.falseprogramminglanguage.data.Operation;
-import de.jeanpierrehotz.falseprogramminglanguage.data.StackMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
 import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 
 /**
  * Created by Admin on 17.09.2016.
  */
 public class LambdaFunctionOperation extends Operation{
 
-    private Function functionCode;
+    private final Function functionCode;
 
     public LambdaFunctionOperation(int index, ArrayList<Operation> functionCode) {
         super(index);
@@ -37,10 +37,14 @@ public class LambdaFunctionOperation extends Operation{
     }
 
     @Override
-    public void operate(StackMemory<Object> stack, HashMap<Character, Object> variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+    public void operate(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
             throws InterpretError {
 
-        stack.push(functionCode);
+        stack.pushFunction(functionCode);
+    }
+
+    public Function getFunction(){
+        return functionCode;
     }
 
     @Override
@@ -17,15 +17,13 @@ package de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations
 
 import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
 import de.jeanpierrehotz.falseprogramminglanguage.data.Operation;
-import de.jeanpierrehotz.falseprogramminglanguage.data.StackMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.EmptyStackInterpretError;
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
-import de.jeanpierrehotz.falseprogramminglanguage.data.error.WrongDataTypeInterpretError;
 import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
 import de.jeanpierrehotz.falseprogramminglanguage.language.FalseLanguageDefinition;
 
-import java.util.HashMap;
-
 /**
  * Created by Admin on 17.09.2016.
  */
@@ -38,27 +36,21 @@ public class NotOperation extends Operation {
     }
 
     @Override
-    public void operate(StackMemory<Object> stack, HashMap<Character, Object> variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+    public void operate(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
             throws InterpretError {
 
-        Object n;
-
-        if(stack.size() >= 1){
-            n = stack.pop();
-        }else{
+        if(stack.size() < 1){
             throw new EmptyStackInterpretError(index);
         }
 
-        if(! (n instanceof Integer)){
-            throw new WrongDataTypeInterpretError("Datatype error: Expected Boolean represented by Integer; Found " + n.getClass().toString() + "; Booleans may only contain -1 (true) or 0 (false).\nOccured at instruction number " + index);
-        }else if((int) n != FalseLanguageDefinition.TRUE && (int) n != FalseLanguageDefinition.FALSE){
-            throw new WrongDataTypeInterpretError("Datatype error: Expected Boolean represented by Integer; Found " + n.getClass().toString() + "; Booleans may only contain -1 (true) or 0 (false).\nOccured at instruction number " + index);
-        }
+        boolean n = stack.getBoolean(0, index);
+
+        stack.drop(1);
 
-        if((int) n == FalseLanguageDefinition.TRUE){
-            stack.push(FalseLanguageDefinition.FALSE);
+        if(n){
+            stack.pushInteger(FalseLanguageDefinition.FALSE);
         }else{
-            stack.push(FalseLanguageDefinition.TRUE);
+            stack.pushInteger(FalseLanguageDefinition.TRUE);
         }
     }
 
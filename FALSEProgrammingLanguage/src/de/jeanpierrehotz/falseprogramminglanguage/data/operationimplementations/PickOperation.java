@@ -17,16 +17,14 @@ package de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations
 
 import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
 import de.jeanpierrehotz.falseprogramminglanguage.data.Operation;
-import de.jeanpierrehotz.falseprogramminglanguage.data.StackMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.EmptyStackInterpretError;
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.ValueOutOfBoundsInterpretError;
-import de.jeanpierrehotz.falseprogramminglanguage.data.error.WrongDataTypeInterpretError;
 import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
 import de.jeanpierrehotz.falseprogramminglanguage.language.FalseLanguageDefinition;
 
-import java.util.HashMap;
-
 /**
  * Created by Admin on 17.09.2016.
  */
@@ -39,25 +37,20 @@ public class PickOperation extends Operation {
     }
 
     @Override
-    public void operate(StackMemory<Object> stack, HashMap<Character, Object> variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+    public void operate(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
             throws InterpretError {
 
-        Object n;
-
-        if(stack.size() >= 1){
-            n = stack.pop();
-        }else{
+        if(stack.size() < 1){
             throw new EmptyStackInterpretError(index);
         }
 
-        if(! (n instanceof Integer)){
-            throw new WrongDataTypeInterpretError("Datatype error: Expected Integer; Found " + n.getClass().toString() + "\nOccured at instruction number " + index);
-        }
+        int n = stack.getInteger(0, index);
+
+        stack.drop(1);
 
         try{
-            stack.pick((int) n);
+            stack.pick(n);
         }catch(ArrayIndexOutOfBoundsException exc){
-            exc.printStackTrace();
             throw new ValueOutOfBoundsInterpretError("Stacks index was out of bounds!\nOccured at instruction number " + index);
         }
     }
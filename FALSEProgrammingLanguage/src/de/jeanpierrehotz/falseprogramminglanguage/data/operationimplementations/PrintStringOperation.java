@@ -17,12 +17,12 @@ package de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations
 
 import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
 import de.jeanpierrehotz.falseprogramminglanguage.data.Operation;
-import de.jeanpierrehotz.falseprogramminglanguage.data.StackMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
 import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
 
 import java.nio.ByteBuffer;
-import java.util.HashMap;
 
 /**
  * Created by Admin on 17.09.2016.
@@ -32,7 +32,7 @@ public class PrintStringOperation extends Operation {
     public static final byte OPERATION_BEGIN_BYTE = -1;
     public static final byte OPERATION_END_BYTE = -2;
 
-    private String content;
+    private final String content;
 
     public PrintStringOperation(int index, String content) {
         super(index);
@@ -40,12 +40,16 @@ public class PrintStringOperation extends Operation {
     }
 
     @Override
-    public void operate(StackMemory<Object> stack, HashMap<Character, Object> variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+    public void operate(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
             throws InterpretError {
 
         interpreter.getStdInOut().writeString(content);
     }
 
+    public String getContent(){
+        return content;
+    }
+
     @Override
     public Byte[] toByteArray() {
         ByteBuffer bb = ByteBuffer.allocate(2 * content.length());
@@ -0,0 +1,53 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.EmptyStackInterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
+
+/**
+ * This operation replaces a variable adress that is directly followed by an assignment (e.g. {@code a:})
+ * and pops the topmost item into the variable.
+ */
+public class StoreVariableOperation extends FusedOperation {
+
+    private final int slot;
+
+    public StoreVariableOperation(VariableAdressOperation adress, AssignOperation assign) {
+        super(adress, assign);
+        this.slot = VariableMemory.slot(adress.getVariableAdress());
+    }
+
+    @Override
+    public void operate(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+            throws InterpretError {
+
+        if(stack.size() < 1){
+            throw new EmptyStackInterpretError(index);
+        }
+
+        variables.store(slot, stack, 0);
+        stack.drop(1);
+    }
+
+    public int getSlot(){
+        return slot;
+    }
+}
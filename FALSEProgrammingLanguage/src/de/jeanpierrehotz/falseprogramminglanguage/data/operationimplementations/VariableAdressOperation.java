@@ -17,12 +17,11 @@ package de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations
 
 import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
 import de.jeanpierrehotz.falseprogramminglanguage.data.Operation;
-import de.jeanpierrehotz.falseprogramminglanguage.data.StackMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
 import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
 
-import java.util.HashMap;
-
 /**
  * Created by Admin on 17.09.2016.
  */
@@ -30,7 +29,7 @@ public class VariableAdressOperation extends Operation {
 
     public static final byte OPERATION_BYTE = 9;
 
-    private char variableAdress;
+    private final char variableAdress;
 
     public VariableAdressOperation(int index, char variableAdress) {
         super(index);
@@ -38,9 +37,13 @@ public class VariableAdressOperation extends Operation {
     }
 
     @Override
-    public void operate(StackMemory<Object> stack, HashMap<Character, Object> variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+    public void operate(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
             throws InterpretError {
-        stack.push(variableAdress);
+        stack.pushVariable(variableAdress);
+    }
+
+    public char getVariableAdress(){
+        return variableAdress;
     }
 
     @Override
@@ -17,14 +17,11 @@ package de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations
 
 import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
 import de.jeanpierrehotz.falseprogramminglanguage.data.Operation;
-import de.jeanpierrehotz.falseprogramminglanguage.data.StackMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.EmptyStackInterpretError;
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
-import de.jeanpierrehotz.falseprogramminglanguage.data.error.WrongDataTypeInterpretError;
 import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
-import de.jeanpierrehotz.falseprogramminglanguage.language.FalseLanguageDefinition;
-
-import java.util.HashMap;
 
 /**
  * Created by Admin on 17.09.2016.
@@ -38,49 +35,36 @@ public class WhileOperation extends Operation {
     }
 
     @Override
-    public void operate(StackMemory<Object> stack, HashMap<Character, Object> variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+    public void operate(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
             throws InterpretError {
 
-        Object boolfunc;
-        Object func;
-
-        if(stack.size() >= 2){
-            func = stack.pop();
-            boolfunc = stack.pop();
-        }else{
+        if(stack.size() < 2){
             throw new EmptyStackInterpretError(index);
         }
 
-        if(! (boolfunc instanceof Function)){
-            throw new WrongDataTypeInterpretError("Datatype error: Expected Function; Found " + boolfunc.getClass().toString() + "\nOccured at instruction number " + index);
-        }
-        if(! (func instanceof Function)){
-            throw new WrongDataTypeInterpretError("Datatype error: Expected Function; Found " + func.getClass().toString() + "\nOccured at instruction number " + index);
-        }
+        Function boolfunc = stack.getFunction(1, index);
+        Function func = stack.getFunction(0, index);
 
-        while(!indicator.isToBeAborted() && evaluateCondition((Function) boolfunc, stack, variables, interpreter, indicator)){
-            ((Function) func).operate(stack, variables, interpreter, indicator);
+        stack.drop(2);
+
+//      whether the program is to be aborted is checked whenever the condition is called
+        while(evaluateCondition(boolfunc, stack, variables, interpreter, indicator)){
+            func.operate(stack, variables, interpreter, indicator);
         }
     }
 
-    private boolean evaluateCondition(Function boolFunc, StackMemory<Object> stack, HashMap<Character, Object> variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator) throws InterpretError {
+    private boolean evaluateCondition(Function boolFunc, OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator) throws InterpretError {
         boolFunc.operate(stack, variables, interpreter, indicator);
 
-        Object n;
-
-        if(stack.size() >= 1){
-            n = stack.pop();
-        }else{
+        if(stack.size() < 1){
             throw new EmptyStackInterpretError(index);
         }
 
-        if(! (n instanceof Integer)){
-            throw new WrongDataTypeInterpretError("Datatype error: Expected Boolean represented by Integer; Found " + n.getClass().toString() + "; Booleans may only contain -1 (true) or 0 (false).\nOccured at instruction number " + index);
-        }else if((int) n != FalseLanguageDefinition.TRUE && (int) n != FalseLanguageDefinition.FALSE){
-            throw new WrongDataTypeInterpretError("Datatype error: Expected Boolean represented by Integer; Found " + n.getClass().toString() + "; Booleans may only contain -1 (true) or 0 (false).\nOccured at instruction number " + index);
-        }
+        boolean n = stack.getBoolean(0, index);
+
+        stack.drop(1);
 
-        return (int) n == FalseLanguageDefinition.TRUE;
+        return n;
     }
 
     @Override
@@ -0,0 +1,293 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.interpreter;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.FalseProgram;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class executes one compiled program for many inputs in parallel.<br>
+ * Every {@link Job} is executed on a thread of the given executor with an interpreter taken from a {@link FalseInterpreterPool}
+ * that belongs to this executor, which is reset for every job, so that neither the program is compiled nor a new interpreter
+ * is created for every input. Since the interpreter is given back once the job has finished, no thread of the executor
+ * keeps the streams of a job alive afterwards. The compiled code itself is shared by every thread (see {@link CompiledProgram}).<br>
+ * The executions are executed by {@link FalseInterpreter.ExecutionEngine#FRAMES} by default, since it is the only engine
+ * that counts the instructions the program executes.
+ */
+public class BatchExecutor {
+
+    private final Executor executor;
+
+    /**
+     * The interpreters that aren't executing a job at the moment
+     */
+    private final FalseInterpreterPool contexts;
+
+    /**
+     * This constructor creates a batch executor executing the given program on the common {@link ForkJoinPool}
+     * @param program the program to execute
+     */
+    public BatchExecutor(FalseProgram program){
+        this(new CompiledProgram(program), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * This constructor creates a batch executor executing the given program on the given executor
+     * @param program the compiled program to execute
+     * @param executor the executor whose threads execute the jobs
+     */
+    public BatchExecutor(CompiledProgram program, Executor executor){
+        this.executor = executor;
+
+        this.contexts = new FalseInterpreterPool(program, FalseInterpreterPool.DEFAULT_CAPACITY);
+        this.contexts.setExecutionEngine(FalseInterpreter.ExecutionEngine.FRAMES);
+    }
+
+    /**
+     * This method sets the engine every job is executed with.
+     * Any engine other than {@link FalseInterpreter.ExecutionEngine#FRAMES} doesn't count the executed instructions,
+     * unless there is an instruction budget.
+     * @param executionEngine the engine to execute the jobs with
+     */
+    public void setExecutionEngine(FalseInterpreter.ExecutionEngine executionEngine){
+        contexts.setExecutionEngine(executionEngine);
+    }
+
+    /**
+     * This method sets the maximum amount of instructions every job may take
+     * (see {@link FalseInterpreter#setInstructionBudget(long)})
+     * @param instructionBudget the maximum amount of instructions; any negative value for no limit
+     */
+    public void setInstructionBudget(long instructionBudget){
+        contexts.setInstructionBudget(instructionBudget);
+    }
+
+    /**
+     * This method executes every given job and waits until every one of them has finished.
+     * @param jobs the jobs to execute
+     * @return the results of the jobs in the same order as the jobs
+     */
+    public List<Result> execute(Collection<Job> jobs){
+        return submit(jobs).join();
+    }
+
+    /**
+     * This method submits every given job to the executor.
+     * @param jobs the jobs to execute
+     * @return the future that is completed with the results of the jobs (in the same order as the jobs)
+     *         once every job has finished
+     */
+    public CompletableFuture<List<Result>> submit(Collection<Job> jobs){
+        List<CompletableFuture<Result>> results = new ArrayList<>(jobs.size());
+
+        for(Job job : jobs){
+            results.add(CompletableFuture.supplyAsync(() -> run(job), executor));
+        }
+
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).thenApply((ignored) -> {
+            List<Result> list = new ArrayList<>(results.size());
+
+            for(CompletableFuture<Result> result : results){
+                list.add(result.join());
+            }
+
+            return list;
+        });
+    }
+
+    /**
+     * This method executes the given job with an interpreter of the pool
+     * @param job the job to execute
+     * @return the result of the job
+     */
+    private Result run(Job job){
+        ByteArrayOutputStream capturedOutput = null;
+        PrintStream output = job.output;
+
+        if(output == null){
+            capturedOutput = new ByteArrayOutputStream();
+            output = new PrintStream(capturedOutput);
+        }
+
+        FalseInterpreter interpreter = contexts.acquire(output, job.input);
+
+        Status status = Status.FINISHED;
+        Throwable error = null;
+        long executedInstructions;
+
+        long start = System.nanoTime();
+
+        try{
+            interpreter.execute();
+        }catch(InterpretError interpretError){
+            status = Status.INTERPRET_ERROR;
+            error = interpretError;
+        }catch(RuntimeException | StackOverflowError exc){
+            status = Status.FAILED;
+            error = exc;
+        }finally{
+            executedInstructions = interpreter.getExecutedInstructions();
+            contexts.release(interpreter);
+        }
+
+        long wallTime = System.nanoTime() - start;
+
+        output.flush();
+
+        return new Result(
+                job,
+                status,
+                error,
+                (capturedOutput != null)? capturedOutput.toString(): null,
+                executedInstructions,
+                wallTime
+        );
+    }
+
+    /**
+     * A single input of the program together with the stream the output of the program is written to
+     */
+    public static class Job {
+
+        private final InputStream input;
+        private final PrintStream output;
+
+        /**
+         * This constructor creates a job whose output is written to the given stream
+         * @param input the input of the program
+         * @param output the stream to write the output of the program to; {@code null} if the output is to be captured
+         *               by the {@link Result}
+         */
+        public Job(InputStream input, PrintStream output){
+            this.input = input;
+            this.output = output;
+        }
+
+        /**
+         * This constructor creates a job whose output is captured by its {@link Result}
+         * @param input the input of the program
+         */
+        public Job(InputStream input){
+            this(input, null);
+        }
+
+        public InputStream getInput(){
+            return input;
+        }
+
+        public PrintStream getOutput(){
+            return output;
+        }
+    }
+
+    /**
+     * The ways an execution of a job may end
+     */
+    public enum Status{
+        /**
+         * The program has finished without any error
+         */
+        FINISHED,
+        /**
+         * The program has been stopped by an {@link InterpretError} (including exceeding its instruction budget)
+         */
+        INTERPRET_ERROR,
+        /**
+         * The execution has failed for any other reason (e.g. the input has ended while the program was reading it)
+         */
+        FAILED
+    }
+
+    /**
+     * The result of a single job
+     */
+    public static class Result {
+
+        private final Job job;
+        private final Status status;
+        private final Throwable error;
+        private final String output;
+        private final long executedInstructions;
+        private final long wallTime;
+
+        private Result(Job job, Status status, Throwable error, String output, long executedInstructions, long wallTime){
+            this.job = job;
+            this.status = status;
+            this.error = error;
+            this.output = output;
+            this.executedInstructions = executedInstructions;
+            this.wallTime = wallTime;
+        }
+
+        public Job getJob(){
+            return job;
+        }
+
+        public Status getStatus(){
+            return status;
+        }
+
+        /**
+         * This method gives you the error that has ended the execution
+         * @return the error; {@code null} if the program has finished without any error
+         */
+        public Throwable getError(){
+            return error;
+        }
+
+        /**
+         * This method gives you the error that has ended the execution, if it is an {@link InterpretError}
+         * @return the interpret error; {@code null} if the program hasn't been stopped by an interpret error
+         */
+        public InterpretError getInterpretError(){
+            return (error instanceof InterpretError)? (InterpretError) error: null;
+        }
+
+        /**
+         * This method gives you the output of the program
+         * @return the captured output; {@code null} if the output has been written to the stream of the job
+         */
+        public String getOutput(){
+            return output;
+        }
+
+        /**
+         * This method gives you the amount of instructions the program has executed
+         * @return the amount of executed instructions; {@code -1} if they haven't been counted
+         */
+        public long getExecutedInstructions(){
+            return executedInstructions;
+        }
+
+        /**
+         * This method gives you the time the execution has taken
+         * @return the wall time in nanoseconds
+         */
+        public long getWallTime(){
+            return wallTime;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.interpreter;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.FalseProgram;
+import de.jeanpierrehotz.falseprogramminglanguage.data.Operation;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static de.jeanpierrehotz.falseprogramminglanguage.interpreter.BytecodeProgram.*;
+
+/**
+ * This class lowers a {@link FalseProgram} into a {@link BytecodeProgram}, which can be executed by the {@link BytecodeInterpreter}.
+ */
+public class BytecodeCompiler {
+
+    /**
+     * The code that is generated
+     */
+    private int[] code;
+    /**
+     * The indices of the operations every slot of the code has been generated from
+     */
+    private int[] indices;
+    /**
+     * The amount of slots of the code that are already in use
+     */
+    private int size;
+
+    /**
+     * The operand pool of the generated program
+     */
+    private List<Object> operands;
+    /**
+     * The functions that have been found so far; any function that is in this list but hasn't been lowered yet
+     * will be lowered after the code that is currently lowered
+     */
+    private List<Function> functions;
+
+    private BytecodeCompiler(){
+        this.code = new int[64];
+        this.indices = new int[64];
+        this.size = 0;
+
+        this.operands = new ArrayList<>();
+        this.functions = new ArrayList<>();
+    }
+
+    /**
+     * This method lowers the given program into a flat {@link BytecodeProgram}.
+     * @param program the program to lower
+     * @return the lowered program
+     */
+    public static BytecodeProgram compile(FalseProgram program){
+        return new BytecodeCompiler().lower(program);
+    }
+
+    private BytecodeProgram lower(FalseProgram program){
+//      first we'll lower the main program, which is ended by a halt-instruction
+        lowerOperations(program.getInstructions());
+        emit(OP_HALT, -1);
+
+//      then we'll lower every function we've found (which may add even more functions to the list)
+        ArrayList<Integer> entries = new ArrayList<>();
+        for(int i = 0; i < functions.size(); i++){
+            entries.add(size);
+
+            lowerOperations(functions.get(i).getInstructions());
+            emit(OP_RETURN, -1);
+        }
+
+//      lastly we'll append the trampoline that is used by any while-loop
+        int whileTrampoline = size;
+        emit(OP_WHILE_TEST, -1);
+        emit(OP_WHILE_NEXT, -1);
+
+        int[] functionEntries = new int[entries.size()];
+        for(int i = 0; i < functionEntries.length; i++){
+            functionEntries[i] = entries.get(i);
+        }
+
+        return new BytecodeProgram(
+                program,
+                Arrays.copyOf(code, size),
+                Arrays.copyOf(indices, size),
+                operands.toArray(),
+                functions.toArray(new Function[functions.size()]),
+                functionEntries,
+                whileTrampoline
+        );
+    }
+
+    /**
+     * This method lowers every given operation in the given order.
+     * A variable adress that is directly followed by a read or an assignment is resolved
+     * into a single instruction accessing the slot of the variable.
+     * @param operations the operations to lower
+     */
+    private void lowerOperations(List<Operation> operations){
+        for(int i = 0; i < operations.size(); i++){
+            Operation op = operations.get(i);
+
+            if(op instanceof VariableAdressOperation && i + 1 < operations.size()){
+                Operation next = operations.get(i + 1);
+                int slot = VariableMemory.slot(((VariableAdressOperation) op).getVariableAdress());
+
+                if(next instanceof ReadOperation){
+                    emit(OP_LOAD_VARIABLE, next.getIndex());
+                    emit(slot, next.getIndex());
+                    i++;
+                    continue;
+                }else if(next instanceof AssignOperation){
+                    emit(OP_STORE_VARIABLE, next.getIndex());
+                    emit(slot, next.getIndex());
+                    i++;
+                    continue;
+                }
+            }
+
+            lowerOperation(op);
+        }
+    }
+
+    /**
+     * This method lowers a single operation into the according opcode (and its operands).
+     * @param op the operation to lower
+     */
+    private void lowerOperation(Operation op){
+        int index = op.getIndex();
+
+        if(op instanceof LoadVariableOperation){
+            emit(OP_LOAD_VARIABLE, index);
+            emit(((LoadVariableOperation) op).getSlot(), index);
+        }else if(op instanceof StoreVariableOperation){
+            emit(OP_STORE_VARIABLE, index);
+            emit(((StoreVariableOperation) op).getSlot(), index);
+        }else if(op instanceof AddConstantOperation){
+            emit(OP_ADD_CONSTANT, index);
+            emit(((AddConstantOperation) op).getConstant(), index);
+        }else if(op instanceof CompareZeroOperation){
+            emit(((CompareZeroOperation) op).isGreater()? OP_GREATER_ZERO: OP_EQUALS_ZERO, index);
+        }else if(op instanceof FusedOperation){
+//          any other fused operation is simply lowered into the operations it replaces
+            lowerOperations(Arrays.asList(((FusedOperation) op).getOperations()));
+        }else if(op instanceof IntegerValueOperation){
+            emit(OP_PUSH_INTEGER, index);
+            emit(((IntegerValueOperation) op).getValue(), index);
+        }else if(op instanceof CharacterValueOperation){
+            emit(OP_PUSH_INTEGER, index);
+            emit(((CharacterValueOperation) op).getValue(), index);
+        }else if(op instanceof VariableAdressOperation){
+            emit(OP_PUSH_VARIABLE, index);
+            emit(((VariableAdressOperation) op).getVariableAdress(), index);
+        }else if(op instanceof LambdaFunctionOperation){
+            functions.add(((LambdaFunctionOperation) op).getFunction());
+
+            emit(OP_PUSH_FUNCTION, index);
+            emit(functions.size() - 1, index);
+        }else if(op instanceof PrintStringOperation){
+            operands.add(((PrintStringOperation) op).getContent());
+
+            emit(OP_PRINT_STRING, index);
+            emit(operands.size() - 1, index);
+        }else if(op instanceof NOP){
+//          operations that don't do anything simply aren't lowered at all
+        }else if(op instanceof AssignOperation){
+            emit(OP_ASSIGN, index);
+        }else if(op instanceof ReadOperation){
+            emit(OP_READ, index);
+        }else if(op instanceof ExecutionOperation){
+            emit(OP_EXECUTE, index);
+        }else if(op instanceof AddOperation){
+            emit(OP_ADD, index);
+        }else if(op instanceof SubtractOperation){
+            emit(OP_SUBTRACT, index);
+        }else if(op instanceof MultiplyOperation){
+            emit(OP_MULTIPLY, index);
+        }else if(op instanceof DivideOperation){
+            emit(OP_DIVIDE, index);
+        }else if(op instanceof UnaryMinusOperation){
+            emit(OP_UNARYMINUS, index);
+        }else if(op instanceof EqualsOperation){
+            emit(OP_EQUALS, index);
+        }else if(op instanceof GreaterThanOperation){
+            emit(OP_GREATER, index);
+        }else if(op instanceof AndOperation){
+            emit(OP_AND, index);
+        }else if(op instanceof OrOperation){
+            emit(OP_OR, index);
+        }else if(op instanceof NotOperation){
+            emit(OP_NOT, index);
+        }else if(op instanceof DuplicateOperation){
+            emit(OP_DUPLICATE, index);
+        }else if(op instanceof DeleteOperation){
+            emit(OP_DELETE, index);
+        }else if(op instanceof SwapOperation){
+            emit(OP_SWAP, index);
+        }else if(op instanceof RotateOperation){
+            emit(OP_ROTATE, index);
+        }else if(op instanceof PickOperation){
+            emit(OP_PICK, index);
+        }else if(op instanceof IfOperation){
+            emit(OP_IF, index);
+        }else if(op instanceof WhileOperation){
+            emit(OP_WHILE, index);
+        }else if(op instanceof PrintNumberOperation){
+            emit(OP_PRINT_NUMBER, index);
+        }else if(op instanceof PrintCharacterOperation){
+            emit(OP_PRINT_CHARACTER, index);
+        }else if(op instanceof ReadCharacterOperation){
+            emit(OP_READ_CHARACTER, index);
+        }else if(op instanceof FlushOperation){
+            emit(OP_FLUSH, index);
+        }else{
+            throw new IllegalArgumentException("The operation " + op.getClass() + " cannot be lowered into byte code!");
+        }
+    }
+
+    /**
+     * This method appends the given value to the code
+     * @param value the opcode or operand to append
+     * @param index the index of the operation the value belongs to
+     */
+    private void emit(int value, int index){
+        if(size == code.length){
+            code = Arrays.copyOf(code, 2 * size);
+            indices = Arrays.copyOf(indices, 2 * size);
+        }
+
+        code[size] = value;
+        indices[size] = index;
+        size++;
+    }
+}
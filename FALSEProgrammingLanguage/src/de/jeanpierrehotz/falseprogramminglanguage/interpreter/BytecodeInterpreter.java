@@ -0,0 +1,455 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.interpreter;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.StandardInOutPutCompat;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.*;
+import de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations.Function;
+import de.jeanpierrehotz.falseprogramminglanguage.language.FalseLanguageDefinition;
+
+import java.util.Arrays;
+
+import static de.jeanpierrehotz.falseprogramminglanguage.interpreter.BytecodeProgram.*;
+
+/**
+ * This class executes a {@link BytecodeProgram} in one single loop, which dispatches every instruction with a switch.<br>
+ * Instead of recursively calling functions on the java stack this interpreter keeps an explicit program counter,
+ * a stack of return addresses and a stack of currently running while-loops.
+ * The abort indicator is only checked whenever a function is called, a loop is repeated or input has been read.
+ */
+public class BytecodeInterpreter {
+
+    /**
+     * The amount of slots every while-loop takes on the loop stack:
+     * the id of the condition, the id of the body, the address to resume at after the loop and the index of the while-operation
+     */
+    private static final int LOOP_FRAME_SIZE = 4;
+
+    /**
+     * The program to execute
+     */
+    private BytecodeProgram program;
+
+    public BytecodeInterpreter(BytecodeProgram program){
+        this.program = program;
+    }
+
+    /**
+     * This method executes the program with the given stack, variables and interpreter.
+     * @param stack the current stack of the program
+     * @param variables the current variables available in the program
+     * @param interpreter the interpreter of the program
+     * @param indicator the indicator that shows whether to abort the program or not
+     * @throws InterpretError if there is an determined error while executing the program
+     */
+    public void execute(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+            throws InterpretError {
+
+        final int[] code = program.getCode();
+        final int[] indices = program.getInstructionIndices();
+        final Object[] operands = program.getOperands();
+        final Function[] functions = program.getFunctions();
+        final int[] entries = program.getFunctionEntries();
+        final int whileTest = program.getWhileTrampoline();
+        final int whileNext = whileTest + 1;
+
+        final StandardInOutPutCompat stdinout = interpreter.getStdInOut();
+        final boolean trace = interpreter.isPrintStack() || interpreter.isPrintVariables();
+
+        int[] returnStack = new int[16];
+        int returnPointer = 0;
+
+        int[] loopStack = new int[4 * LOOP_FRAME_SIZE];
+        int loopPointer = 0;
+
+        int pc = 0;
+
+        int n1;
+        int n2;
+        int index;
+
+        for(;;){
+            index = indices[pc];
+
+            switch(code[pc]){
+                case OP_PUSH_INTEGER:
+                    stack.pushInteger(code[pc + 1]);
+                    pc += 2;
+                    break;
+                case OP_PUSH_VARIABLE:
+                    stack.pushVariable((char) code[pc + 1]);
+                    pc += 2;
+                    break;
+                case OP_PUSH_FUNCTION:
+                    stack.pushFunction(functions[code[pc + 1]], code[pc + 1]);
+                    pc += 2;
+                    break;
+                case OP_ASSIGN:
+                    requireSize(stack, 2, index);
+                    char adress = stack.getVariableAdress(0, index);
+
+                    variables.store(VariableMemory.slot(adress), stack, 1);
+                    stack.drop(2);
+                    pc++;
+                    break;
+                case OP_READ:
+                    requireSize(stack, 1, index);
+                    char readAdress = stack.getVariableAdress(0, index);
+
+                    stack.drop(1);
+                    variables.load(VariableMemory.slot(readAdress), stack);
+                    pc++;
+                    break;
+                case OP_LOAD_VARIABLE:
+                    variables.load(code[pc + 1], stack);
+                    pc += 2;
+                    break;
+                case OP_STORE_VARIABLE:
+                    requireSize(stack, 1, index);
+                    variables.store(code[pc + 1], stack, 0);
+
+                    stack.drop(1);
+                    pc += 2;
+                    break;
+                case OP_ADD_CONSTANT:
+                    requireSize(stack, 1, index);
+                    n1 = stack.getInteger(0, index);
+
+                    stack.drop(1);
+                    stack.pushInteger(n1 + code[pc + 1]);
+                    pc += 2;
+                    break;
+                case OP_EQUALS_ZERO:
+                    requireSize(stack, 1, index);
+                    n1 = stack.getInteger(0, index);
+
+                    stack.drop(1);
+                    stack.pushInteger(truthValue(n1 == 0));
+                    pc++;
+                    break;
+                case OP_GREATER_ZERO:
+                    requireSize(stack, 1, index);
+                    n1 = stack.getInteger(0, index);
+
+                    stack.drop(1);
+                    stack.pushInteger(truthValue(n1 > 0));
+                    pc++;
+                    break;
+                case OP_EXECUTE:
+                    requireSize(stack, 1, index);
+                    int function = functionId(stack, 0, index);
+
+                    stack.drop(1);
+
+                    if(indicator.isToBeAborted()){
+                        return;
+                    }
+
+                    if(returnPointer == returnStack.length){
+                        returnStack = Arrays.copyOf(returnStack, 2 * returnPointer);
+                    }
+                    returnStack[returnPointer++] = pc + 1;
+                    pc = entries[function];
+                    continue;
+                case OP_ADD:
+                    requireSize(stack, 2, index);
+                    n1 = stack.getInteger(1, index);
+                    n2 = stack.getInteger(0, index);
+
+                    stack.drop(2);
+                    stack.pushInteger(n1 + n2);
+                    pc++;
+                    break;
+                case OP_SUBTRACT:
+                    requireSize(stack, 2, index);
+                    n1 = stack.getInteger(1, index);
+                    n2 = stack.getInteger(0, index);
+
+                    stack.drop(2);
+                    stack.pushInteger(n1 - n2);
+                    pc++;
+                    break;
+                case OP_MULTIPLY:
+                    requireSize(stack, 2, index);
+                    n1 = stack.getInteger(1, index);
+                    n2 = stack.getInteger(0, index);
+
+                    stack.drop(2);
+                    stack.pushInteger(n1 * n2);
+                    pc++;
+                    break;
+                case OP_DIVIDE:
+                    requireSize(stack, 2, index);
+                    n1 = stack.getInteger(1, index);
+                    n2 = stack.getInteger(0, index);
+
+                    if(n2 == 0){
+                        throw new DivideByZeroInterpretError("Cannot divide by zero!\nOccured at instruction number " + index);
+                    }
+
+                    stack.drop(2);
+                    stack.pushInteger(n1 / n2);
+                    pc++;
+                    break;
+                case OP_UNARYMINUS:
+                    requireSize(stack, 1, index);
+                    n1 = stack.getInteger(0, index);
+
+                    stack.drop(1);
+                    stack.pushInteger(- n1);
+                    pc++;
+                    break;
+                case OP_EQUALS:
+                    requireSize(stack, 2, index);
+                    n1 = stack.getInteger(1, index);
+                    n2 = stack.getInteger(0, index);
+
+                    stack.drop(2);
+                    stack.pushInteger(truthValue(n1 == n2));
+                    pc++;
+                    break;
+                case OP_GREATER:
+                    requireSize(stack, 2, index);
+                    n1 = stack.getInteger(1, index);
+                    n2 = stack.getInteger(0, index);
+
+                    stack.drop(2);
+                    stack.pushInteger(truthValue(n1 > n2));
+                    pc++;
+                    break;
+                case OP_AND:
+                    requireSize(stack, 2, index);
+                    boolean and1 = stack.getBoolean(1, index);
+                    boolean and2 = stack.getBoolean(0, index);
+
+                    stack.drop(2);
+                    stack.pushInteger(truthValue(and1 && and2));
+                    pc++;
+                    break;
+                case OP_OR:
+                    requireSize(stack, 2, index);
+                    boolean or1 = stack.getBoolean(1, index);
+                    boolean or2 = stack.getBoolean(0, index);
+
+                    stack.drop(2);
+                    stack.pushInteger(truthValue(or1 || or2));
+                    pc++;
+                    break;
+                case OP_NOT:
+                    requireSize(stack, 1, index);
+                    boolean not = stack.getBoolean(0, index);
+
+                    stack.drop(1);
+                    stack.pushInteger(truthValue(!not));
+                    pc++;
+                    break;
+                case OP_DUPLICATE:
+                    requireSize(stack, 1, index);
+                    stack.duplicate();
+                    pc++;
+                    break;
+                case OP_DELETE:
+                    requireSize(stack, 1, index);
+                    stack.drop(1);
+                    pc++;
+                    break;
+                case OP_SWAP:
+                    requireSize(stack, 2, index);
+                    stack.swap();
+                    pc++;
+                    break;
+                case OP_ROTATE:
+                    requireSize(stack, 3, index);
+                    stack.rotate();
+                    pc++;
+                    break;
+                case OP_PICK:
+                    requireSize(stack, 1, index);
+                    n1 = stack.getInteger(0, index);
+
+                    stack.drop(1);
+
+                    try{
+                        stack.pick(n1);
+                    }catch(ArrayIndexOutOfBoundsException exc){
+                        throw new ValueOutOfBoundsInterpretError("Stacks index was out of bounds!\nOccured at instruction number " + index);
+                    }
+                    pc++;
+                    break;
+                case OP_IF:
+                    requireSize(stack, 2, index);
+                    boolean condition = stack.getBoolean(1, index);
+                    int conditional = functionId(stack, 0, index);
+
+                    stack.drop(2);
+
+                    if(!condition){
+                        pc++;
+                        break;
+                    }
+
+                    if(indicator.isToBeAborted()){
+                        return;
+                    }
+
+                    if(returnPointer == returnStack.length){
+                        returnStack = Arrays.copyOf(returnStack, 2 * returnPointer);
+                    }
+                    returnStack[returnPointer++] = pc + 1;
+                    pc = entries[conditional];
+                    continue;
+                case OP_WHILE:
+                    requireSize(stack, 2, index);
+                    int loopCondition = functionId(stack, 1, index);
+                    int loopBody = functionId(stack, 0, index);
+
+                    stack.drop(2);
+
+                    if(loopPointer == loopStack.length){
+                        loopStack = Arrays.copyOf(loopStack, 2 * loopPointer);
+                    }
+                    loopStack[loopPointer++] = loopCondition;
+                    loopStack[loopPointer++] = loopBody;
+                    loopStack[loopPointer++] = pc + 1;
+                    loopStack[loopPointer++] = index;
+
+//                  the first evaluation of the condition is handled just like every following evaluation
+                    pc = whileNext;
+                    continue;
+                case OP_WHILE_TEST:
+                    index = loopStack[loopPointer - 1];
+
+                    requireSize(stack, 1, index);
+                    boolean loop = stack.getBoolean(0, index);
+
+                    stack.drop(1);
+
+                    if(loop){
+                        if(returnPointer == returnStack.length){
+                            returnStack = Arrays.copyOf(returnStack, 2 * returnPointer);
+                        }
+                        returnStack[returnPointer++] = whileNext;
+                        pc = entries[loopStack[loopPointer - LOOP_FRAME_SIZE + 1]];
+                        continue;
+                    }
+
+//                  if the condition isn't met anymore we'll resume after the while-operation
+                    pc = loopStack[loopPointer - 2];
+                    loopPointer -= LOOP_FRAME_SIZE;
+                    break;
+                case OP_WHILE_NEXT:
+                    if(indicator.isToBeAborted()){
+                        return;
+                    }
+
+                    if(returnPointer == returnStack.length){
+                        returnStack = Arrays.copyOf(returnStack, 2 * returnPointer);
+                    }
+                    returnStack[returnPointer++] = whileTest;
+                    pc = entries[loopStack[loopPointer - LOOP_FRAME_SIZE]];
+                    continue;
+                case OP_PRINT_NUMBER:
+                    requireSize(stack, 1, index);
+                    n1 = stack.getInteger(0, index);
+
+                    stack.drop(1);
+                    stdinout.writeNumber(n1);
+                    pc++;
+                    break;
+                case OP_PRINT_STRING:
+                    stdinout.writeString((String) operands[code[pc + 1]]);
+                    pc += 2;
+                    break;
+                case OP_PRINT_CHARACTER:
+                    requireSize(stack, 1, index);
+                    n1 = stack.getInteger(0, index);
+
+                    stack.drop(1);
+                    stdinout.writeCharacter((char) n1);
+                    pc++;
+                    break;
+                case OP_READ_CHARACTER:
+                    stack.pushInteger(stdinout.readCharacter());
+                    pc++;
+                    break;
+                case OP_FLUSH:
+                    stdinout.flush();
+
+                    if(indicator.isToBeAborted()){
+                        return;
+                    }
+                    pc++;
+                    break;
+                case OP_RETURN:
+                    pc = returnStack[--returnPointer];
+
+//                  returning into a while-loop is not the end of an instruction, so there's nothing to print
+                    if(pc == whileTest || pc == whileNext){
+                        continue;
+                    }
+                    break;
+                case OP_HALT:
+                    return;
+                default:
+                    throw new UnknownInterpretError("Unknown opcode " + code[pc] + "\nOccured at instruction number " + index);
+            }
+
+//          if needed print the stack and the variables
+            if(trace){
+                trace(stack, variables, interpreter);
+            }
+        }
+    }
+
+    private void trace(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter){
+        if(interpreter.isPrintStack()){
+            program.getSource().printStack(stack);
+        }
+
+        if(interpreter.isPrintVariables()){
+            program.getSource().printVariables(variables);
+        }
+    }
+
+    private static void requireSize(OperandStack stack, int size, int index) throws EmptyStackInterpretError {
+        if(stack.size() < size){
+            throw new EmptyStackInterpretError(index);
+        }
+    }
+
+    /**
+     * This method gives you the id of the function at the given depth of the stack
+     * @param stack the stack containing the function
+     * @param depth the depth of the function
+     * @param index the index of the operation that reads the function (for the error message)
+     * @return the id of the function
+     * @throws WrongDataTypeInterpretError if the item is no function
+     */
+    private int functionId(OperandStack stack, int depth, int index) throws WrongDataTypeInterpretError {
+        Function function = stack.getFunction(depth, index);
+        int id = stack.getValue(depth);
+
+//      functions that have been pushed by anything else than this program have no id yet
+        return (id >= 0)? id: program.getFunctionId(function);
+    }
+
+    private static int truthValue(boolean value){
+        return value? FalseLanguageDefinition.TRUE: FalseLanguageDefinition.FALSE;
+    }
+}
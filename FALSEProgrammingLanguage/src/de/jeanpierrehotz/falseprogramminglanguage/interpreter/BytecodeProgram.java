@@ -0,0 +1,210 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.interpreter;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.FalseProgram;
+import de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations.Function;
+
+import java.util.IdentityHashMap;
+
+/**
+ * This class resembles a {@link FalseProgram} that has been lowered by the {@link BytecodeCompiler} into a flat array of
+ * opcodes, which can be executed by the {@link BytecodeInterpreter} in one single loop.<br>
+ * The main program begins at the index 0 of the code and ends with {@link #OP_HALT}, every function is appended after
+ * the main program and ends with {@link #OP_RETURN}.
+ * Operands (like the value of an integer) are stored directly after their opcode inside the code,
+ * whereas objects (like strings and functions) are stored inside the operand pool and referenced by their index.
+ */
+public class BytecodeProgram {
+
+    //
+    // Values:
+    //
+    /** Operand: the integer to push */
+    public static final int OP_PUSH_INTEGER = 0;
+    /** Operand: the variable adress to push */
+    public static final int OP_PUSH_VARIABLE = 1;
+    /** Operand: the id of the function to push */
+    public static final int OP_PUSH_FUNCTION = 2;
+
+    //
+    // Variable access:
+    //
+    public static final int OP_ASSIGN = 3;
+    public static final int OP_READ = 4;
+    public static final int OP_EXECUTE = 5;
+
+    //
+    // Arithmetic operators:
+    //
+    public static final int OP_ADD = 6;
+    public static final int OP_SUBTRACT = 7;
+    public static final int OP_MULTIPLY = 8;
+    public static final int OP_DIVIDE = 9;
+    public static final int OP_UNARYMINUS = 10;
+
+    //
+    // Logic relations operators:
+    //
+    public static final int OP_EQUALS = 11;
+    public static final int OP_GREATER = 12;
+    public static final int OP_AND = 13;
+    public static final int OP_OR = 14;
+    public static final int OP_NOT = 15;
+
+    //
+    // in-built functions operators:
+    //
+    public static final int OP_DUPLICATE = 16;
+    public static final int OP_DELETE = 17;
+    public static final int OP_SWAP = 18;
+    public static final int OP_ROTATE = 19;
+    public static final int OP_PICK = 20;
+
+    //
+    // Control structures:
+    //
+    public static final int OP_IF = 21;
+    public static final int OP_WHILE = 22;
+
+    //
+    // I/O:
+    //
+    public static final int OP_PRINT_NUMBER = 23;
+    /** Operand: the index of the string inside the operand pool */
+    public static final int OP_PRINT_STRING = 24;
+    public static final int OP_PRINT_CHARACTER = 25;
+    public static final int OP_READ_CHARACTER = 26;
+    public static final int OP_FLUSH = 27;
+
+    //
+    // Internal opcodes, which are not resembled by any operation:
+    //
+    /** Returns to the address on top of the return stack */
+    public static final int OP_RETURN = 28;
+    /** Ends the program */
+    public static final int OP_HALT = 29;
+    /** Evaluates the result of a while-loops condition and executes the loops body if needed */
+    public static final int OP_WHILE_TEST = 30;
+    /** Evaluates the condition of a while-loop after its body has been executed */
+    public static final int OP_WHILE_NEXT = 31;
+
+    //
+    // Resolved variable access:
+    //
+    /** Operand: the slot of the variable to push the value of (resembles a variable adress directly followed by a read) */
+    public static final int OP_LOAD_VARIABLE = 32;
+    /** Operand: the slot of the variable to assign (resembles a variable adress directly followed by an assignment) */
+    public static final int OP_STORE_VARIABLE = 33;
+
+    //
+    // Superinstructions resembling fused operations:
+    //
+    /** Operand: the integer to add to the topmost item */
+    public static final int OP_ADD_CONSTANT = 34;
+    public static final int OP_EQUALS_ZERO = 35;
+    public static final int OP_GREATER_ZERO = 36;
+
+    /**
+     * The flat code of the program
+     */
+    private final int[] code;
+    /**
+     * The indices of the operations that every slot of the code has been generated from, so that
+     * errors can be reported just like they are reported by the operations themselves
+     */
+    private final int[] instructionIndices;
+    /**
+     * The operand pool containing any objects that are referenced from the code
+     */
+    private final Object[] operands;
+
+    /**
+     * The functions of this program; the id of a function is its index inside this array
+     */
+    private final Function[] functions;
+    /**
+     * The index inside the code every function begins at (indexed by the id of the function)
+     */
+    private final int[] functionEntries;
+    /**
+     * The ids of the functions to look up a function that has been pushed on the stack
+     */
+    private final IdentityHashMap<Function, Integer> functionIds;
+
+    /**
+     * The index of the {@link #OP_WHILE_TEST}-instruction (directly followed by the {@link #OP_WHILE_NEXT}-instruction)
+     */
+    private final int whileTrampoline;
+
+    /**
+     * The program this byte code has been generated from
+     */
+    private final FalseProgram source;
+
+    BytecodeProgram(FalseProgram source, int[] code, int[] instructionIndices, Object[] operands, Function[] functions, int[] functionEntries, int whileTrampoline){
+        this.source = source;
+        this.code = code;
+        this.instructionIndices = instructionIndices;
+        this.operands = operands;
+        this.functions = functions;
+        this.functionEntries = functionEntries;
+        this.whileTrampoline = whileTrampoline;
+
+        this.functionIds = new IdentityHashMap<>();
+        for(int i = 0; i < functions.length; i++){
+            functionIds.put(functions[i], i);
+        }
+    }
+
+    public int[] getCode(){
+        return code;
+    }
+
+    public int[] getInstructionIndices(){
+        return instructionIndices;
+    }
+
+    public Object[] getOperands(){
+        return operands;
+    }
+
+    public Function[] getFunctions(){
+        return functions;
+    }
+
+    public int[] getFunctionEntries(){
+        return functionEntries;
+    }
+
+    /**
+     * This method gives you the id of the given function
+     * @param function the function whose id you want
+     * @return the id of the function; {@code -1} if the function is not part of this program
+     */
+    public int getFunctionId(Function function){
+        Integer id = functionIds.get(function);
+        return (id == null)? -1: id;
+    }
+
+    public int getWhileTrampoline(){
+        return whileTrampoline;
+    }
+
+    public FalseProgram getSource(){
+        return source;
+    }
+}
@@ -0,0 +1,502 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.interpreter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * This class writes the bytes of a simple JVM class, which only contains static fields and static methods.<br>
+ * The class is written in the class file version 49, so that no stack map frames have to be computed.
+ */
+class ClassFileWriter {
+
+    //
+    // The opcodes that are used by the JitCompiler:
+    //
+    static final int ICONST_M1 = 2;
+    static final int ICONST_0 = 3;
+    static final int BIPUSH = 16;
+    static final int SIPUSH = 17;
+    static final int LDC_W = 19;
+    static final int ILOAD = 21;
+    static final int ALOAD = 25;
+    static final int AALOAD = 50;
+    static final int ISTORE = 54;
+    static final int IADD = 96;
+    static final int ISUB = 100;
+    static final int IMUL = 104;
+    static final int INEG = 116;
+    static final int IFEQ = 153;
+    static final int IFNE = 154;
+    static final int IFLT = 155;
+    static final int GOTO = 167;
+    static final int TABLESWITCH = 170;
+    static final int RETURN = 177;
+    static final int GETSTATIC = 178;
+    static final int INVOKEVIRTUAL = 182;
+    static final int INVOKESTATIC = 184;
+    static final int WIDE = 196;
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    /**
+     * The constant pool of the class (without its leading count)
+     */
+    private ByteArrayOutputStream constantPool;
+    private DataOutputStream constantPoolOut;
+    /**
+     * The next free index inside the constant pool
+     */
+    private int constantCount;
+    /**
+     * The indices of the constants that have been added to the constant pool already
+     */
+    private HashMap<String, Integer> constants;
+
+    private String className;
+
+    private List<byte[]> fields;
+    private List<byte[]> methods;
+
+    ClassFileWriter(String className){
+        this.constantPool = new ByteArrayOutputStream();
+        this.constantPoolOut = new DataOutputStream(constantPool);
+        this.constantCount = 1;
+        this.constants = new HashMap<>();
+
+        this.className = className;
+
+        this.fields = new ArrayList<>();
+        this.methods = new ArrayList<>();
+    }
+
+    String getClassName(){
+        return className;
+    }
+
+    int utf8(String value){
+        Integer index = constants.get("U" + value);
+
+        if(index == null){
+            index = constantCount++;
+            constants.put("U" + value, index);
+
+            try{
+                constantPoolOut.writeByte(CONSTANT_UTF8);
+                constantPoolOut.writeUTF(value);
+            }catch(IOException exc){
+                throw new IllegalStateException(exc);
+            }
+        }
+
+        return index;
+    }
+
+    int integer(int value){
+        Integer index = constants.get("I" + value);
+
+        if(index == null){
+            index = constantCount++;
+            constants.put("I" + value, index);
+
+            write(CONSTANT_INTEGER, value >>> 16, value & 0xFFFF);
+        }
+
+        return index;
+    }
+
+    int classReference(String name){
+        Integer index = constants.get("C" + name);
+
+        if(index == null){
+            int nameIndex = utf8(name);
+
+            index = constantCount++;
+            constants.put("C" + name, index);
+
+            write(CONSTANT_CLASS, nameIndex);
+        }
+
+        return index;
+    }
+
+    int fieldReference(String owner, String name, String descriptor){
+        return memberReference(CONSTANT_FIELDREF, owner, name, descriptor);
+    }
+
+    int methodReference(String owner, String name, String descriptor){
+        return memberReference(CONSTANT_METHODREF, owner, name, descriptor);
+    }
+
+    private int memberReference(int tag, String owner, String name, String descriptor){
+        String key = tag + owner + "." + name + descriptor;
+        Integer index = constants.get(key);
+
+        if(index == null){
+            int ownerIndex = classReference(owner);
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+
+            Integer nameAndType = constants.get("N" + name + descriptor);
+            if(nameAndType == null){
+                nameAndType = constantCount++;
+                constants.put("N" + name + descriptor, nameAndType);
+
+                write(CONSTANT_NAME_AND_TYPE, nameIndex, descriptorIndex);
+            }
+
+            index = constantCount++;
+            constants.put(key, index);
+
+            write(tag, ownerIndex, nameAndType);
+        }
+
+        return index;
+    }
+
+    /**
+     * This method writes a constant consisting of a tag and two unsigned shorts to the constant pool
+     */
+    private void write(int tag, int... values){
+        try{
+            constantPoolOut.writeByte(tag);
+            for(int value : values){
+                constantPoolOut.writeShort(value);
+            }
+        }catch(IOException exc){
+            throw new IllegalStateException(exc);
+        }
+    }
+
+    /**
+     * This method adds a static field to the class
+     * @param name the name of the field
+     * @param descriptor the descriptor of the type of the field
+     */
+    void addStaticField(String name, String descriptor){
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        try{
+            out.writeShort(ACC_STATIC);
+            out.writeShort(utf8(name));
+            out.writeShort(utf8(descriptor));
+            out.writeShort(0);
+        }catch(IOException exc){
+            throw new IllegalStateException(exc);
+        }
+
+        fields.add(bytes.toByteArray());
+    }
+
+    /**
+     * This method adds a static method with the given code to the class
+     * @param name the name of the method
+     * @param descriptor the descriptor of the method
+     * @param code the code of the method
+     */
+    void addStaticMethod(String name, String descriptor, Code code){
+        byte[] instructions = code.toByteArray();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        try{
+            out.writeShort(ACC_PUBLIC | ACC_STATIC);
+            out.writeShort(utf8(name));
+            out.writeShort(utf8(descriptor));
+
+            out.writeShort(1);
+            out.writeShort(utf8("Code"));
+            out.writeInt(12 + instructions.length);
+            out.writeShort(code.maxStack);
+            out.writeShort(code.maxLocals);
+            out.writeInt(instructions.length);
+            out.write(instructions);
+            out.writeShort(0);
+            out.writeShort(0);
+        }catch(IOException exc){
+            throw new IllegalStateException(exc);
+        }
+
+        methods.add(bytes.toByteArray());
+    }
+
+    byte[] toByteArray(){
+        int thisClass = classReference(className);
+        int superClass = classReference("java/lang/Object");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        try{
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(49);
+
+            out.writeShort(constantCount);
+            out.write(constantPool.toByteArray());
+
+            out.writeShort(ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0);
+
+            out.writeShort(fields.size());
+            for(byte[] field : fields){
+                out.write(field);
+            }
+
+            out.writeShort(methods.size());
+            for(byte[] method : methods){
+                out.write(method);
+            }
+
+            out.writeShort(0);
+        }catch(IOException exc){
+            throw new IllegalStateException(exc);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * This class resembles the code of a single method
+     */
+    class Code {
+
+        private byte[] code;
+        private int size;
+
+        /**
+         * The jumps whose offsets have to be resolved once every label has been marked
+         */
+        private List<Jump> jumps;
+
+        private int maxStack;
+        private int maxLocals;
+
+        Code(int maxStack, int maxLocals){
+            this.code = new byte[256];
+            this.size = 0;
+            this.jumps = new ArrayList<>();
+            this.maxStack = maxStack;
+            this.maxLocals = maxLocals;
+        }
+
+        void setMaxLocals(int maxLocals){
+            this.maxLocals = maxLocals;
+        }
+
+        void op(int opcode){
+            put(opcode);
+        }
+
+        void pushInt(int value){
+            if(value >= -1 && value <= 5){
+                put(ICONST_0 + value);
+            }else if(value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE){
+                put(BIPUSH);
+                put(value);
+            }else if(value >= Short.MIN_VALUE && value <= Short.MAX_VALUE){
+                put(SIPUSH);
+                putShort(value);
+            }else{
+                put(LDC_W);
+                putShort(integer(value));
+            }
+        }
+
+        void iload(int local){
+            local(ILOAD, local);
+        }
+
+        void istore(int local){
+            local(ISTORE, local);
+        }
+
+        void aload(int local){
+            local(ALOAD, local);
+        }
+
+        private void local(int opcode, int local){
+            if(local <= 255){
+                put(opcode);
+                put(local);
+            }else{
+                put(WIDE);
+                put(opcode);
+                putShort(local);
+            }
+        }
+
+        void getStatic(String owner, String name, String descriptor){
+            put(GETSTATIC);
+            putShort(fieldReference(owner, name, descriptor));
+        }
+
+        void invokeStatic(String owner, String name, String descriptor){
+            put(INVOKESTATIC);
+            putShort(methodReference(owner, name, descriptor));
+        }
+
+        void invokeVirtual(String owner, String name, String descriptor){
+            put(INVOKEVIRTUAL);
+            putShort(methodReference(owner, name, descriptor));
+        }
+
+        /**
+         * This method creates a new label, which has to be marked before the code is written
+         * @return the new label
+         */
+        int[] newLabel(){
+            return new int[]{ -1 };
+        }
+
+        /**
+         * This method marks the given label at the current position of the code
+         * @param label the label to mark
+         */
+        void mark(int[] label){
+            label[0] = size;
+        }
+
+        void jump(int opcode, int[] label){
+            jumps.add(new Jump(size, size + 1, 2, label));
+            put(opcode);
+            putShort(0);
+        }
+
+        /**
+         * This method writes a tableswitch-instruction jumping to the target with the index of the topmost int
+         * @param defaultLabel the label to jump to, if there is no target for the int
+         * @param targets the labels to jump to
+         */
+        void tableSwitch(int[] defaultLabel, int[][] targets){
+            int opcode = size;
+            put(TABLESWITCH);
+
+            while(size % 4 != 0){
+                put(0);
+            }
+
+            jumps.add(new Jump(opcode, size, 4, defaultLabel));
+            putInt(0);
+
+            putInt(0);
+            putInt(targets.length - 1);
+
+            for(int[] target : targets){
+                jumps.add(new Jump(opcode, size, 4, target));
+                putInt(0);
+            }
+        }
+
+        private byte[] toByteArray(){
+            for(Jump jump : jumps){
+                int target = jump.label[0];
+                int offset = target - jump.instruction;
+
+                if(target < 0){
+                    throw new IllegalStateException("A label has not been marked!");
+                }
+
+                if(jump.width == 2){
+                    if(offset < Short.MIN_VALUE || offset > Short.MAX_VALUE){
+                        throw new IllegalStateException("The method is too large to be compiled!");
+                    }
+
+                    code[jump.offset] = (byte) (offset >> 8);
+                    code[jump.offset + 1] = (byte) offset;
+                }else{
+                    code[jump.offset] = (byte) (offset >> 24);
+                    code[jump.offset + 1] = (byte) (offset >> 16);
+                    code[jump.offset + 2] = (byte) (offset >> 8);
+                    code[jump.offset + 3] = (byte) offset;
+                }
+            }
+
+            if(size > 65535){
+                throw new IllegalStateException("The method is too large to be compiled!");
+            }
+
+            byte[] result = new byte[size];
+            System.arraycopy(code, 0, result, 0, size);
+            return result;
+        }
+
+        private void put(int value){
+            if(size == code.length){
+                byte[] grown = new byte[2 * size];
+                System.arraycopy(code, 0, grown, 0, size);
+                code = grown;
+            }
+
+            code[size++] = (byte) value;
+        }
+
+        private void putShort(int value){
+            put(value >> 8);
+            put(value);
+        }
+
+        private void putInt(int value){
+            putShort(value >> 16);
+            putShort(value);
+        }
+    }
+
+    /**
+     * This class resembles a jump whose offset is written once the label it jumps to is known
+     */
+    private static class Jump {
+
+        /**
+         * The position of the opcode of the jump, which the offset is relative to
+         */
+        private int instruction;
+        /**
+         * The position the offset is written to
+         */
+        private int offset;
+        /**
+         * The amount of bytes of the offset
+         */
+        private int width;
+        private int[] label;
+
+        private Jump(int instruction, int offset, int width, int[] label){
+            this.instruction = instruction;
+            this.offset = offset;
+            this.width = width;
+            this.label = label;
+        }
+    }
+}
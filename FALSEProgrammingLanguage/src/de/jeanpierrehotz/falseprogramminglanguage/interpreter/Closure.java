@@ -0,0 +1,39 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.interpreter;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
+
+/**
+ * This interface resembles a piece of a program that has been linked by the {@link ClosureCompiler}
+ * with every operand it needs already bound.
+ */
+interface Closure {
+
+    /**
+     * This method executes the closure with the given stack, variables and interpreter.
+     * @param stack the current stack of the program
+     * @param variables the current variables available in the program
+     * @param interpreter the interpreter of the program
+     * @param indicator the indicator that shows whether to abort the program or not
+     * @throws InterpretError if there is an determined error while executing the closure
+     */
+    void execute(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+            throws InterpretError;
+}
@@ -0,0 +1,354 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.interpreter;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
+import de.jeanpierrehotz.falseprogramminglanguage.data.FalseProgram;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.Operation;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.DivideByZeroInterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.EmptyStackInterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations.*;
+import de.jeanpierrehotz.falseprogramminglanguage.language.FalseLanguageDefinition;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * This class links a {@link FalseProgram} into a tree of {@link Closure}s, which is executed as {@link ClosureProgram}.<br>
+ * Every operation is linked into a small lambda with its operands (like the value of an integer, the slot of a variable
+ * or the function that is called by {@code [...]!}) already bound, and the closures of a function are linked
+ * into a balanced tree of sequences, so that the JVM can inline adjacent instructions without any classes
+ * having to be generated at runtime.<br>
+ * Whether the program is to be aborted is only checked whenever a function is called or a loop is repeated.
+ */
+public class ClosureCompiler {
+
+    /**
+     * The closures of every function that has been linked so far
+     */
+    private IdentityHashMap<Function, Closure> functions;
+
+    private ClosureCompiler(){
+        this.functions = new IdentityHashMap<>();
+    }
+
+    /**
+     * This method links the given program into closures.
+     * @param program the program to link
+     * @return the linked program
+     */
+    public static ClosureProgram compile(FalseProgram program){
+        return new ClosureProgram(program, new ClosureCompiler().link(program.getInstructions()));
+    }
+
+    /**
+     * This method links the given instructions into one closure, which executes them after checking whether the program is to be aborted.
+     * Two lambda functions directly followed by a while-operation are linked into one loop.
+     * @param instructions the instructions to link
+     * @return the linked closure
+     */
+    private Closure link(List<Operation> instructions){
+        ArrayList<Closure> closures = new ArrayList<>();
+
+        for(int i = 0; i < instructions.size(); i++){
+            Operation op = instructions.get(i);
+
+            if(op instanceof LambdaFunctionOperation && i + 2 < instructions.size()
+                    && instructions.get(i + 1) instanceof LambdaFunctionOperation
+                    && instructions.get(i + 2) instanceof WhileOperation){
+                closures.add(loop(
+                        function(((LambdaFunctionOperation) op).getFunction()),
+                        function(((LambdaFunctionOperation) instructions.get(i + 1)).getFunction()),
+                        instructions.get(i + 2).getIndex()
+                ));
+                i += 2;
+            }else if(!(op instanceof NOP)){
+                closures.add(link(op));
+            }
+        }
+
+        if(closures.isEmpty()){
+            return (stack, variables, interpreter, indicator) -> indicator.poll();
+        }
+
+        Closure body = sequence(closures, 0, closures.size());
+        return (stack, variables, interpreter, indicator) -> {
+            indicator.poll();
+            body.execute(stack, variables, interpreter, indicator);
+        };
+    }
+
+    /**
+     * This method links the given closures into a balanced tree of sequences.
+     * @param closures the closures to link
+     * @param from the index of the first closure (inclusive)
+     * @param to the index of the last closure (exclusive)
+     * @return the linked sequence
+     */
+    private static Closure sequence(List<Closure> closures, int from, int to){
+        if(to - from == 1){
+            return closures.get(from);
+        }
+
+        int middle = (from + to) >>> 1;
+        Closure first = sequence(closures, from, middle);
+        Closure second = sequence(closures, middle, to);
+
+        return (stack, variables, interpreter, indicator) -> {
+            first.execute(stack, variables, interpreter, indicator);
+            second.execute(stack, variables, interpreter, indicator);
+        };
+    }
+
+    /**
+     * This method gives you the closure of the given function, which is linked if it hasn't been linked yet
+     * @param function the function to link
+     * @return the closure of the function
+     */
+    private Closure function(Function function){
+        Closure closure = functions.get(function);
+
+        if(closure == null){
+            closure = link(function.getInstructions());
+            functions.put(function, closure);
+        }
+
+        return closure;
+    }
+
+    private Closure link(Operation op){
+        final int index = op.getIndex();
+
+        if(op instanceof IntegerValueOperation){
+            final int value = ((IntegerValueOperation) op).getValue();
+            return (stack, variables, interpreter, indicator) -> stack.pushInteger(value);
+        }else if(op instanceof CharacterValueOperation){
+            final int value = ((CharacterValueOperation) op).getValue();
+            return (stack, variables, interpreter, indicator) -> stack.pushInteger(value);
+        }else if(op instanceof VariableAdressOperation){
+            final char adress = ((VariableAdressOperation) op).getVariableAdress();
+            return (stack, variables, interpreter, indicator) -> stack.pushVariable(adress);
+        }else if(op instanceof LambdaFunctionOperation){
+            final Function function = ((LambdaFunctionOperation) op).getFunction();
+
+//          the function is linked right away, so that it can be executed without linking it when it is called
+            function(function);
+            return (stack, variables, interpreter, indicator) -> stack.pushFunction(function);
+        }else if(op instanceof LoadVariableOperation){
+            final int slot = ((LoadVariableOperation) op).getSlot();
+            return (stack, variables, interpreter, indicator) -> variables.load(slot, stack);
+        }else if(op instanceof StoreVariableOperation){
+            final int slot = ((StoreVariableOperation) op).getSlot();
+            return (stack, variables, interpreter, indicator) -> {
+                requireSize(stack, 1, index);
+                variables.store(slot, stack, 0);
+                stack.drop(1);
+            };
+        }else if(op instanceof AddConstantOperation){
+            final int constant = ((AddConstantOperation) op).getConstant();
+            return (stack, variables, interpreter, indicator) -> {
+                requireSize(stack, 1, index);
+                int n = stack.getInteger(0, index);
+
+                stack.drop(1);
+                stack.pushInteger(n + constant);
+            };
+        }else if(op instanceof CompareZeroOperation){
+            if(((CompareZeroOperation) op).isGreater()){
+                return (stack, variables, interpreter, indicator) -> {
+                    requireSize(stack, 1, index);
+                    int n = stack.getInteger(0, index);
+
+                    stack.drop(1);
+                    stack.pushInteger(truthValue(n > 0));
+                };
+            }
+
+            return (stack, variables, interpreter, indicator) -> {
+                requireSize(stack, 1, index);
+                int n = stack.getInteger(0, index);
+
+                stack.drop(1);
+                stack.pushInteger(truthValue(n == 0));
+            };
+        }else if(op instanceof AddOperation){
+            return (stack, variables, interpreter, indicator) -> {
+                requireSize(stack, 2, index);
+                int n1 = stack.getInteger(1, index);
+                int n2 = stack.getInteger(0, index);
+
+                stack.drop(2);
+                stack.pushInteger(n1 + n2);
+            };
+        }else if(op instanceof SubtractOperation){
+            return (stack, variables, interpreter, indicator) -> {
+                requireSize(stack, 2, index);
+                int n1 = stack.getInteger(1, index);
+                int n2 = stack.getInteger(0, index);
+
+                stack.drop(2);
+                stack.pushInteger(n1 - n2);
+            };
+        }else if(op instanceof MultiplyOperation){
+            return (stack, variables, interpreter, indicator) -> {
+                requireSize(stack, 2, index);
+                int n1 = stack.getInteger(1, index);
+                int n2 = stack.getInteger(0, index);
+
+                stack.drop(2);
+                stack.pushInteger(n1 * n2);
+            };
+        }else if(op instanceof DivideOperation){
+            return (stack, variables, interpreter, indicator) -> {
+                requireSize(stack, 2, index);
+                int n1 = stack.getInteger(1, index);
+                int n2 = stack.getInteger(0, index);
+
+                if(n2 == 0){
+                    throw new DivideByZeroInterpretError("Cannot divide by zero!\nOccured at instruction number " + index);
+                }
+
+                stack.drop(2);
+                stack.pushInteger(n1 / n2);
+            };
+        }else if(op instanceof EqualsOperation){
+            return (stack, variables, interpreter, indicator) -> {
+                requireSize(stack, 2, index);
+                int n1 = stack.getInteger(1, index);
+                int n2 = stack.getInteger(0, index);
+
+                stack.drop(2);
+                stack.pushInteger(truthValue(n1 == n2));
+            };
+        }else if(op instanceof GreaterThanOperation){
+            return (stack, variables, interpreter, indicator) -> {
+                requireSize(stack, 2, index);
+                int n1 = stack.getInteger(1, index);
+                int n2 = stack.getInteger(0, index);
+
+                stack.drop(2);
+                stack.pushInteger(truthValue(n1 > n2));
+            };
+        }else if(op instanceof InlineCallOperation){
+            return function(((InlineCallOperation) op).getFunction());
+        }else if(op instanceof ConditionalCallOperation){
+            final Closure function = function(((ConditionalCallOperation) op).getFunction());
+            return (stack, variables, interpreter, indicator) -> {
+                requireSize(stack, 1, index);
+                boolean bool = stack.getBoolean(0, index);
+
+                stack.drop(1);
+
+                if(bool){
+                    function.execute(stack, variables, interpreter, indicator);
+                }
+            };
+        }else if(op instanceof ExecutionOperation){
+            return (stack, variables, interpreter, indicator) -> {
+                requireSize(stack, 1, index);
+                Function function = stack.getFunction(0, index);
+
+                stack.drop(1);
+                call(function, stack, variables, interpreter, indicator);
+            };
+        }else if(op instanceof IfOperation){
+            return (stack, variables, interpreter, indicator) -> {
+                requireSize(stack, 2, index);
+                boolean bool = stack.getBoolean(1, index);
+                Function function = stack.getFunction(0, index);
+
+                stack.drop(2);
+
+                if(bool){
+                    call(function, stack, variables, interpreter, indicator);
+                }
+            };
+        }else if(op instanceof WhileOperation){
+            return (stack, variables, interpreter, indicator) -> {
+                requireSize(stack, 2, index);
+                Function condition = stack.getFunction(1, index);
+                Function body = stack.getFunction(0, index);
+
+                stack.drop(2);
+                loop(closure(condition), closure(body), index, stack, variables, interpreter, indicator);
+            };
+        }else{
+//          any other operation is simply operated by its closure
+            return op::operate;
+        }
+    }
+
+    /**
+     * This method links a while-loop with the given condition and body.
+     */
+    private static Closure loop(Closure condition, Closure body, int index){
+        return (stack, variables, interpreter, indicator) -> loop(condition, body, index, stack, variables, interpreter, indicator);
+    }
+
+    /**
+     * This method executes a while-loop with the given condition and body.
+     * The condition and the body have to be checked beforehand.
+     */
+    private static void loop(Closure condition, Closure body, int index, OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+            throws InterpretError {
+
+        for(;;){
+            condition.execute(stack, variables, interpreter, indicator);
+
+            requireSize(stack, 1, index);
+            boolean loop = stack.getBoolean(0, index);
+            stack.drop(1);
+
+            if(!loop){
+                break;
+            }
+
+            body.execute(stack, variables, interpreter, indicator);
+        }
+    }
+
+    /**
+     * This method executes the given function, which has been taken from the stack
+     */
+    private void call(Function function, OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+            throws InterpretError {
+
+        closure(function).execute(stack, variables, interpreter, indicator);
+    }
+
+    /**
+     * This method gives you the closure of a function that has been taken from the stack.
+     * Functions that are not part of the program (and thus haven't been linked) are simply operated.
+     */
+    private Closure closure(Function function){
+        Closure closure = functions.get(function);
+        return (closure != null)? closure: function::operate;
+    }
+
+    private static void requireSize(OperandStack stack, int size, int index) throws EmptyStackInterpretError {
+        if(stack.size() < size){
+            throw new EmptyStackInterpretError(index);
+        }
+    }
+
+    private static int truthValue(boolean value){
+        return value? FalseLanguageDefinition.TRUE: FalseLanguageDefinition.FALSE;
+    }
+}
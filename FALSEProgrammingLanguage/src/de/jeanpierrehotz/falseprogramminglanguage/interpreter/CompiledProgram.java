@@ -0,0 +1,137 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.interpreter;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.FalseProgram;
+
+import java.io.InputStream;
+import java.io.PrintStream;
+
+/**
+ * This class resembles the compiled code of a {@link FalseProgram}, which can be shared by any amount of
+ * {@link FalseInterpreter}s executing the program at the same time on different threads.<br>
+ * Everything that changes while a program is executed (its stack, its variables, its in- and output and any engine
+ * that rewrites itself, like the {@link de.jeanpierrehotz.falseprogramminglanguage.interpreter.specializing.SpecializingInterpreter})
+ * belongs to the interpreter, which is the context of a single execution, whereas this class only contains
+ * code that is never changed once it has been compiled:
+ * <ul>
+ * <li>the operations of the program, which mustn't be changed after this object has been created; since they are
+ * only referenced by a final field they are safely published to any thread using this object</li>
+ * <li>the {@link BytecodeProgram}, the {@link JitProgram} and the {@link ClosureProgram} of the program, which are
+ * compiled once they are needed for the first time and published by volatile fields</li>
+ * </ul>
+ * Thus executing a program never needs any locks; only compiling it for the first time does.
+ */
+public final class CompiledProgram {
+
+    private final FalseProgram program;
+
+    private volatile BytecodeProgram bytecode;
+    private volatile JitProgram jit;
+    private volatile boolean jitFailed;
+    private volatile ClosureProgram closures;
+
+    /**
+     * This constructor creates the compiled code of the given program.
+     * The program mustn't be changed afterwards.
+     * @param program the program to share
+     */
+    public CompiledProgram(FalseProgram program){
+        if(program == null){
+            throw new NullPointerException("The program mustn't be null!");
+        }
+
+        this.program = program;
+    }
+
+    /**
+     * This method creates a new interpreter executing this program with the given streams
+     * @param outStream the output stream to use with the program
+     * @param inStream the input stream to use with the program
+     * @return the interpreter, which is the context of an execution of this program
+     */
+    public FalseInterpreter newInterpreter(PrintStream outStream, InputStream inStream){
+        return new FalseInterpreter(this, outStream, inStream);
+    }
+
+    public FalseProgram getProgram(){
+        return program;
+    }
+
+    /**
+     * This method gives you the program lowered by the {@link BytecodeCompiler}, which is lowered if it hasn't been yet
+     * @return the byte code of the program
+     */
+    public BytecodeProgram getBytecode(){
+        BytecodeProgram result = bytecode;
+
+        if(result == null){
+            synchronized(this){
+                result = bytecode;
+
+                if(result == null){
+                    bytecode = result = BytecodeCompiler.compile(program);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * This method gives you the program compiled by the {@link JitCompiler}, which is compiled if it hasn't been yet
+     * @return the compiled program; {@code null} if the program cannot be compiled
+     */
+    public JitProgram getJit(){
+        JitProgram result = jit;
+
+        if(result == null && !jitFailed){
+            synchronized(this){
+                result = jit;
+
+                if(result == null && !jitFailed){
+                    try{
+                        jit = result = JitCompiler.compile(program);
+                    }catch(IllegalStateException exc){
+                        jitFailed = true;
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * This method gives you the program linked by the {@link ClosureCompiler}, which is linked if it hasn't been yet
+     * @return the closures of the program
+     */
+    public ClosureProgram getClosures(){
+        ClosureProgram result = closures;
+
+        if(result == null){
+            synchronized(this){
+                result = closures;
+
+                if(result == null){
+                    closures = result = ClosureCompiler.compile(program);
+                }
+            }
+        }
+
+        return result;
+    }
+}
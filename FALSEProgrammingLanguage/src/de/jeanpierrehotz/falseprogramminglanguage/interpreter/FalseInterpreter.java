@@ -17,30 +17,71 @@ package de.jeanpierrehotz.falseprogramminglanguage.interpreter;
 
 import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
 import de.jeanpierrehotz.falseprogramminglanguage.data.FalseProgram;
-import de.jeanpierrehotz.falseprogramminglanguage.data.StackMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
 import de.jeanpierrehotz.falseprogramminglanguage.data.StandardInOutPutCompat;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations.Function;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.InstructionBudgetExceededInterpretError;
 import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.interpreter.specializing.SpecializingInterpreter;
 
 import java.io.*;
-import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.CRC32;
 
 /**
  *
- * @author Admin
+ * @author Admin<br>
+ * <br>
+ * This class executes a FALSE program; every interpreter is the context of the executions of a program, which
+ * contains their stack, their variables and their in- and output. The compiled code of the program is kept in a
+ * {@link CompiledProgram}, which may be shared by any amount of interpreters executing it concurrently on different threads.
+ * An interpreter itself though may only be used by one thread at a time.
  */
 public class FalseInterpreter {
 
+    /**
+     * The first bytes of every checkpoint
+     */
+    private static final int CHECKPOINT_MAGIC = 0x46414C53;
+    /**
+     * The version of the format of the checkpoints
+     */
+    private static final byte CHECKPOINT_VERSION = 2;
+
     private StandardInOutPutCompat stdinout;
 
-    private StackMemory<Object> stack;
-    private HashMap<Character, Object> variables;
+    private OperandStack stack;
+    private VariableMemory variables;
 
     private ExecutionAbortIndicator indicator;
 
     private FalseProgramExecutionListener programExecutionListener;
 
+    private CompiledProgram compiledProgram;
     private FalseProgram program;
 
+    private ExecutionEngine executionEngine;
+    private SpecializingInterpreter specializing;
+    private FrameInterpreter frames;
+
+    /**
+     * The maximum amount of instructions a single execution may take; any negative value for no limit
+     */
+    private long instructionBudget;
+    /**
+     * The amount of instructions the current execution may still take
+     */
+    private long remainingBudget;
+    /**
+     * Whether an execution has been suspended by {@link #executeSlice(long)}
+     */
+    private boolean suspended;
+    /**
+     * The amount of instructions the last execution has taken; {@code -1} if they haven't been counted
+     */
+    private long executedInstructions;
+
     private boolean printStack;
     private boolean printVariables;
 
@@ -60,6 +101,18 @@ public class FalseInterpreter {
         return printVariables;
     }
 
+    /**
+     * This method sets the engine that is used to execute the program.
+     * @param executionEngine the engine to execute the program with
+     */
+    public void setExecutionEngine(ExecutionEngine executionEngine){
+        this.executionEngine = executionEngine;
+    }
+
+    public ExecutionEngine getExecutionEngine(){
+        return executionEngine;
+    }
+
     public FalseInterpreter(FalseProgram program){
         this(program, System.out, System.in);
     }
@@ -69,36 +122,476 @@ public class FalseInterpreter {
     }
 
     public FalseInterpreter(FalseProgram program, PrintStream outStream, InputStream inStream){
+        this(new CompiledProgram(program), outStream, inStream);
+    }
+
+    public FalseInterpreter(CompiledProgram compiledProgram){
+        this(compiledProgram, System.out, System.in);
+    }
+
+    /**
+     * This constructor creates a new context to execute the given compiled program with the given streams
+     * @param compiledProgram the compiled program, which may be shared with other interpreters
+     * @param outStream the output stream to use with the program
+     * @param inStream the input stream to use with the program
+     */
+    public FalseInterpreter(CompiledProgram compiledProgram, PrintStream outStream, InputStream inStream){
         this.stdinout = new StandardInOutPutCompat(inStream, outStream);
 
-        this.program = program;
+        this.compiledProgram = compiledProgram;
+        this.program = compiledProgram.getProgram();
 
-        this.stack = new StackMemory<>();
-        this.variables = new HashMap<>();
+        this.stack = new OperandStack();
+        this.variables = new VariableMemory();
 
         this.printStack = false;
         this.printVariables = false;
 
+        this.executionEngine = ExecutionEngine.TREE_WALKER;
+        this.instructionBudget = -1;
+        this.suspended = false;
+        this.executedInstructions = -1;
+
         this.indicator = new ExecutionAbortIndicator();
     }
 
+    /**
+     * This method prepares this interpreter for another execution of its program with the given streams.
+     * The stack, the variables, any suspended execution and whether the program is to be aborted are reset in place,
+     * whereas the settings and anything this interpreter has built for the program (like the nodes of the
+     * {@link SpecializingInterpreter}) are kept. Thus reusing an interpreter (e.g. with a {@link FalseInterpreterPool})
+     * allocates hardly anything.<br>
+     * The program mustn't be executed while the interpreter is reset.
+     * @param outStream the output stream to use with the program
+     * @param inStream the input stream to use with the program
+     */
+    public void reset(PrintStream outStream, InputStream inStream){
+        this.stdinout.rebind(inStream, outStream);
+
+        this.stack.clear();
+        this.variables.clear();
+
+        this.indicator.reset();
+
+        if(frames != null){
+            frames.clear();
+        }
+        this.suspended = false;
+        this.executedInstructions = -1;
+    }
+
+    public CompiledProgram getCompiledProgram(){
+        return compiledProgram;
+    }
+
     public StandardInOutPutCompat getStdInOut(){
         return stdinout;
     }
 
     public void execute() throws InterpretError {
+        if(suspended){
+            throw new IllegalStateException("The program is suspended and can only be resumed by executeSlice(long)!");
+        }
+
         if(this.programExecutionListener != null){
             this.programExecutionListener.executionStarted();
         }
 
         InterpretError caughtError = null;
 
+//      the thread is registered, so that it can be interrupted if it is blocked while reading input
+        indicator.setExecutingThread(Thread.currentThread());
+
         try {
-            executeInternal();
+            executedInstructions = -1;
+
+            if(instructionBudget >= 0){
+                executeFrames();
+            }else{
+                executeInternal();
+            }
         }catch(InterpretError error){
             caughtError = error;
+        }finally{
+            releaseThread();
         }
 
+        executionEnded(caughtError);
+    }
+
+    /**
+     * This method executes the program on a new thread.<br>
+     * If the JVM supports virtual threads the program is executed on a virtual thread, so that a program
+     * waiting for input doesn't hold an OS thread and any amount of programs may wait for input at once.
+     * Otherwise it is executed on a new daemon thread.
+     * @return the future that is completed with this interpreter once the program has finished,
+     *         or exceptionally with the error that has occurred while executing it
+     */
+    public CompletableFuture<FalseInterpreter> executeAsync(){
+        CompletableFuture<FalseInterpreter> result = new CompletableFuture<>();
+
+        VirtualThreads.newThread("FALSE-program", () -> {
+            try{
+                execute();
+                result.complete(this);
+            }catch(InterpretError | RuntimeException | Error error){
+                result.completeExceptionally(error);
+            }
+        }).start();
+
+        return result;
+    }
+
+    /**
+     * This method executes the program for at most the given amount of instructions.<br>
+     * If the program hasn't finished afterwards it is suspended and the next call of this method resumes it
+     * with its stack and variables intact, so that a single thread may execute several programs by turns.
+     * A program is suspended as well, if it wants to read input that isn't available yet (see {@link #isWaitingForInput()}),
+     * so that it never blocks the thread executing it.
+     * Since only the {@link FrameInterpreter} can suspend a program, the program is always executed by it.
+     * @param instructions the maximum amount of instructions to execute
+     * @return whether the program has finished
+     * @throws InterpretError if there is an determined error while executing the program
+     */
+    public boolean executeSlice(long instructions) throws InterpretError {
+        if(!suspended){
+            if(this.programExecutionListener != null){
+                this.programExecutionListener.executionStarted();
+            }
+
+            frameInterpreter().start();
+            remainingBudget = instructionBudget;
+            executedInstructions = 0;
+        }
+
+        InterpretError caughtError = null;
+        boolean finished = true;
+        suspended = false;
+
+        indicator.setExecutingThread(Thread.currentThread());
+
+        try {
+            finished = resumeFrames(instructions, true);
+        }catch(InterpretError error){
+            caughtError = error;
+        }finally{
+            releaseThread();
+        }
+
+        suspended = !finished;
+
+        if(finished){
+            executionEnded(caughtError);
+        }
+
+        return finished;
+    }
+
+    /**
+     * This method writes the state of the suspended execution to the given file (see {@link #saveCheckpoint(OutputStream)}).
+     * @param file the file to write the checkpoint to
+     * @throws IOException if the checkpoint cannot be written
+     */
+    public void saveCheckpoint(String file) throws IOException {
+        try(OutputStream outStream = new BufferedOutputStream(new FileOutputStream(file))){
+            saveCheckpoint(outStream);
+        }
+    }
+
+    /**
+     * This method writes the state of the suspended execution to the given stream, so that the execution
+     * can be continued later on (even by another JVM) by {@link #loadCheckpoint(InputStream)}.<br>
+     * The state consists of the stack, the variables, the frames of the {@link FrameInterpreter} with their
+     * program counters, the input that has been read but not consumed yet and the instructions that have been executed
+     * (and may still be executed). Functions are referred to by their ids inside the {@link BytecodeProgram},
+     * and the checkpoint contains a checksum of the program, so that it is only restored for the same program.
+     * @param outStream the stream to write the checkpoint to
+     * @throws IOException if the checkpoint cannot be written
+     * @throws IllegalStateException if the program hasn't been suspended by {@link #executeSlice(long)}
+     */
+    public void saveCheckpoint(OutputStream outStream) throws IOException {
+        if(!suspended){
+            throw new IllegalStateException("Only a program that has been suspended by executeSlice(long) can be checkpointed!");
+        }
+
+        BytecodeProgram bytecode = compiledProgram.getBytecode();
+        DataOutputStream out = new DataOutputStream(outStream);
+
+        out.writeInt(CHECKPOINT_MAGIC);
+        out.writeByte(CHECKPOINT_VERSION);
+        out.writeLong(checksum());
+
+        out.writeLong(executedInstructions);
+        out.writeLong(remainingBudget);
+
+//      the stack is written from its bottom to its top
+        out.writeInt(stack.size());
+        for(int depth = stack.size() - 1; depth >= 0; depth--){
+            writeItem(out, stack.getType(depth), stack.getValue(depth), stack.getFunctionReference(depth), bytecode);
+        }
+
+        for(int slot = 0; slot < VariableMemory.VARIABLE_COUNT; slot++){
+            writeItem(out, variables.getType(slot), variables.getValue(slot), variables.getFunctionReference(slot), bytecode);
+        }
+
+        frames.writeFrames(out, bytecode);
+        stdinout.writeInput(out);
+        out.flush();
+    }
+
+    /**
+     * This method restores the execution that has been written to the given file (see {@link #loadCheckpoint(InputStream)}).
+     * @param file the file to read the checkpoint from
+     * @throws IOException if the checkpoint cannot be read
+     */
+    public void loadCheckpoint(String file) throws IOException {
+        try(InputStream inStream = new BufferedInputStream(new FileInputStream(file))){
+            loadCheckpoint(inStream);
+        }
+    }
+
+    /**
+     * This method restores the execution that has been written to the given stream by {@link #saveCheckpoint(OutputStream)},
+     * replacing the current state of this interpreter. Afterwards the program is suspended
+     * and is continued by {@link #executeSlice(long)}.
+     * @param inStream the stream to read the checkpoint from
+     * @throws IOException if the checkpoint cannot be read, has been illegaly changed or belongs to another program
+     */
+    public void loadCheckpoint(InputStream inStream) throws IOException {
+        BytecodeProgram bytecode = compiledProgram.getBytecode();
+        DataInputStream in = new DataInputStream(inStream);
+
+        if(in.readInt() != CHECKPOINT_MAGIC || in.readByte() != CHECKPOINT_VERSION){
+            throw new IOException("The checkpoint has been illegaly changed!");
+        }
+        if(in.readLong() != checksum()){
+            throw new IOException("The checkpoint belongs to another program!");
+        }
+
+        long executed = in.readLong();
+        long remaining = in.readLong();
+
+        stack.clear();
+        int size = in.readInt();
+        for(int i = 0; i < size; i++){
+            byte type = in.readByte();
+            int value = readValue(in, type, false);
+
+            stack.push(type, value, functionOf(type, value, bytecode));
+        }
+
+        for(int slot = 0; slot < VariableMemory.VARIABLE_COUNT; slot++){
+            byte type = in.readByte();
+            int value = readValue(in, type, true);
+
+            variables.store(slot, type, value, functionOf(type, value, bytecode));
+        }
+
+        frameInterpreter().readFrames(in, bytecode);
+        stdinout.readInput(in);
+        executedInstructions = executed;
+        remainingBudget = remaining;
+        suspended = frames.isSuspended();
+    }
+
+    /**
+     * This method writes a single item of the stack or the variables; functions are written as their id
+     */
+    private void writeItem(DataOutputStream out, byte type, int value, Function function, BytecodeProgram bytecode) throws IOException {
+        out.writeByte(type);
+
+        if(type == OperandStack.TYPE_FUNCTION){
+            int id = bytecode.getFunctionId(function);
+
+            if(id < 0){
+                throw new IllegalStateException("The function " + function + " is not part of the program!");
+            }
+
+            out.writeInt(id);
+        }else if(type == OperandStack.TYPE_INTEGER || type == OperandStack.TYPE_VARIABLE){
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * This method reads the value of a single item with the given type (as written by {@link #writeItem(DataOutputStream, byte, int, Function, BytecodeProgram)})
+     * @param variable whether the item is a variable, which may also be {@link VariableMemory#NOT_ASSIGNED}
+     * @throws IOException if the value cannot be read or the type is invalid
+     */
+    private int readValue(DataInputStream in, byte type, boolean variable) throws IOException {
+        switch(type){
+            case OperandStack.TYPE_INTEGER:
+            case OperandStack.TYPE_VARIABLE:
+            case OperandStack.TYPE_FUNCTION:
+                return in.readInt();
+            case OperandStack.TYPE_UNDEFINED:
+                return 0;
+            case VariableMemory.NOT_ASSIGNED:
+                if(variable){
+                    return 0;
+                }
+                break;
+        }
+
+        throw new IOException("The checkpoint has been illegaly changed!");
+    }
+
+    /**
+     * This method gives you the function referenced by an item that has been read
+     * @return the function with the value of the item as id; {@code null} if the item is no function
+     */
+    private Function functionOf(byte type, int value, BytecodeProgram bytecode) throws IOException {
+        if(type != OperandStack.TYPE_FUNCTION){
+            return null;
+        }else if(value < 0 || value >= bytecode.getFunctions().length){
+            throw new IOException("The checkpoint has been illegaly changed!");
+        }
+
+        return bytecode.getFunctions()[value];
+    }
+
+    /**
+     * This method gives you a checksum of the byte code of the program, which identifies the program inside a checkpoint
+     * @return the checksum of the program
+     */
+    private long checksum(){
+        CRC32 crc = new CRC32();
+        crc.update(program.toPrimitiveByteArray());
+        return crc.getValue();
+    }
+
+    /**
+     * This method determines whether the program has been suspended by {@link #executeSlice(long)}
+     * @return whether the program is suspended
+     */
+    public boolean isSuspended(){
+        return suspended;
+    }
+
+    /**
+     * This method determines whether the program has been suspended by {@link #executeSlice(long)}, since it waits for input
+     * @return whether the suspended program waits for input
+     */
+    public boolean isWaitingForInput(){
+        return suspended && frames.isWaitingForInput();
+    }
+
+    /**
+     * This method determines whether resuming the suspended program by {@link #executeSlice(long)} can make any progress,
+     * which is the case unless the program waits for input that still isn't available.
+     * @return whether the suspended program can be resumed without waiting
+     */
+    public boolean isReadyToResume(){
+        return !isWaitingForInput() || indicator.isToBeAborted() || stdinout.isInputReady();
+    }
+
+    /**
+     * This method blocks until the suspended program, which waits for input, can be resumed by {@link #executeSlice(long)}
+     * without waiting (see {@link StandardInOutPutCompat#awaitInput()}).
+     * If the program is aborted meanwhile, the waiting thread is interrupted just like a thread executing the program.
+     */
+    public void awaitInput(){
+        if(!isWaitingForInput()){
+            return;
+        }
+
+        indicator.setExecutingThread(Thread.currentThread());
+
+        try{
+            if(!indicator.isToBeAborted()){
+                stdinout.awaitInput();
+            }
+        }finally{
+            releaseThread();
+        }
+    }
+
+    /**
+     * This method sets the maximum amount of instructions a single execution of the program may take.
+     * If the program exceeds its budget an {@link InstructionBudgetExceededInterpretError} is thrown.
+     * Since only the {@link FrameInterpreter} counts the instructions it executes,
+     * a program with a budget is always executed by it.
+     * @param instructionBudget the maximum amount of instructions; any negative value for no limit
+     */
+    public void setInstructionBudget(long instructionBudget){
+        this.instructionBudget = instructionBudget;
+    }
+
+    public long getInstructionBudget(){
+        return instructionBudget;
+    }
+
+    /**
+     * This method gives you the amount of instructions the last (or current) execution of the program has taken.
+     * Since only the {@link FrameInterpreter} counts the instructions it executes, they are only counted
+     * if the program is executed by {@link ExecutionEngine#FRAMES}, with an instruction budget or in slices.
+     * @return the amount of executed instructions; {@code -1} if they haven't been counted
+     */
+    public long getExecutedInstructions(){
+        return executedInstructions;
+    }
+
+    /**
+     * This method executes the whole program on the frame interpreter, counting the instructions it executes
+     * @throws InterpretError if there is an determined error while executing the program
+     */
+    private void executeFrames() throws InterpretError {
+        frameInterpreter().start();
+        remainingBudget = instructionBudget;
+        executedInstructions = 0;
+
+        resumeFrames(Long.MAX_VALUE, false);
+    }
+
+    /**
+     * This method resumes the frame interpreter for at most the given amount of instructions and the remaining budget
+     * @param instructions the maximum amount of instructions to execute
+     * @param suspendOnInput whether the program is to be suspended instead of blocking while it waits for input
+     * @return whether the program has finished
+     * @throws InterpretError if there is an determined error while executing the program
+     */
+    private boolean resumeFrames(long instructions, boolean suspendOnInput) throws InterpretError {
+        long slice = (remainingBudget >= 0)? Math.min(instructions, remainingBudget): instructions;
+
+        boolean finished;
+
+        try{
+            finished = frames.resume(stack, variables, this, indicator, slice, suspendOnInput);
+        }finally{
+            long executed = slice - frames.getRemainingInstructions();
+
+            executedInstructions += executed;
+            if(remainingBudget >= 0){
+                remainingBudget -= executed;
+            }
+        }
+
+        if(!finished && remainingBudget == 0 && !frames.isWaitingForInput()){
+            frames.clear();
+            throw new InstructionBudgetExceededInterpretError(instructionBudget);
+        }
+
+        return finished;
+    }
+
+    private FrameInterpreter frameInterpreter(){
+        if(frames == null){
+            frames = new FrameInterpreter(program);
+        }
+
+        return frames;
+    }
+
+    private void releaseThread(){
+        indicator.setExecutingThread(null);
+
+//      an interrupt caused by aborting the program mustn't affect anything the thread does afterwards
+        if(indicator.isToBeAborted()){
+            Thread.interrupted();
+        }
+    }
+
+    private void executionEnded(InterpretError caughtError) throws InterpretError {
         if(this.programExecutionListener != null){
             this.programExecutionListener.executionEnded();
         }
@@ -109,7 +602,51 @@ public class FalseInterpreter {
     }
 
     private void executeInternal() throws InterpretError {
-        program.operate(stack, variables, this, indicator);
+        switch(executionEngine){
+            case BYTECODE:
+                new BytecodeInterpreter(compiledProgram.getBytecode()).execute(stack, variables, this, indicator);
+                break;
+            case JIT:
+//              the compiled code doesn't print the stack and the variables, so if they are to be printed
+//              (or the program cannot be compiled) we'll simply fall back to the tree walker
+                JitProgram jit = (printStack || printVariables)? null: compiledProgram.getJit();
+
+                if(jit != null){
+                    jit.execute(stack, variables, this, indicator);
+                }else{
+                    program.operate(stack, variables, this, indicator);
+                }
+                break;
+            case SPECIALIZING:
+//              the nodes don't print the stack and the variables, so if they are to be printed we'll use the tree walker
+                if(printStack || printVariables){
+                    program.operate(stack, variables, this, indicator);
+                    break;
+                }
+
+                if(specializing == null){
+                    specializing = new SpecializingInterpreter(program);
+                }
+
+                specializing.execute(stack, variables, this, indicator);
+                break;
+            case CLOSURE:
+//              the closures don't print the stack and the variables, so if they are to be printed we'll use the tree walker
+                if(printStack || printVariables){
+                    program.operate(stack, variables, this, indicator);
+                    break;
+                }
+
+                compiledProgram.getClosures().execute(stack, variables, this, indicator);
+                break;
+            case FRAMES:
+                executeFrames();
+                break;
+            case TREE_WALKER:
+            default:
+                program.operate(stack, variables, this, indicator);
+                break;
+        }
     }
 
     public void abortExecution(){
@@ -121,4 +658,37 @@ public class FalseInterpreter {
         void executionEnded();
     }
 
+    /**
+     * The engines a {@link FalseProgram} can be executed with
+     */
+    public enum ExecutionEngine{
+        /**
+         * Executes the program by recursively operating every {@link de.jeanpierrehotz.falseprogramminglanguage.data.Operation}
+         */
+        TREE_WALKER,
+        /**
+         * Executes the program by lowering it into a {@link BytecodeProgram}, which is executed by a {@link BytecodeInterpreter}
+         */
+        BYTECODE,
+        /**
+         * Executes the program by compiling it into a hidden JVM class with the {@link JitCompiler}
+         */
+        JIT,
+        /**
+         * Executes the program as a tree of nodes that specialize themselves for the operands they observe
+         * (see {@link SpecializingInterpreter})
+         */
+        SPECIALIZING,
+        /**
+         * Executes the program by linking it into a tree of closures with the {@link ClosureCompiler}
+         */
+        CLOSURE,
+        /**
+         * Executes the program on an explicit stack of call frames (see {@link FrameInterpreter}),
+         * so that the depth of recursion is only limited by the available memory.
+         * This engine is also used for any program with an instruction budget or executed in slices.
+         */
+        FRAMES
+    }
+
 }
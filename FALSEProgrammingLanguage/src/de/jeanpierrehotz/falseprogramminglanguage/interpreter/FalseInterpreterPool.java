@@ -0,0 +1,141 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.interpreter;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.FalseProgram;
+
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * This class keeps the interpreters of a compiled program that aren't used at the moment, so that they can be reused
+ * instead of creating a new interpreter for every execution of the program.<br>
+ * An interpreter is taken from the pool by {@link #acquire(PrintStream, InputStream)}, which resets it in place
+ * (see {@link FalseInterpreter#reset(PrintStream, InputStream)}), and given back by {@link #release(FalseInterpreter)}
+ * once the program has been executed. Only if there is no idle interpreter a new one is created, and at most
+ * as many interpreters as the capacity of the pool are kept; thus executing short programs over and over again
+ * allocates hardly anything. The pool may be used by any amount of threads at once.
+ */
+public class FalseInterpreterPool {
+
+    /**
+     * The default amount of idle interpreters a pool keeps
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private final CompiledProgram program;
+
+    /**
+     * The interpreters that aren't used at the moment
+     */
+    private final ArrayBlockingQueue<FalseInterpreter> idleInterpreters;
+
+    private volatile FalseInterpreter.ExecutionEngine executionEngine;
+    private volatile long instructionBudget;
+
+    /**
+     * This constructor creates a pool for the given program with the {@link #DEFAULT_CAPACITY}
+     * @param program the program whose interpreters are pooled
+     */
+    public FalseInterpreterPool(FalseProgram program){
+        this(new CompiledProgram(program), DEFAULT_CAPACITY);
+    }
+
+    /**
+     * This constructor creates a pool for the given program
+     * @param program the compiled program whose interpreters are pooled
+     * @param capacity the maximum amount of idle interpreters the pool keeps
+     */
+    public FalseInterpreterPool(CompiledProgram program, int capacity){
+        this.program = program;
+        this.idleInterpreters = new ArrayBlockingQueue<>(capacity);
+
+        this.executionEngine = FalseInterpreter.ExecutionEngine.TREE_WALKER;
+        this.instructionBudget = -1;
+    }
+
+    /**
+     * This method sets the engine every acquired interpreter executes the program with
+     * @param executionEngine the engine to execute the program with
+     */
+    public void setExecutionEngine(FalseInterpreter.ExecutionEngine executionEngine){
+        this.executionEngine = executionEngine;
+    }
+
+    /**
+     * This method sets the instruction budget of every acquired interpreter (see {@link FalseInterpreter#setInstructionBudget(long)})
+     * @param instructionBudget the maximum amount of instructions; any negative value for no limit
+     */
+    public void setInstructionBudget(long instructionBudget){
+        this.instructionBudget = instructionBudget;
+    }
+
+    public CompiledProgram getProgram(){
+        return program;
+    }
+
+    /**
+     * This method gives you an interpreter that is ready to execute the program with the given streams.
+     * The interpreter is reused if there is an idle one, otherwise a new one is created.
+     * @param outStream the output stream to use with the program
+     * @param inStream the input stream to use with the program
+     * @return the interpreter, which should be given back by {@link #release(FalseInterpreter)} once it isn't used anymore
+     */
+    public FalseInterpreter acquire(PrintStream outStream, InputStream inStream){
+        FalseInterpreter interpreter = idleInterpreters.poll();
+
+        if(interpreter == null){
+            interpreter = program.newInterpreter(outStream, inStream);
+        }else{
+            interpreter.reset(outStream, inStream);
+        }
+
+        interpreter.setExecutionEngine(executionEngine);
+        interpreter.setInstructionBudget(instructionBudget);
+
+        return interpreter;
+    }
+
+    /**
+     * This method gives back the given interpreter, so that it can be reused.
+     * The interpreter mustn't be used by the caller afterwards.
+     * @param interpreter the interpreter that isn't used anymore
+     * @throws IllegalArgumentException if the interpreter doesn't execute the program of this pool
+     */
+    public void release(FalseInterpreter interpreter){
+        if(interpreter.getCompiledProgram() != program){
+            throw new IllegalArgumentException("The interpreter doesn't execute the program of this pool!");
+        }
+
+//      the idle interpreter mustn't keep the streams and the listener of its last execution alive
+        interpreter.reset(null, null);
+        interpreter.setFalseProgramExecutionListener(null);
+        interpreter.setPrintStack(false);
+        interpreter.setPrintVariables(false);
+
+//      if the pool is full the interpreter is simply left to the garbage collector
+        idleInterpreters.offer(interpreter);
+    }
+
+    /**
+     * This method gives you the amount of interpreters that are idle at the moment
+     * @return the amount of idle interpreters
+     */
+    public int getIdleCount(){
+        return idleInterpreters.size();
+    }
+}
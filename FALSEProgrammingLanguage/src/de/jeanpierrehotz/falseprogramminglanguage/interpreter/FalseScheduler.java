@@ -0,0 +1,270 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.interpreter;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class executes any amount of {@link FalseInterpreter}s cooperatively on a small, fixed amount of carrier threads.<br>
+ * Every carrier repeatedly takes a program from the run queue and executes it for one time slice
+ * (see {@link FalseInterpreter#executeSlice(long)}). If the program hasn't finished afterwards it is either put back
+ * into the run queue or, if it waits for input, parked until its input is available.
+ * The input of the parked programs is awaited by a fixed amount of input readers (one for every carrier), which put
+ * a program back into the run queue once a whole line or the end of its input has been read, so that reading never
+ * blocks a carrier and an idle carrier simply sleeps until there is a program to execute. If more programs wait
+ * for input than there are input readers, the others wait until a reader is free; thus a program whose input
+ * never arrives (like an interactive console nobody types into) keeps its reader busy. Input readers that have
+ * nothing to wait for are ended.<br>
+ * Thus every program is only a suspended stack of frames while it isn't executed, and there are never more
+ * than twice as many threads as carriers, regardless of how many programs are executed.
+ */
+public class FalseScheduler {
+
+    /**
+     * The amount of instructions a program is executed for, before the next program is executed
+     */
+    public static final long DEFAULT_TIME_SLICE = 10000;
+
+    /**
+     * The amount of seconds an input reader that has nothing to wait for is kept, before it is ended
+     */
+    private static final long INPUT_READER_KEEP_ALIVE_SECONDS = 1;
+
+    private final long timeSlice;
+
+    private final Thread[] carriers;
+
+    /**
+     * The programs that can be executed right away
+     */
+    private final LinkedBlockingQueue<ScheduledProgram> runQueue;
+    /**
+     * The programs that are parked, since they wait for input
+     */
+    private final ConcurrentLinkedQueue<ScheduledProgram> parkedPrograms;
+    /**
+     * The threads awaiting the input of the parked programs
+     */
+    private final ThreadPoolExecutor inputReaders;
+
+    /**
+     * The amount of programs that have been submitted but haven't finished yet
+     */
+    private final AtomicInteger programCount;
+
+    private volatile boolean shutdown;
+
+    /**
+     * This constructor creates a scheduler with the given amount of carrier threads,
+     * which executes programs for {@link #DEFAULT_TIME_SLICE} instructions at once
+     * @param carrierCount the amount of carrier threads
+     */
+    public FalseScheduler(int carrierCount){
+        this(carrierCount, DEFAULT_TIME_SLICE);
+    }
+
+    /**
+     * This constructor creates a scheduler with the given amount of carrier threads
+     * @param carrierCount the amount of carrier threads
+     * @param timeSlice the amount of instructions a program is executed for, before the next program is executed
+     */
+    public FalseScheduler(int carrierCount, long timeSlice){
+        if(carrierCount < 1 || timeSlice < 1){
+            throw new IllegalArgumentException("A scheduler needs at least one carrier and a time slice of at least one instruction!");
+        }
+
+        this.timeSlice = timeSlice;
+
+        this.runQueue = new LinkedBlockingQueue<>();
+        this.parkedPrograms = new ConcurrentLinkedQueue<>();
+        this.programCount = new AtomicInteger(0);
+        this.shutdown = false;
+
+        this.inputReaders = new ThreadPoolExecutor(carrierCount, carrierCount, INPUT_READER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), task -> {
+                    Thread thread = new Thread(task, "FALSE-input");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.inputReaders.allowCoreThreadTimeOut(true);
+
+        this.carriers = new Thread[carrierCount];
+        for(int i = 0; i < carrierCount; i++){
+            carriers[i] = new Thread(this::carry, "FALSE-carrier-" + i);
+            carriers[i].setDaemon(true);
+            carriers[i].start();
+        }
+    }
+
+    /**
+     * This method submits the given interpreter, so that its program is executed by the carriers.<br>
+     * The returned future is completed with the interpreter once the program has finished, or exceptionally
+     * with the error that has occurred while executing it.
+     * The interpreter mustn't be executed by anyone else until the program has finished.
+     * @param interpreter the interpreter whose program is to be executed
+     * @return the future that is completed once the program has finished; it is cancelled if the scheduler
+     *         is shut down before the program has finished
+     */
+    public CompletableFuture<FalseInterpreter> submit(FalseInterpreter interpreter){
+        if(shutdown){
+            throw new IllegalStateException("The scheduler has already been shut down!");
+        }
+
+        ScheduledProgram program = new ScheduledProgram(interpreter);
+
+        programCount.incrementAndGet();
+        schedule(program);
+
+        return program.result;
+    }
+
+    /**
+     * This method gives you the amount of programs that have been submitted but haven't finished yet
+     * @return the amount of unfinished programs
+     */
+    public int getProgramCount(){
+        return programCount.get();
+    }
+
+    /**
+     * This method stops the carriers once they have finished their current time slice.
+     * Any program that hasn't finished yet is cancelled.
+     */
+    public void shutdown(){
+        shutdown = true;
+
+        for(Thread carrier : carriers){
+            carrier.interrupt();
+        }
+
+//      the input readers are interrupted, since the programs they wait for are cancelled anyways
+        inputReaders.shutdownNow();
+    }
+
+    /**
+     * This method is executed by every carrier thread
+     */
+    private void carry(){
+        while(!shutdown){
+            ScheduledProgram program;
+
+            try{
+                program = runQueue.take();
+            }catch(InterruptedException exc){
+//              we are interrupted either by shutting down or by a program that has been aborted just after its slice
+                continue;
+            }
+
+            executeSlice(program);
+        }
+
+        cancel(runQueue);
+        cancel(parkedPrograms);
+    }
+
+    /**
+     * This method executes the given program for one time slice and schedules it according to the result
+     * @param program the program to execute
+     */
+    private void executeSlice(ScheduledProgram program){
+        boolean finished;
+
+        try{
+            finished = program.interpreter.executeSlice(timeSlice);
+        }catch(InterpretError | RuntimeException | Error error){
+            programCount.decrementAndGet();
+            program.result.completeExceptionally(error);
+            return;
+        }
+
+        if(finished){
+            programCount.decrementAndGet();
+            program.result.complete(program.interpreter);
+        }else if(program.interpreter.isWaitingForInput()){
+            park(program);
+        }else{
+            runQueue.add(program);
+        }
+    }
+
+    /**
+     * This method puts the given program into the run queue.
+     * If the scheduler has been shut down meanwhile, the carriers may already have exited, so the program is cancelled instead.
+     * @param program the program to schedule
+     */
+    private void schedule(ScheduledProgram program){
+        runQueue.add(program);
+
+        if(shutdown){
+            cancel(runQueue);
+        }
+    }
+
+    /**
+     * This method parks the given program, which waits for input, until one of the input readers has awaited its input.
+     * Once the input is available (or the program has been aborted) the program is scheduled again,
+     * unless it has been cancelled by shutting down meanwhile.
+     * @param program the program to park
+     */
+    private void park(ScheduledProgram program){
+        parkedPrograms.add(program);
+
+        try{
+            inputReaders.execute(() -> {
+                program.interpreter.awaitInput();
+
+//              whoever removes the program from the parked programs (this reader or a carrier cancelling it) is responsible for it
+                if(parkedPrograms.remove(program)){
+                    schedule(program);
+                }
+            });
+        }catch(RejectedExecutionException exc){
+//          the scheduler has been shut down meanwhile, so the program is cancelled just like every other parked program
+            cancel(parkedPrograms);
+        }
+    }
+
+    private void cancel(Queue<ScheduledProgram> programs){
+        ScheduledProgram program;
+
+        while((program = programs.poll()) != null){
+            programCount.decrementAndGet();
+            program.result.cancel(false);
+        }
+    }
+
+    /**
+     * A program that has been submitted to the scheduler together with the future to complete once it has finished
+     */
+    private static class ScheduledProgram {
+        private final FalseInterpreter interpreter;
+        private final CompletableFuture<FalseInterpreter> result;
+
+        private ScheduledProgram(FalseInterpreter interpreter){
+            this.interpreter = interpreter;
+            this.result = new CompletableFuture<>();
+        }
+    }
+}
@@ -0,0 +1,499 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.interpreter;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
+import de.jeanpierrehotz.falseprogramminglanguage.data.FalseProgram;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.Operation;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.EmptyStackInterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.ExecutionAbortedInterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations.*;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * This class executes the operations of a {@link FalseProgram} just like the tree walker does, but instead of
+ * calling functions recursively on the java stack it keeps every call in a frame on an explicit, growable stack.
+ * Thus the depth of recursion of a program is only limited by the available memory.<br>
+ * Every frame consists of the instructions of the function it executes and its program counter;
+ * frames executing the condition or the body of a while-loop additionally keep the condition, the body and the
+ * index of the while-operation.<br>
+ * Since every frame is kept on the heap, the execution may be suspended after any instruction and resumed later on,
+ * which is used to limit the amount of instructions a program may execute and to execute a program in slices.
+ * A program that is executed in slices is also suspended before flushing (and thereby reading input), if there
+ * is no input to read yet, so that it never blocks the thread executing it.
+ */
+public class FrameInterpreter {
+
+    /**
+     * A frame that executes a function called by the instruction of the frame below it
+     */
+    private static final byte FRAME_CALL = 0;
+    /**
+     * A frame that executes the condition of a while-loop
+     */
+    private static final byte FRAME_LOOP_CONDITION = 1;
+    /**
+     * A frame that executes the body of a while-loop
+     */
+    private static final byte FRAME_LOOP_BODY = 2;
+
+    private FalseProgram program;
+    /**
+     * The instructions of the main program
+     */
+    private Operation[] main;
+
+    /**
+     * The instructions of every function that has been called so far
+     */
+    private IdentityHashMap<Function, Operation[]> functions;
+
+    //
+    // The frames (indexed by their depth, 0 being the frame of the main program):
+    //
+    private Operation[][] frameInstructions;
+    private int[] programCounters;
+    private byte[] frameKinds;
+    private Operation[][] loopConditions;
+    private Operation[][] loopBodies;
+    private int[] loopIndices;
+
+    /**
+     * The amount of frames on the stack
+     */
+    private int frames;
+
+    /**
+     * The amount of instructions the program may still execute, before it is suspended
+     */
+    private long fuel;
+    /**
+     * Whether the program is to be suspended instead of blocking while it waits for input
+     */
+    private boolean suspendOnInput;
+    /**
+     * Whether the program has been suspended, since it waits for input
+     */
+    private boolean waitingForInput;
+
+    public FrameInterpreter(FalseProgram program){
+        this.program = program;
+        this.main = program.getInstructions().toArray(new Operation[program.getInstructions().size()]);
+        this.functions = new IdentityHashMap<>();
+
+        this.frameInstructions = new Operation[16][];
+        this.programCounters = new int[16];
+        this.frameKinds = new byte[16];
+        this.loopConditions = new Operation[16][];
+        this.loopBodies = new Operation[16][];
+        this.loopIndices = new int[16];
+        this.frames = 0;
+    }
+
+    /**
+     * This method executes the program with the given stack, variables and interpreter.
+     * @param stack the current stack of the program
+     * @param variables the current variables available in the program
+     * @param interpreter the interpreter of the program
+     * @param indicator the indicator that shows whether to abort the program or not
+     * @throws InterpretError if there is an determined error while executing the program
+     */
+    public void execute(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+            throws InterpretError {
+
+        start();
+        resume(stack, variables, interpreter, indicator, Long.MAX_VALUE, false);
+    }
+
+    /**
+     * This method begins a new execution of the program, which is executed by {@link #resume(OperandStack, VariableMemory, FalseInterpreter, ExecutionAbortIndicator, long, boolean)}.
+     * Any suspended execution is discarded.
+     */
+    public void start(){
+        clear();
+        addFrame(main, FRAME_CALL, null, null, -1);
+    }
+
+    /**
+     * This method continues the execution of the program for at most the given amount of instructions.
+     * If the program hasn't finished afterwards it is suspended with its frames intact and may be resumed later on.
+     * @param stack the current stack of the program
+     * @param variables the current variables available in the program
+     * @param interpreter the interpreter of the program
+     * @param indicator the indicator that shows whether to abort the program or not
+     * @param instructions the maximum amount of instructions to execute
+     * @param suspendOnInput whether the program is to be suspended instead of blocking, if it wants to read input that isn't available yet
+     * @return whether the program has finished
+     * @throws InterpretError if there is an determined error while executing the program
+     */
+    public boolean resume(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator, long instructions, boolean suspendOnInput)
+            throws InterpretError {
+
+        boolean suspended = false;
+        this.fuel = instructions;
+        this.suspendOnInput = suspendOnInput;
+        this.waitingForInput = false;
+
+        try{
+//          resuming a suspended program is a safepoint as well
+            indicator.poll();
+
+            suspended = !run(stack, variables, interpreter, indicator);
+            return !suspended;
+        }finally{
+            if(!suspended){
+                clear();
+            }
+        }
+    }
+
+    /**
+     * This method determines whether there is a suspended execution, which can be resumed
+     * @return whether there is a suspended execution
+     */
+    public boolean isSuspended(){
+        return frames > 0;
+    }
+
+    /**
+     * This method determines whether the program has lastly been suspended, since it waits for input
+     * @return whether the suspended program waits for input
+     */
+    public boolean isWaitingForInput(){
+        return waitingForInput && frames > 0;
+    }
+
+    /**
+     * This method gives you the amount of instructions that were left when the program has lastly been suspended or has finished
+     * @return the amount of instructions that have not been used by the last call of
+     *         {@link #resume(OperandStack, VariableMemory, FalseInterpreter, ExecutionAbortIndicator, long, boolean)}
+     */
+    public long getRemainingInstructions(){
+        return fuel;
+    }
+
+    /**
+     * This method discards any suspended execution by removing every frame, so that they don't keep any functions alive
+     */
+    public void clear(){
+        Arrays.fill(frameInstructions, 0, frames, null);
+        Arrays.fill(loopConditions, 0, frames, null);
+        Arrays.fill(loopBodies, 0, frames, null);
+        frames = 0;
+    }
+
+    /**
+     * This method writes the frames of the suspended execution to the given stream.
+     * Every function is referred to by its id inside the {@link BytecodeProgram} of the program, the main program by {@code -1}.
+     * @param out the stream to write the frames to
+     * @param bytecode the byte code of the program, which gives the ids of the functions
+     * @throws IOException if the frames cannot be written
+     */
+    void writeFrames(DataOutputStream out, BytecodeProgram bytecode) throws IOException {
+        IdentityHashMap<Operation[], Function> owners = new IdentityHashMap<>();
+        for(Map.Entry<Function, Operation[]> entry : functions.entrySet()){
+            owners.put(entry.getValue(), entry.getKey());
+        }
+
+        out.writeInt(frames);
+
+        for(int i = 0; i < frames; i++){
+            out.writeByte(frameKinds[i]);
+            out.writeInt(programCounters[i]);
+            out.writeInt(loopIndices[i]);
+            out.writeInt(idOf(frameInstructions[i], owners, bytecode));
+
+            if(frameKinds[i] != FRAME_CALL){
+                out.writeInt(idOf(loopConditions[i], owners, bytecode));
+                out.writeInt(idOf(loopBodies[i], owners, bytecode));
+            }
+        }
+    }
+
+    /**
+     * This method replaces any execution by the suspended execution whose frames are read from the given stream
+     * (as they have been written by {@link #writeFrames(DataOutputStream, BytecodeProgram)}).
+     * @param in the stream to read the frames from
+     * @param bytecode the byte code of the program, which gives the functions of the ids
+     * @throws IOException if the frames cannot be read or are invalid
+     */
+    void readFrames(DataInputStream in, BytecodeProgram bytecode) throws IOException {
+        clear();
+
+        int count = in.readInt();
+
+        for(int i = 0; i < count; i++){
+            byte kind = in.readByte();
+            int programCounter = in.readInt();
+            int index = in.readInt();
+            Operation[] instructions = instructionsOf(in.readInt(), bytecode);
+
+            Operation[] condition = null;
+            Operation[] body = null;
+
+            if(kind == FRAME_LOOP_CONDITION || kind == FRAME_LOOP_BODY){
+                condition = instructionsOf(in.readInt(), bytecode);
+                body = instructionsOf(in.readInt(), bytecode);
+            }else if(kind != FRAME_CALL){
+                throw new IOException("The checkpoint has been illegaly changed!");
+            }
+
+            if(programCounter < 0 || programCounter > instructions.length){
+                throw new IOException("The checkpoint has been illegaly changed!");
+            }
+
+            addFrame(instructions, kind, condition, body, index);
+            programCounters[frames - 1] = programCounter;
+        }
+    }
+
+    /**
+     * This method gives you the id of the function with the given instructions
+     * @return the id of the function; {@code -1} for the main program
+     */
+    private int idOf(Operation[] instructions, IdentityHashMap<Operation[], Function> owners, BytecodeProgram bytecode){
+        if(instructions == main){
+            return -1;
+        }
+
+        Function function = owners.get(instructions);
+        int id = (function == null)? -1: bytecode.getFunctionId(function);
+
+        if(id < 0){
+            throw new IllegalStateException("The function " + function + " is not part of the program!");
+        }
+
+        return id;
+    }
+
+    /**
+     * This method gives you the instructions of the function with the given id
+     * @throws IOException if there is no function with the id
+     */
+    private Operation[] instructionsOf(int id, BytecodeProgram bytecode) throws IOException {
+        if(id == -1){
+            return main;
+        }else if(id < 0 || id >= bytecode.getFunctions().length){
+            throw new IOException("The checkpoint has been illegaly changed!");
+        }
+
+        return instructionsOf(bytecode.getFunctions()[id]);
+    }
+
+    /**
+     * This method executes instructions until the program has finished, there is no fuel left or it has to wait for input
+     * @return whether the program has finished
+     */
+    private boolean run(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+            throws InterpretError {
+
+        while(frames > 0){
+            int top = frames - 1;
+            Operation[] instructions = frameInstructions[top];
+
+            if(programCounters[top] < instructions.length){
+//              the program is suspended before the next instruction, once its fuel is used up
+                if(fuel == 0){
+                    return false;
+                }
+
+                Operation op = instructions[programCounters[top]];
+
+//              the program is also suspended before flushing, if it would block while reading the next line
+                if(suspendOnInput && op instanceof FlushOperation && !interpreter.getStdInOut().isInputReady()){
+                    interpreter.getStdInOut().flushOutput();
+                    waitingForInput = true;
+                    return false;
+                }
+
+                fuel--;
+                programCounters[top]++;
+
+//              any instruction that calls a function is only finished once the frame of the function has finished
+                if(step(op, stack, variables, interpreter, indicator)){
+                    trace(stack, variables, interpreter);
+                }
+                continue;
+            }
+
+//          the frame has finished, so we'll resume the frame below it
+            frames--;
+
+            if(frames == 0){
+                return true;
+            }
+
+            switch(frameKinds[top]){
+                case FRAME_CALL:
+                    trace(stack, variables, interpreter);
+                    break;
+                case FRAME_LOOP_CONDITION:
+                    int index = loopIndices[top];
+
+                    if(stack.size() < 1){
+                        throw new EmptyStackInterpretError(index);
+                    }
+
+                    boolean loop = stack.getBoolean(0, index);
+                    stack.drop(1);
+
+                    if(loop){
+                        pushFrame(loopBodies[top], FRAME_LOOP_BODY, loopConditions[top], loopBodies[top], index, indicator);
+                    }else{
+                        trace(stack, variables, interpreter);
+                    }
+                    break;
+                case FRAME_LOOP_BODY:
+                    pushFrame(loopConditions[top], FRAME_LOOP_CONDITION, loopConditions[top], loopBodies[top], loopIndices[top], indicator);
+                    break;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * This method executes the given instruction; any function the instruction calls is pushed as a new frame.
+     * @return whether the instruction has been finished
+     * @throws InterpretError if there is an determined error while executing the instruction
+     */
+    private boolean step(Operation op, OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+            throws InterpretError {
+
+        int index = op.getIndex();
+
+        if(op instanceof InlineCallOperation){
+            pushFrame(instructionsOf(((InlineCallOperation) op).getFunction()), FRAME_CALL, null, null, index, indicator);
+            return false;
+        }else if(op instanceof ConditionalCallOperation){
+            if(stack.size() < 1){
+                throw new EmptyStackInterpretError(index);
+            }
+
+            boolean bool = stack.getBoolean(0, index);
+            stack.drop(1);
+
+            if(bool){
+                pushFrame(instructionsOf(((ConditionalCallOperation) op).getFunction()), FRAME_CALL, null, null, index, indicator);
+            }
+            return !bool;
+        }else if(op instanceof ExecutionOperation){
+            if(stack.size() < 1){
+                throw new EmptyStackInterpretError(index);
+            }
+
+            Function function = stack.getFunction(0, index);
+            stack.drop(1);
+
+            pushFrame(instructionsOf(function), FRAME_CALL, null, null, index, indicator);
+            return false;
+        }else if(op instanceof IfOperation){
+            if(stack.size() < 2){
+                throw new EmptyStackInterpretError(index);
+            }
+
+            boolean bool = stack.getBoolean(1, index);
+            Function function = stack.getFunction(0, index);
+            stack.drop(2);
+
+            if(bool){
+                pushFrame(instructionsOf(function), FRAME_CALL, null, null, index, indicator);
+            }
+            return !bool;
+        }else if(op instanceof WhileOperation){
+            if(stack.size() < 2){
+                throw new EmptyStackInterpretError(index);
+            }
+
+            Operation[] condition = instructionsOf(stack.getFunction(1, index));
+            Operation[] body = instructionsOf(stack.getFunction(0, index));
+            stack.drop(2);
+
+            pushFrame(condition, FRAME_LOOP_CONDITION, condition, body, index, indicator);
+            return false;
+        }
+
+        op.operate(stack, variables, interpreter, indicator);
+        return true;
+    }
+
+    /**
+     * This method pushes a new frame, which is the only safepoint where we'll check whether the program is to be aborted
+     * @throws ExecutionAbortedInterpretError if the program is to be aborted
+     */
+    private void pushFrame(Operation[] instructions, byte kind, Operation[] condition, Operation[] body, int index, ExecutionAbortIndicator indicator)
+            throws ExecutionAbortedInterpretError {
+
+        indicator.poll();
+        addFrame(instructions, kind, condition, body, index);
+    }
+
+    private void addFrame(Operation[] instructions, byte kind, Operation[] condition, Operation[] body, int index){
+        if(frames == frameInstructions.length){
+            int capacity = 2 * frames;
+
+            frameInstructions = Arrays.copyOf(frameInstructions, capacity);
+            programCounters = Arrays.copyOf(programCounters, capacity);
+            frameKinds = Arrays.copyOf(frameKinds, capacity);
+            loopConditions = Arrays.copyOf(loopConditions, capacity);
+            loopBodies = Arrays.copyOf(loopBodies, capacity);
+            loopIndices = Arrays.copyOf(loopIndices, capacity);
+        }
+
+        frameInstructions[frames] = instructions;
+        programCounters[frames] = 0;
+        frameKinds[frames] = kind;
+        loopConditions[frames] = condition;
+        loopBodies[frames] = body;
+        loopIndices[frames] = index;
+        frames++;
+    }
+
+    /**
+     * This method gives you the instructions of the given function as an array
+     * @param function the function whose instructions you want
+     * @return the instructions of the function
+     */
+    private Operation[] instructionsOf(Function function){
+        Operation[] instructions = functions.get(function);
+
+        if(instructions == null){
+            instructions = function.getInstructions().toArray(new Operation[function.getInstructions().size()]);
+            functions.put(function, instructions);
+        }
+
+        return instructions;
+    }
+
+    private void trace(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter){
+        if(interpreter.isPrintStack()){
+            program.printStack(stack);
+        }
+
+        if(interpreter.isPrintVariables()){
+            program.printVariables(variables);
+        }
+    }
+}
@@ -0,0 +1,632 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.interpreter;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
+import de.jeanpierrehotz.falseprogramminglanguage.data.FalseProgram;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.Operation;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import static de.jeanpierrehotz.falseprogramminglanguage.interpreter.ClassFileWriter.*;
+
+/**
+ * This class compiles a {@link FalseProgram} into a hidden JVM class, which is executed as {@link JitProgram}.<br>
+ * The main program and every function are compiled into a static method of their own, so that the JVM itself
+ * can optimize and inline them. Function calls whose target is known while compiling (like {@code [..]!},
+ * {@code [..]?} and {@code [..][..]#}) are compiled into direct calls, any other call goes through a
+ * method dispatching the id of the function.<br>
+ * Integers that are pushed and consumed within the same method are kept in local variables of the generated method
+ * (which are called registers here) instead of on the {@link OperandStack}; the registers are written to the stack
+ * whenever an operation needs the real stack or another function is called.
+ * Operations the compiler has no special code for are simply operated by the generated code.<br>
+ * Hidden classes are only supported since Java 15, so the API is looked up reflectively; if it isn't available
+ * no program can be compiled and the {@link FalseInterpreter} executes it with the tree walker instead.
+ */
+public class JitCompiler {
+
+    private static final String CLASS_NAME = "de/jeanpierrehotz/falseprogramminglanguage/interpreter/JitCode";
+    private static final String RUNTIME = "de/jeanpierrehotz/falseprogramminglanguage/interpreter/JitRuntime";
+
+    private static final String STACK = "de/jeanpierrehotz/falseprogramminglanguage/data/OperandStack";
+    private static final String VARIABLES = "de/jeanpierrehotz/falseprogramminglanguage/data/VariableMemory";
+    private static final String INTERPRETER = "de/jeanpierrehotz/falseprogramminglanguage/interpreter/FalseInterpreter";
+    private static final String INDICATOR = "de/jeanpierrehotz/falseprogramminglanguage/data/ExecutionAbortIndicator";
+    private static final String OPERATION = "de/jeanpierrehotz/falseprogramminglanguage/data/Operation";
+    private static final String FUNCTION = "de/jeanpierrehotz/falseprogramminglanguage/data/operationimplementations/Function";
+
+    private static final String OPERATIONS_FIELD = "OPS";
+    private static final String FUNCTIONS_FIELD = "FUNCS";
+
+    private static final String ARGUMENTS = "L" + STACK + ";L" + VARIABLES + ";L" + INTERPRETER + ";L" + INDICATOR + ";";
+    private static final String METHOD_DESCRIPTOR = "(" + ARGUMENTS + ")V";
+    private static final String DISPATCH_DESCRIPTOR = "(I" + ARGUMENTS + ")V";
+
+    //
+    // The local variables of every generated method:
+    //
+    private static final int LOCAL_STACK = 0;
+    private static final int LOCAL_VARIABLES = 1;
+    private static final int LOCAL_INTERPRETER = 2;
+    private static final int LOCAL_INDICATOR = 3;
+    /**
+     * The first local variable used as register
+     */
+    private static final int FIRST_REGISTER = 4;
+
+    /**
+     * The maximum amount of registers in use, before they are written to the stack
+     */
+    private static final int MAX_REGISTERS = 64;
+    /**
+     * The maximum depth of the operand stack of the JVM any generated code needs
+     */
+    private static final int MAX_STACK = 8;
+
+    /**
+     * The handle of {@code Lookup.defineHiddenClass(byte[], boolean)} (without any class options);
+     * {@code null} if the JVM doesn't support hidden classes
+     */
+    private static final MethodHandle DEFINE_HIDDEN_CLASS = lookupDefineHiddenClass();
+
+    private ClassFileWriter writer;
+
+    /**
+     * The functions that have been found so far (in the same order as they are found by the {@link BytecodeCompiler},
+     * so that the ids of the functions are the same); any function that is in this list but hasn't been
+     * compiled yet will be compiled after the method that is currently compiled
+     */
+    private List<Function> functions;
+    /**
+     * The operations that are operated by the generated code
+     */
+    private List<Operation> operations;
+    private IdentityHashMap<Operation, Integer> operationIds;
+
+    /**
+     * The code of the method that is currently compiled
+     */
+    private ClassFileWriter.Code code;
+    /**
+     * The amount of registers that currently contain an integer, which belongs on top of the stack
+     */
+    private int registers;
+    /**
+     * The maximum amount of registers the method that is currently compiled uses
+     */
+    private int maxRegisters;
+
+    private JitCompiler(){
+        this.writer = new ClassFileWriter(CLASS_NAME);
+
+        this.functions = new ArrayList<>();
+        this.operations = new ArrayList<>();
+        this.operationIds = new IdentityHashMap<>();
+    }
+
+    /**
+     * This method compiles the given program into a hidden class.
+     * @param program the program to compile
+     * @return the compiled program
+     * @throws IllegalStateException if the program cannot be compiled (e.g. because a function is too large for a single method)
+     */
+    public static JitProgram compile(FalseProgram program){
+        if(DEFINE_HIDDEN_CLASS == null){
+            throw new IllegalStateException("Hidden classes are not supported by this JVM!");
+        }
+
+        return new JitCompiler().generate(program);
+    }
+
+    private JitProgram generate(FalseProgram program){
+//      first we'll compile the main program and then every function we've found (which may add even more functions to the list)
+        compileMethod("main", program.getInstructions());
+
+        for(int i = 0; i < functions.size(); i++){
+            compileMethod("f" + i, functions.get(i).getInstructions());
+        }
+
+        compileDispatch();
+
+        writer.addStaticField(OPERATIONS_FIELD, "[L" + OPERATION + ";");
+        writer.addStaticField(FUNCTIONS_FIELD, "[L" + FUNCTION + ";");
+
+        try{
+            MethodHandles.Lookup lookup = (MethodHandles.Lookup) DEFINE_HIDDEN_CLASS.invoke(MethodHandles.lookup(), writer.toByteArray(), true);
+            Class<?> jitCode = lookup.lookupClass();
+
+            lookup.findStaticSetter(jitCode, OPERATIONS_FIELD, Operation[].class)
+                    .invoke(operations.toArray(new Operation[operations.size()]));
+            lookup.findStaticSetter(jitCode, FUNCTIONS_FIELD, Function[].class)
+                    .invoke(functions.toArray(new Function[functions.size()]));
+
+            MethodHandle main = lookup.findStatic(jitCode, "main", MethodType.methodType(
+                    void.class, OperandStack.class, VariableMemory.class, FalseInterpreter.class, ExecutionAbortIndicator.class
+            ));
+
+            return new JitProgram(program, main);
+        }catch(Throwable exc){
+            throw new IllegalStateException("The program could not be compiled!", exc);
+        }
+    }
+
+    private static MethodHandle lookupDefineHiddenClass(){
+        try{
+            Class<?> options = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+            Object noOptions = Array.newInstance(options, 0);
+
+            MethodHandle define = MethodHandles.publicLookup().findVirtual(MethodHandles.Lookup.class, "defineHiddenClass",
+                    MethodType.methodType(MethodHandles.Lookup.class, byte[].class, boolean.class, noOptions.getClass()));
+
+//          defineHiddenClass(lookup, bytes, initialize, new ClassOption[0])
+            return MethodHandles.insertArguments(define, 3, noOptions);
+        }catch(ReflectiveOperationException | RuntimeException exc){
+            return null;
+        }
+    }
+
+    private void compileMethod(String name, List<Operation> instructions){
+        code = writer.new Code(MAX_STACK, 0);
+        registers = 0;
+        maxRegisters = 2;
+
+        abortIfNeeded();
+        compileOperations(instructions);
+        flush();
+        code.op(RETURN);
+
+        code.setMaxLocals(FIRST_REGISTER + maxRegisters + 1);
+        writer.addStaticMethod(name, METHOD_DESCRIPTOR, code);
+    }
+
+    /**
+     * This method compiles the method that calls the function with the id given as first argument
+     */
+    private void compileDispatch(){
+        code = writer.new Code(MAX_STACK, 5);
+
+        int[] end = code.newLabel();
+        int[][] targets = new int[functions.size()][];
+        for(int i = 0; i < targets.length; i++){
+            targets[i] = code.newLabel();
+        }
+
+//      a tableswitch without any targets would be rejected by the verifier, so a program without functions dispatches nothing
+        if(targets.length > 0){
+            code.iload(0);
+            code.tableSwitch(end, targets);
+        }
+
+        for(int i = 0; i < targets.length; i++){
+            code.mark(targets[i]);
+            code.aload(1);
+            code.aload(2);
+            code.aload(3);
+            code.aload(4);
+            code.invokeStatic(CLASS_NAME, "f" + i, METHOD_DESCRIPTOR);
+            code.op(RETURN);
+        }
+
+        code.mark(end);
+        code.op(RETURN);
+
+        writer.addStaticMethod("dispatch", DISPATCH_DESCRIPTOR, code);
+    }
+
+    /**
+     * This method compiles every given operation in the given order.
+     * Two lambda functions directly followed by a while-operation are compiled into a loop of the generated method.
+     * @param instructions the operations to compile
+     */
+    private void compileOperations(List<Operation> instructions){
+        for(int i = 0; i < instructions.size(); i++){
+            Operation op = instructions.get(i);
+
+            if(op instanceof LambdaFunctionOperation && i + 2 < instructions.size()
+                    && instructions.get(i + 1) instanceof LambdaFunctionOperation
+                    && instructions.get(i + 2) instanceof WhileOperation){
+                compileLoop(
+                        ((LambdaFunctionOperation) op).getFunction(),
+                        ((LambdaFunctionOperation) instructions.get(i + 1)).getFunction(),
+                        instructions.get(i + 2).getIndex()
+                );
+                i += 2;
+                continue;
+            }
+
+            compileOperation(op);
+        }
+    }
+
+    private void compileOperation(Operation op){
+        int index = op.getIndex();
+
+        if(op instanceof IntegerValueOperation){
+            pushConstant(((IntegerValueOperation) op).getValue());
+        }else if(op instanceof CharacterValueOperation){
+            pushConstant(((CharacterValueOperation) op).getValue());
+        }else if(op instanceof NOP){
+//          operations that don't do anything simply aren't compiled at all
+        }else if(op instanceof AddOperation && registers >= 2){
+            compileBinary(IADD);
+        }else if(op instanceof SubtractOperation && registers >= 2){
+            compileBinary(ISUB);
+        }else if(op instanceof MultiplyOperation && registers >= 2){
+            compileBinary(IMUL);
+        }else if(op instanceof DivideOperation && registers >= 2){
+            compileBinary("divide", index);
+        }else if(op instanceof EqualsOperation && registers >= 2){
+            compileBinary("equal", -1);
+        }else if(op instanceof GreaterThanOperation && registers >= 2){
+            compileBinary("greater", -1);
+        }else if(op instanceof AndOperation && registers >= 2){
+            compileBinary("and", index);
+        }else if(op instanceof OrOperation && registers >= 2){
+            compileBinary("or", index);
+        }else if(op instanceof NotOperation && registers >= 1){
+            code.iload(top(0));
+            code.pushInt(index);
+            code.invokeStatic(RUNTIME, "not", "(II)I");
+            code.istore(top(0));
+        }else if(op instanceof UnaryMinusOperation && registers >= 1){
+            code.iload(top(0));
+            code.op(INEG);
+            code.istore(top(0));
+        }else if(op instanceof AddConstantOperation && registers >= 1){
+            code.iload(top(0));
+            code.pushInt(((AddConstantOperation) op).getConstant());
+            code.op(IADD);
+            code.istore(top(0));
+        }else if(op instanceof CompareZeroOperation && registers >= 1){
+            code.iload(top(0));
+            code.pushInt(0);
+            code.invokeStatic(RUNTIME, ((CompareZeroOperation) op).isGreater()? "greater": "equal", "(II)I");
+            code.istore(top(0));
+        }else if(op instanceof DuplicateOperation && registers >= 1){
+            code.iload(top(0));
+            code.istore(pushRegister());
+        }else if(op instanceof DeleteOperation && registers >= 1){
+            registers--;
+        }else if(op instanceof SwapOperation && registers >= 2){
+            code.iload(top(1));
+            code.iload(top(0));
+            code.istore(top(1));
+            code.istore(top(0));
+        }else if(op instanceof RotateOperation && registers >= 3){
+            compileRotate();
+        }else if(op instanceof DuplicateRotateOperation && registers >= 2){
+//          a b -> a b b -> b b a
+            code.iload(top(1));
+            code.iload(top(0));
+            code.istore(top(1));
+            code.istore(pushRegister());
+        }else if(op instanceof PrintNumberOperation && registers >= 1){
+            code.aload(LOCAL_INTERPRETER);
+            code.iload(top(0));
+            code.invokeStatic(RUNTIME, "printNumber", "(L" + INTERPRETER + ";I)V");
+            registers--;
+        }else if(op instanceof PrintCharacterOperation && registers >= 1){
+            code.aload(LOCAL_INTERPRETER);
+            code.iload(top(0));
+            code.invokeStatic(RUNTIME, "printCharacter", "(L" + INTERPRETER + ";I)V");
+            registers--;
+        }else if(op instanceof StoreVariableOperation && registers >= 1){
+            code.aload(LOCAL_VARIABLES);
+            code.pushInt(((StoreVariableOperation) op).getSlot());
+            code.iload(top(0));
+            code.invokeVirtual(VARIABLES, "storeInteger", "(II)V");
+            registers--;
+        }else if(op instanceof ReadCharacterOperation){
+            int register = pushRegister();
+
+            code.aload(LOCAL_INTERPRETER);
+            code.invokeStatic(RUNTIME, "readCharacter", "(L" + INTERPRETER + ";)I");
+            code.istore(register);
+        }else if(op instanceof LoadVariableOperation){
+            flush();
+
+            code.aload(LOCAL_VARIABLES);
+            code.pushInt(((LoadVariableOperation) op).getSlot());
+            code.aload(LOCAL_STACK);
+            code.invokeVirtual(VARIABLES, "load", "(IL" + STACK + ";)V");
+        }else if(op instanceof LambdaFunctionOperation){
+            flush();
+
+            int id = functionId(((LambdaFunctionOperation) op).getFunction());
+            code.aload(LOCAL_STACK);
+            code.getStatic(CLASS_NAME, FUNCTIONS_FIELD, "[L" + FUNCTION + ";");
+            code.pushInt(id);
+            code.op(AALOAD);
+            code.pushInt(id);
+            code.invokeVirtual(STACK, "pushFunction", "(L" + FUNCTION + ";I)V");
+        }else if(op instanceof InlineCallOperation){
+            flush();
+            call(functionId(((InlineCallOperation) op).getFunction()));
+        }else if(op instanceof ConditionalCallOperation){
+            compileConditionalCall(((ConditionalCallOperation) op).getFunction(), index);
+        }else if(op instanceof ExecutionOperation){
+            flush();
+
+            popFunctionId("popFunction", index);
+            dispatch();
+        }else if(op instanceof IfOperation){
+            flush();
+
+            int[] skip = code.newLabel();
+            popFunctionId("popConditionalFunction", index);
+            code.istore(FIRST_REGISTER);
+            code.iload(FIRST_REGISTER);
+            code.jump(IFLT, skip);
+            code.iload(FIRST_REGISTER);
+            dispatch();
+            code.mark(skip);
+        }else if(op instanceof WhileOperation){
+            compileDynamicLoop(index);
+        }else if(op instanceof PrintStringOperation || op instanceof FlushOperation){
+//          operations that don't access the stack may be operated without writing the registers to the stack
+            operate(op);
+        }else{
+            flush();
+            operate(op);
+        }
+    }
+
+    /**
+     * This method compiles a binary operator on the two topmost registers, which is resembled by the given opcode.
+     * @param opcode the opcode of the operator
+     */
+    private void compileBinary(int opcode){
+        code.iload(top(1));
+        code.iload(top(0));
+        code.op(opcode);
+        code.istore(top(1));
+        registers--;
+    }
+
+    /**
+     * This method compiles a binary operator on the two topmost registers, which is implemented by the given method
+     * of the {@link JitRuntime}.
+     * @param method the name of the method
+     * @param index the index of the operation, which is passed to the method; {@code -1} if the method takes no index
+     */
+    private void compileBinary(String method, int index){
+        code.iload(top(1));
+        code.iload(top(0));
+
+        if(index >= 0){
+            code.pushInt(index);
+            code.invokeStatic(RUNTIME, method, "(III)I");
+        }else{
+            code.invokeStatic(RUNTIME, method, "(II)I");
+        }
+
+        code.istore(top(1));
+        registers--;
+    }
+
+    private void compileRotate(){
+//      a b c -> b c a
+        code.iload(top(2));
+        code.iload(top(1));
+        code.istore(top(2));
+        code.iload(top(0));
+        code.istore(top(1));
+        code.istore(top(0));
+    }
+
+    private void compileConditionalCall(Function function, int index){
+        int[] skip = code.newLabel();
+
+        if(registers >= 1){
+            code.iload(top(0));
+            code.pushInt(index);
+            code.invokeStatic(RUNTIME, "condition", "(II)Z");
+            registers--;
+        }else{
+            code.aload(LOCAL_STACK);
+            code.pushInt(index);
+            code.invokeStatic(RUNTIME, "popCondition", "(L" + STACK + ";I)Z");
+        }
+
+//      the registers are written before the jump, so that both paths leave the same stack behind
+        flush();
+        code.jump(IFEQ, skip);
+        call(functionId(function));
+        code.mark(skip);
+    }
+
+    /**
+     * This method compiles a while-loop with the given condition and body into a loop of the generated method.
+     */
+    private void compileLoop(Function condition, Function body, int index){
+        int conditionId = functionId(condition);
+        int bodyId = functionId(body);
+
+        flush();
+
+        int[] head = code.newLabel();
+        int[] end = code.newLabel();
+
+        code.mark(head);
+        abortIfNeeded();
+        call(conditionId);
+
+        code.aload(LOCAL_STACK);
+        code.pushInt(index);
+        code.invokeStatic(RUNTIME, "popCondition", "(L" + STACK + ";I)Z");
+        code.jump(IFEQ, end);
+
+        call(bodyId);
+        code.jump(GOTO, head);
+        code.mark(end);
+    }
+
+    /**
+     * This method compiles a while-loop whose condition and body are taken from the stack.
+     * The ids of the condition and the body are kept in the first two registers.
+     */
+    private void compileDynamicLoop(int index){
+        flush();
+
+        popFunctionId("peekLoopCondition", index);
+        code.istore(FIRST_REGISTER);
+        popFunctionId("popLoopBody", index);
+        code.istore(FIRST_REGISTER + 1);
+
+        int[] head = code.newLabel();
+        int[] end = code.newLabel();
+
+        code.mark(head);
+        abortIfNeeded();
+        code.iload(FIRST_REGISTER);
+        dispatch();
+
+        code.aload(LOCAL_STACK);
+        code.pushInt(index);
+        code.invokeStatic(RUNTIME, "popCondition", "(L" + STACK + ";I)Z");
+        code.jump(IFEQ, end);
+
+        code.iload(FIRST_REGISTER + 1);
+        dispatch();
+        code.jump(GOTO, head);
+        code.mark(end);
+    }
+
+    /**
+     * This method compiles a call to the given method of the {@link JitRuntime}, which takes
+     * the stack, the functions and the index and gives you the id of a function.
+     */
+    private void popFunctionId(String method, int index){
+        code.aload(LOCAL_STACK);
+        code.getStatic(CLASS_NAME, FUNCTIONS_FIELD, "[L" + FUNCTION + ";");
+        code.pushInt(index);
+        code.invokeStatic(RUNTIME, method, "(L" + STACK + ";[L" + FUNCTION + ";I)I");
+    }
+
+    /**
+     * This method compiles a direct call of the function with the given id.
+     * The registers have to be written to the stack beforehand.
+     */
+    private void call(int id){
+        pushArguments();
+        code.invokeStatic(CLASS_NAME, "f" + id, METHOD_DESCRIPTOR);
+        abortIfNeeded();
+    }
+
+    /**
+     * This method compiles a call of the function whose id is on top of the operand stack of the JVM.
+     * The registers have to be written to the stack beforehand.
+     */
+    private void dispatch(){
+        pushArguments();
+        code.invokeStatic(CLASS_NAME, "dispatch", DISPATCH_DESCRIPTOR);
+        abortIfNeeded();
+    }
+
+    /**
+     * This method compiles the generic operation of the given operation
+     */
+    private void operate(Operation op){
+        Integer id = operationIds.get(op);
+        if(id == null){
+            id = operations.size();
+            operations.add(op);
+            operationIds.put(op, id);
+        }
+
+        code.getStatic(CLASS_NAME, OPERATIONS_FIELD, "[L" + OPERATION + ";");
+        code.pushInt(id);
+        code.op(AALOAD);
+        pushArguments();
+        code.invokeVirtual(OPERATION, "operate", METHOD_DESCRIPTOR);
+    }
+
+    private void pushArguments(){
+        code.aload(LOCAL_STACK);
+        code.aload(LOCAL_VARIABLES);
+        code.aload(LOCAL_INTERPRETER);
+        code.aload(LOCAL_INDICATOR);
+    }
+
+    /**
+     * This method compiles a check whether the program is to be aborted, which returns from the generated method if so
+     */
+    private void abortIfNeeded(){
+        int[] resume = code.newLabel();
+
+        code.aload(LOCAL_INDICATOR);
+        code.invokeVirtual(INDICATOR, "isToBeAborted", "()Z");
+        code.jump(IFEQ, resume);
+        code.op(RETURN);
+        code.mark(resume);
+    }
+
+    private void pushConstant(int value){
+        code.pushInt(value);
+        code.istore(pushRegister());
+    }
+
+    /**
+     * This method reserves a new register on top of the registers in use
+     * (writing every register to the stack, if there are too many registers in use)
+     * @return the local variable of the new register
+     */
+    private int pushRegister(){
+        if(registers == MAX_REGISTERS){
+            flush();
+        }
+
+        registers++;
+        maxRegisters = Math.max(maxRegisters, registers);
+        return top(0);
+    }
+
+    /**
+     * This method gives you the local variable of the register at the given depth
+     * @param depth the depth of the register (0 being the topmost register)
+     * @return the local variable of the register
+     */
+    private int top(int depth){
+        return FIRST_REGISTER + registers - 1 - depth;
+    }
+
+    /**
+     * This method compiles writing every register to the stack
+     */
+    private void flush(){
+        for(int i = 0; i < registers; i++){
+            code.aload(LOCAL_STACK);
+            code.iload(FIRST_REGISTER + i);
+            code.invokeVirtual(STACK, "pushInteger", "(I)V");
+        }
+
+        registers = 0;
+    }
+
+    private int functionId(Function function){
+        functions.add(function);
+        return functions.size() - 1;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.interpreter;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
+import de.jeanpierrehotz.falseprogramminglanguage.data.FalseProgram;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * This class resembles a {@link FalseProgram} that has been compiled into a hidden JVM class by the {@link JitCompiler}.
+ */
+public class JitProgram {
+
+    /**
+     * The method executing the main program
+     */
+    private final MethodHandle main;
+
+    /**
+     * The program this class has been generated from
+     */
+    private final FalseProgram source;
+
+    JitProgram(FalseProgram source, MethodHandle main){
+        this.source = source;
+        this.main = main;
+    }
+
+    /**
+     * This method executes the program with the given stack, variables and interpreter.
+     * @param stack the current stack of the program
+     * @param variables the current variables available in the program
+     * @param interpreter the interpreter of the program
+     * @param indicator the indicator that shows whether to abort the program or not
+     * @throws InterpretError if there is an determined error while executing the program
+     */
+    public void execute(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+            throws InterpretError {
+
+        try{
+            main.invokeExact(stack, variables, interpreter, indicator);
+        }catch(InterpretError | RuntimeException | Error exc){
+            throw exc;
+        }catch(Throwable exc){
+            throw new IllegalStateException(exc);
+        }
+    }
+
+    public FalseProgram getSource(){
+        return source;
+    }
+}
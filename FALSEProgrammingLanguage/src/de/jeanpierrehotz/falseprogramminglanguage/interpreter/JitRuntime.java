@@ -0,0 +1,222 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.interpreter;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.DivideByZeroInterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.EmptyStackInterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.WrongDataTypeInterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations.Function;
+import de.jeanpierrehotz.falseprogramminglanguage.language.FalseLanguageDefinition;
+
+/**
+ * This class contains the helper methods the classes generated by the {@link JitCompiler} call.<br>
+ * Any integers that are passed to these methods are kept in local variables by the generated code and are thus
+ * known to be integers; every check whether such an integer is a valid boolean reports its error just like the according operation.
+ */
+final class JitRuntime {
+
+    private JitRuntime(){}
+
+    public static int divide(int n1, int n2, int index) throws DivideByZeroInterpretError {
+        if(n2 == 0){
+            throw new DivideByZeroInterpretError("Cannot divide by zero!\nOccured at instruction number " + index);
+        }
+
+        return n1 / n2;
+    }
+
+    public static int equal(int n1, int n2){
+        return truthValue(n1 == n2);
+    }
+
+    public static int greater(int n1, int n2){
+        return truthValue(n1 > n2);
+    }
+
+    public static int and(int n1, int n2, int index) throws WrongDataTypeInterpretError {
+        boolean b1 = condition(n1, index);
+        boolean b2 = condition(n2, index);
+
+        return truthValue(b1 && b2);
+    }
+
+    public static int or(int n1, int n2, int index) throws WrongDataTypeInterpretError {
+        boolean b1 = condition(n1, index);
+        boolean b2 = condition(n2, index);
+
+        return truthValue(b1 || b2);
+    }
+
+    public static int not(int n, int index) throws WrongDataTypeInterpretError {
+        return truthValue(!condition(n, index));
+    }
+
+    /**
+     * This method interprets the given integer as boolean
+     * @param n the integer to interpret
+     * @param index the index of the operation that reads the boolean (for the error message)
+     * @return whether the integer is {@link FalseLanguageDefinition#TRUE}
+     * @throws WrongDataTypeInterpretError if the integer is neither {@link FalseLanguageDefinition#TRUE} nor {@link FalseLanguageDefinition#FALSE}
+     */
+    public static boolean condition(int n, int index) throws WrongDataTypeInterpretError {
+        if(n != FalseLanguageDefinition.TRUE && n != FalseLanguageDefinition.FALSE){
+            throw new WrongDataTypeInterpretError("Datatype error: Expected Boolean represented by Integer; Found " + Integer.class + "; Booleans may only contain -1 (true) or 0 (false).\nOccured at instruction number " + index);
+        }
+
+        return n == FalseLanguageDefinition.TRUE;
+    }
+
+    /**
+     * This method removes the topmost boolean from the stack
+     * @param stack the stack containing the boolean
+     * @param index the index of the operation that reads the boolean (for the error message)
+     * @return the boolean
+     * @throws EmptyStackInterpretError if the stack is empty
+     * @throws WrongDataTypeInterpretError if the topmost item is no boolean
+     */
+    public static boolean popCondition(OperandStack stack, int index) throws EmptyStackInterpretError, WrongDataTypeInterpretError {
+        if(stack.size() < 1){
+            throw new EmptyStackInterpretError(index);
+        }
+
+        boolean n = stack.getBoolean(0, index);
+
+        stack.drop(1);
+        return n;
+    }
+
+    /**
+     * This method removes the topmost function from the stack (just like {@code !} does)
+     * @param stack the stack containing the function
+     * @param functions the functions of the generated class
+     * @param index the index of the operation that reads the function (for the error message)
+     * @return the id of the function
+     * @throws EmptyStackInterpretError if the stack is empty
+     * @throws WrongDataTypeInterpretError if the topmost item is no function
+     */
+    public static int popFunction(OperandStack stack, Function[] functions, int index) throws EmptyStackInterpretError, WrongDataTypeInterpretError {
+        if(stack.size() < 1){
+            throw new EmptyStackInterpretError(index);
+        }
+
+        int function = functionId(stack, 0, functions, index);
+
+        stack.drop(1);
+        return function;
+    }
+
+    /**
+     * This method removes the boolean and the function from the top of the stack (just like {@code ?} does)
+     * @param stack the stack containing the boolean and the function
+     * @param functions the functions of the generated class
+     * @param index the index of the operation that reads the items (for the error message)
+     * @return the id of the function if it is to be executed; {@code -1} otherwise
+     * @throws EmptyStackInterpretError if there are less than two items on the stack
+     * @throws WrongDataTypeInterpretError if the items are no boolean and function
+     */
+    public static int popConditionalFunction(OperandStack stack, Function[] functions, int index) throws EmptyStackInterpretError, WrongDataTypeInterpretError {
+        if(stack.size() < 2){
+            throw new EmptyStackInterpretError(index);
+        }
+
+        boolean condition = stack.getBoolean(1, index);
+        int function = functionId(stack, 0, functions, index);
+
+        stack.drop(2);
+        return condition? function: -1;
+    }
+
+    /**
+     * This method checks the condition and the body of a while-loop (just like {@code #} does)
+     * and gives you the id of the condition. The items are not removed from the stack.
+     * @param stack the stack containing the condition and the body
+     * @param functions the functions of the generated class
+     * @param index the index of the operation that reads the items (for the error message)
+     * @return the id of the condition
+     * @throws EmptyStackInterpretError if there are less than two items on the stack
+     * @throws WrongDataTypeInterpretError if the items are no functions
+     */
+    public static int peekLoopCondition(OperandStack stack, Function[] functions, int index) throws EmptyStackInterpretError, WrongDataTypeInterpretError {
+        if(stack.size() < 2){
+            throw new EmptyStackInterpretError(index);
+        }
+
+        int condition = functionId(stack, 1, functions, index);
+        functionId(stack, 0, functions, index);
+
+        return condition;
+    }
+
+    /**
+     * This method removes the condition and the body of a while-loop from the stack,
+     * after they have been checked by {@link #peekLoopCondition(OperandStack, Function[], int)}.
+     * @param stack the stack containing the condition and the body
+     * @param functions the functions of the generated class
+     * @param index the index of the operation that reads the items (for the error message)
+     * @return the id of the body
+     * @throws WrongDataTypeInterpretError if the topmost item is no function
+     */
+    public static int popLoopBody(OperandStack stack, Function[] functions, int index) throws WrongDataTypeInterpretError {
+        int body = functionId(stack, 0, functions, index);
+
+        stack.drop(2);
+        return body;
+    }
+
+    public static void printNumber(FalseInterpreter interpreter, int n){
+        interpreter.getStdInOut().writeNumber(n);
+    }
+
+    public static void printCharacter(FalseInterpreter interpreter, int n){
+        interpreter.getStdInOut().writeCharacter((char) n);
+    }
+
+    public static int readCharacter(FalseInterpreter interpreter){
+        return interpreter.getStdInOut().readCharacter();
+    }
+
+    /**
+     * This method gives you the id of the function at the given depth of the stack
+     * @param stack the stack containing the function
+     * @param depth the depth of the function
+     * @param functions the functions of the generated class
+     * @param index the index of the operation that reads the function (for the error message)
+     * @return the id of the function
+     * @throws WrongDataTypeInterpretError if the item is no function
+     */
+    private static int functionId(OperandStack stack, int depth, Function[] functions, int index) throws WrongDataTypeInterpretError {
+        Function function = stack.getFunction(depth, index);
+        int id = stack.getValue(depth);
+
+//      any function pushed by the generated code carries its id, so the search is only needed for foreign functions
+        if(id >= 0 && id < functions.length && functions[id] == function){
+            return id;
+        }
+
+        for(int i = 0; i < functions.length; i++){
+            if(functions[i] == function){
+                return i;
+            }
+        }
+
+        throw new IllegalStateException("The function " + function + " is not part of the compiled program!");
+    }
+
+    private static int truthValue(boolean value){
+        return value? FalseLanguageDefinition.TRUE: FalseLanguageDefinition.FALSE;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.interpreter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * This class creates virtual threads, if the JVM supports them (which is the case since Java 21).<br>
+ * Since the project is still compiled for older versions of Java, the API is looked up reflectively once;
+ * if it isn't available every thread is created as an ordinary daemon thread instead.
+ */
+final class VirtualThreads {
+
+    /**
+     * The handle of {@code Thread.ofVirtual().name(String).unstarted(Runnable)};
+     * {@code null} if the JVM doesn't support virtual threads
+     */
+    private static final MethodHandle UNSTARTED_VIRTUAL_THREAD = lookupVirtualThreads();
+
+    private VirtualThreads(){}
+
+    /**
+     * This method determines whether the JVM supports virtual threads
+     * @return whether virtual threads are supported
+     */
+    static boolean isSupported(){
+        return UNSTARTED_VIRTUAL_THREAD != null;
+    }
+
+    /**
+     * This method creates a thread with the given name, which executes the given task once it is started.
+     * The thread is a virtual thread if they are supported, otherwise it is a daemon thread.
+     * @param name the name of the thread
+     * @param task the task to execute
+     * @return the thread, which hasn't been started yet
+     */
+    static Thread newThread(String name, Runnable task){
+        if(UNSTARTED_VIRTUAL_THREAD != null){
+            try{
+                return (Thread) UNSTARTED_VIRTUAL_THREAD.invoke(name, task);
+            }catch(RuntimeException | Error exc){
+                throw exc;
+            }catch(Throwable t){
+                throw new IllegalStateException(t);
+            }
+        }
+
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static MethodHandle lookupVirtualThreads(){
+        try{
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+
+            MethodHandle ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(Class.forName("java.lang.Thread$Builder$OfVirtual")));
+            MethodHandle name = lookup.findVirtual(builder, "name", MethodType.methodType(builder, String.class));
+            MethodHandle unstarted = lookup.findVirtual(builder, "unstarted", MethodType.methodType(Thread.class, Runnable.class));
+
+//          unstarted(name(ofVirtual(), name), task)
+            MethodHandle named = MethodHandles.collectArguments(name, 0, ofVirtual.asType(MethodType.methodType(builder)));
+            return MethodHandles.collectArguments(unstarted, 0, named)
+                    .asType(MethodType.methodType(Thread.class, String.class, Runnable.class));
+        }catch(ReflectiveOperationException | RuntimeException exc){
+            return null;
+        }
+    }
+}
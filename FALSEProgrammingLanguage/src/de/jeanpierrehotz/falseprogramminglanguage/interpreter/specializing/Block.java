@@ -0,0 +1,64 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.interpreter.specializing;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.Operation;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
+
+import java.util.List;
+
+/**
+ * This class resembles the instructions of a function or of the main program as an array of {@link Node}s.
+ */
+class Block {
+
+    private Node[] nodes;
+
+    Block(List<Operation> instructions, SpecializingInterpreter owner){
+        this.nodes = new Node[instructions.size()];
+
+        for(int i = 0; i < nodes.length; i++){
+            setNode(i, new UninitializedNode(instructions.get(i), owner));
+        }
+    }
+
+    void setNode(int position, Node node){
+        node.adopt(this, position);
+        nodes[position] = node;
+    }
+
+    /**
+     * This method executes every node of this block, after checking whether the program is to be aborted.
+     * @param stack the current stack of the program
+     * @param variables the current variables available in the program
+     * @param interpreter the interpreter of the program
+     * @param indicator the indicator that shows whether to abort the program or not
+     * @throws InterpretError if there is an determined error while executing the block
+     */
+    void execute(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+            throws InterpretError {
+
+        indicator.poll();
+
+        for(int i = 0; i < nodes.length; i++){
+            nodes[i].execute(stack, variables, interpreter, indicator);
+        }
+    }
+}
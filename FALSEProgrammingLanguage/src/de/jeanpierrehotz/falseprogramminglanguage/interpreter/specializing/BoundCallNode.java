@@ -0,0 +1,62 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.interpreter.specializing;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.EmptyStackInterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
+
+/**
+ * This node executes a function that is known beforehand, as done by {@code [...]!} and {@code [...]?}.
+ */
+class BoundCallNode extends Node {
+
+    private Block function;
+    /**
+     * Whether the function is only executed if the topmost item is true
+     */
+    private boolean conditional;
+    private int index;
+
+    BoundCallNode(Block function, boolean conditional, int index){
+        this.function = function;
+        this.conditional = conditional;
+        this.index = index;
+    }
+
+    @Override
+    void execute(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+            throws InterpretError {
+
+        if(conditional){
+            if(stack.size() < 1){
+                throw new EmptyStackInterpretError(index);
+            }
+
+            boolean bool = stack.getBoolean(0, index);
+            stack.drop(1);
+
+            if(!bool){
+                return;
+            }
+        }
+
+        function.execute(stack, variables, interpreter, indicator);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.interpreter.specializing;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.EmptyStackInterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations.Function;
+import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
+
+/**
+ * This node executes the topmost function ({@code !}).<br>
+ * The node caches the first function it has observed together with its block, so that calling the same function
+ * again only costs comparing two references. If another function is called, the node replaces itself
+ * by a node without cache, which looks up the block of every function it calls.
+ */
+class ExecuteNode extends Node {
+
+    private int index;
+    private SpecializingInterpreter owner;
+
+    /**
+     * The function this node has been specialized for; {@code null} if the node is not specialized
+     */
+    private Function cachedFunction;
+    private Block cachedBlock;
+
+    ExecuteNode(int index, SpecializingInterpreter owner, Function cachedFunction){
+        this.index = index;
+        this.owner = owner;
+        this.cachedFunction = cachedFunction;
+        this.cachedBlock = (cachedFunction == null)? null: owner.blockOf(cachedFunction);
+    }
+
+    @Override
+    void execute(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+            throws InterpretError {
+
+        if(stack.size() < 1){
+            throw new EmptyStackInterpretError(index);
+        }
+
+        Function function = stack.getFunction(0, index);
+        stack.drop(1);
+
+        if(function == cachedFunction){
+            cachedBlock.execute(stack, variables, interpreter, indicator);
+        }else{
+            if(cachedFunction != null){
+                replace(new ExecuteNode(index, owner, null));
+            }
+
+            owner.blockOf(function).execute(stack, variables, interpreter, indicator);
+        }
+    }
+}
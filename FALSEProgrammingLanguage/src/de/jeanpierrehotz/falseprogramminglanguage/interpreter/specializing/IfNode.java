@@ -0,0 +1,75 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.interpreter.specializing;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.EmptyStackInterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations.Function;
+import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
+
+/**
+ * This node executes the topmost function if the item below it is true ({@code ?}).
+ * The function is cached just like it is done by the {@link ExecuteNode}.
+ */
+class IfNode extends Node {
+
+    private int index;
+    private SpecializingInterpreter owner;
+
+    /**
+     * The function this node has been specialized for; {@code null} if the node is not specialized
+     */
+    private Function cachedFunction;
+    private Block cachedBlock;
+
+    IfNode(int index, SpecializingInterpreter owner, Function cachedFunction){
+        this.index = index;
+        this.owner = owner;
+        this.cachedFunction = cachedFunction;
+        this.cachedBlock = (cachedFunction == null)? null: owner.blockOf(cachedFunction);
+    }
+
+    @Override
+    void execute(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+            throws InterpretError {
+
+        if(stack.size() < 2){
+            throw new EmptyStackInterpretError(index);
+        }
+
+        boolean bool = stack.getBoolean(1, index);
+        Function function = stack.getFunction(0, index);
+        stack.drop(2);
+
+        Block block;
+        if(function == cachedFunction){
+            block = cachedBlock;
+        }else{
+            if(cachedFunction != null){
+                replace(new IfNode(index, owner, null));
+            }
+
+            block = owner.blockOf(function);
+        }
+
+        if(bool){
+            block.execute(stack, variables, interpreter, indicator);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.interpreter.specializing;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.Operation;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations.*;
+import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
+import de.jeanpierrehotz.falseprogramminglanguage.language.FalseLanguageDefinition;
+
+/**
+ * This node executes an arithmetic or relational operator, which has only observed integers as its operands.
+ * The types of the operands are guarded by simply comparing their tags; if the guard fails the node
+ * replaces itself by a {@link GenericNode}, which reports any error just like the operation.
+ */
+class IntegerOperatorNode extends Node {
+
+    private static final int ADD = 0;
+    private static final int SUBTRACT = 1;
+    private static final int MULTIPLY = 2;
+    private static final int EQUALS = 3;
+    private static final int GREATER = 4;
+    private static final int ADD_CONSTANT = 5;
+    private static final int EQUALS_ZERO = 6;
+    private static final int GREATER_ZERO = 7;
+
+    private Operation operation;
+
+    /**
+     * The operator this node executes
+     */
+    private int operator;
+    /**
+     * The constant to add if the operator is {@link #ADD_CONSTANT}
+     */
+    private int constant;
+
+    IntegerOperatorNode(Operation operation){
+        this.operation = operation;
+
+        if(operation instanceof AddOperation){
+            operator = ADD;
+        }else if(operation instanceof SubtractOperation){
+            operator = SUBTRACT;
+        }else if(operation instanceof MultiplyOperation){
+            operator = MULTIPLY;
+        }else if(operation instanceof EqualsOperation){
+            operator = EQUALS;
+        }else if(operation instanceof GreaterThanOperation){
+            operator = GREATER;
+        }else if(operation instanceof AddConstantOperation){
+            operator = ADD_CONSTANT;
+            constant = ((AddConstantOperation) operation).getConstant();
+        }else if(operation instanceof CompareZeroOperation){
+            operator = ((CompareZeroOperation) operation).isGreater()? GREATER_ZERO: EQUALS_ZERO;
+        }else{
+            throw new IllegalArgumentException("The operation " + operation.getClass() + " is no integer operator!");
+        }
+    }
+
+    @Override
+    void execute(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+            throws InterpretError {
+
+        if(operator >= ADD_CONSTANT){
+            if(stack.size() < 1 || stack.getType(0) != OperandStack.TYPE_INTEGER){
+                replace(new GenericNode(operation)).execute(stack, variables, interpreter, indicator);
+                return;
+            }
+
+            int n = stack.getValue(0);
+            stack.drop(1);
+
+            switch(operator){
+                case ADD_CONSTANT:
+                    stack.pushInteger(n + constant);
+                    break;
+                case EQUALS_ZERO:
+                    stack.pushInteger(truthValue(n == 0));
+                    break;
+                default:
+                    stack.pushInteger(truthValue(n > 0));
+                    break;
+            }
+        }else{
+            if(stack.size() < 2 || stack.getType(0) != OperandStack.TYPE_INTEGER || stack.getType(1) != OperandStack.TYPE_INTEGER){
+                replace(new GenericNode(operation)).execute(stack, variables, interpreter, indicator);
+                return;
+            }
+
+            int n1 = stack.getValue(1);
+            int n2 = stack.getValue(0);
+            stack.drop(2);
+
+            switch(operator){
+                case ADD:
+                    stack.pushInteger(n1 + n2);
+                    break;
+                case SUBTRACT:
+                    stack.pushInteger(n1 - n2);
+                    break;
+                case MULTIPLY:
+                    stack.pushInteger(n1 * n2);
+                    break;
+                case EQUALS:
+                    stack.pushInteger(truthValue(n1 == n2));
+                    break;
+                default:
+                    stack.pushInteger(truthValue(n1 > n2));
+                    break;
+            }
+        }
+    }
+
+    private static int truthValue(boolean value){
+        return value? FalseLanguageDefinition.TRUE: FalseLanguageDefinition.FALSE;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.interpreter.specializing;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
+
+/**
+ * This class resembles a single node of a {@link Block}, which executes one operation.<br>
+ * A node may replace itself inside its block by a node that is specialized for the operands it has observed,
+ * or by a more general node, if the operands it has been specialized for have changed.
+ */
+abstract class Node {
+
+    /**
+     * The block containing this node
+     */
+    private Block parent;
+    /**
+     * The position of this node inside its block
+     */
+    private int position;
+
+    /**
+     * This method executes the operation of this node.
+     * @param stack the current stack of the program
+     * @param variables the current variables available in the program
+     * @param interpreter the interpreter of the program
+     * @param indicator the indicator that shows whether to abort the program or not
+     * @throws InterpretError if there is an determined error while executing the operation
+     */
+    abstract void execute(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+            throws InterpretError;
+
+    void adopt(Block parent, int position){
+        this.parent = parent;
+        this.position = position;
+    }
+
+    /**
+     * This method replaces this node inside its block by the given node, which is executed from now on.
+     * @param node the node to replace this node with
+     * @return the given node
+     */
+    protected Node replace(Node node){
+        node.adopt(parent, position);
+        parent.setNode(position, node);
+        return node;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.interpreter.specializing;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
+import de.jeanpierrehotz.falseprogramminglanguage.data.FalseProgram;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations.Function;
+import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
+
+import java.util.IdentityHashMap;
+
+/**
+ * This class executes a {@link FalseProgram} as a tree of self-specializing nodes.<br>
+ * Every operation is resembled by a node, which replaces itself on its first execution by a node specialized
+ * for the operands it observes: arithmetic and relational operators only observing integers skip any type checks
+ * but comparing the tags of their operands, and calls remember the function they have called last, so that
+ * calling the same function again doesn't need to look up anything. Whenever the operands change,
+ * a specialized node replaces itself by a more general node again.<br>
+ * Since the specializations are kept for the lifetime of this object, it should be reused for every execution of the program.
+ */
+public class SpecializingInterpreter {
+
+    private FalseProgram program;
+    private Block main;
+
+    /**
+     * The blocks of every function that has been called so far
+     */
+    private IdentityHashMap<Function, Block> blocks;
+
+    public SpecializingInterpreter(FalseProgram program){
+        this.program = program;
+        this.blocks = new IdentityHashMap<>();
+        this.main = new Block(program.getInstructions(), this);
+    }
+
+    /**
+     * This method executes the program with the given stack, variables and interpreter.
+     * @param stack the current stack of the program
+     * @param variables the current variables available in the program
+     * @param interpreter the interpreter of the program
+     * @param indicator the indicator that shows whether to abort the program or not
+     * @throws InterpretError if there is an determined error while executing the program
+     */
+    public void execute(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+            throws InterpretError {
+
+        main.execute(stack, variables, interpreter, indicator);
+    }
+
+    /**
+     * This method gives you the block of the given function, which is created on the first call
+     * @param function the function whose block you want
+     * @return the block of the function
+     */
+    Block blockOf(Function function){
+        Block block = blocks.get(function);
+
+        if(block == null){
+            block = new Block(function.getInstructions(), this);
+            blocks.put(function, block);
+        }
+
+        return block;
+    }
+
+    public FalseProgram getSource(){
+        return program;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.interpreter.specializing;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.Operation;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations.*;
+import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
+
+/**
+ * This node resembles an operation that hasn't been executed yet.
+ * On its first execution it replaces itself by the node specialized for the operands it observes.
+ */
+class UninitializedNode extends Node {
+
+    private Operation operation;
+    private SpecializingInterpreter owner;
+
+    UninitializedNode(Operation operation, SpecializingInterpreter owner){
+        this.operation = operation;
+        this.owner = owner;
+    }
+
+    @Override
+    void execute(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+            throws InterpretError {
+
+        replace(specialize(stack)).execute(stack, variables, interpreter, indicator);
+    }
+
+    /**
+     * This method creates the node that is specialized for the current items on the given stack
+     * @param stack the stack the operation is about to be executed with
+     * @return the specialized node
+     */
+    private Node specialize(OperandStack stack){
+        int index = operation.getIndex();
+
+        if(operation instanceof AddOperation || operation instanceof SubtractOperation || operation instanceof MultiplyOperation
+                || operation instanceof EqualsOperation || operation instanceof GreaterThanOperation){
+            return integers(stack, 2)? new IntegerOperatorNode(operation): new GenericNode(operation);
+        }else if(operation instanceof AddConstantOperation || operation instanceof CompareZeroOperation){
+            return integers(stack, 1)? new IntegerOperatorNode(operation): new GenericNode(operation);
+        }else if(operation instanceof InlineCallOperation){
+            return new BoundCallNode(owner.blockOf(((InlineCallOperation) operation).getFunction()), false, index);
+        }else if(operation instanceof ConditionalCallOperation){
+            return new BoundCallNode(owner.blockOf(((ConditionalCallOperation) operation).getFunction()), true, index);
+        }else if(operation instanceof ExecutionOperation){
+            return new ExecuteNode(index, owner, function(stack, 0));
+        }else if(operation instanceof IfOperation){
+            return new IfNode(index, owner, function(stack, 0));
+        }else if(operation instanceof WhileOperation){
+            return new WhileNode(index, owner, function(stack, 1), function(stack, 0));
+        }else{
+            return new GenericNode(operation);
+        }
+    }
+
+    /**
+     * This method determines whether the given amount of topmost items are integers
+     */
+    private static boolean integers(OperandStack stack, int count){
+        if(stack.size() < count){
+            return false;
+        }
+
+        for(int i = 0; i < count; i++){
+            if(stack.getType(i) != OperandStack.TYPE_INTEGER){
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * This method gives you the function at the given depth of the stack
+     * @return the function; {@code null} if the item is no function
+     */
+    private static Function function(OperandStack stack, int depth){
+        if(depth < stack.size() && stack.getType(depth) == OperandStack.TYPE_FUNCTION){
+            return stack.getFunctionReference(depth);
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ *      Copyright 2016 Jean-Pierre Hotz
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.jeanpierrehotz.falseprogramminglanguage.interpreter.specializing;
+
+import de.jeanpierrehotz.falseprogramminglanguage.data.ExecutionAbortIndicator;
+import de.jeanpierrehotz.falseprogramminglanguage.data.OperandStack;
+import de.jeanpierrehotz.falseprogramminglanguage.data.VariableMemory;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.EmptyStackInterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.data.error.InterpretError;
+import de.jeanpierrehotz.falseprogramminglanguage.data.operationimplementations.Function;
+import de.jeanpierrehotz.falseprogramminglanguage.interpreter.FalseInterpreter;
+
+/**
+ * This node executes a while-loop ({@code #}).
+ * The condition and the body are cached just like it is done by the {@link ExecuteNode};
+ * if either of them changes the node replaces itself by a node without cache.
+ */
+class WhileNode extends Node {
+
+    private int index;
+    private SpecializingInterpreter owner;
+
+    /**
+     * The condition and the body this node has been specialized for; both {@code null} if the node is not specialized
+     */
+    private Function cachedCondition;
+    private Function cachedBody;
+    private Block cachedConditionBlock;
+    private Block cachedBodyBlock;
+
+    WhileNode(int index, SpecializingInterpreter owner, Function cachedCondition, Function cachedBody){
+        this.index = index;
+        this.owner = owner;
+
+        if(cachedCondition != null && cachedBody != null){
+            this.cachedCondition = cachedCondition;
+            this.cachedBody = cachedBody;
+            this.cachedConditionBlock = owner.blockOf(cachedCondition);
+            this.cachedBodyBlock = owner.blockOf(cachedBody);
+        }
+    }
+
+    @Override
+    void execute(OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator)
+            throws InterpretError {
+
+        if(stack.size() < 2){
+            throw new EmptyStackInterpretError(index);
+        }
+
+        Function boolfunc = stack.getFunction(1, index);
+        Function func = stack.getFunction(0, index);
+        stack.drop(2);
+
+        Block condition;
+        Block body;
+        if(boolfunc == cachedCondition && func == cachedBody){
+            condition = cachedConditionBlock;
+            body = cachedBodyBlock;
+        }else{
+            if(cachedCondition != null){
+                replace(new WhileNode(index, owner, null, null));
+            }
+
+            condition = owner.blockOf(boolfunc);
+            body = owner.blockOf(func);
+        }
+
+        while(evaluateCondition(condition, stack, variables, interpreter, indicator)){
+            body.execute(stack, variables, interpreter, indicator);
+        }
+    }
+
+    private boolean evaluateCondition(Block condition, OperandStack stack, VariableMemory variables, FalseInterpreter interpreter, ExecutionAbortIndicator indicator) throws InterpretError {
+        condition.execute(stack, variables, interpreter, indicator);
+
+        if(stack.size() < 1){
+            throw new EmptyStackInterpretError(index);
+        }
+
+        boolean n = stack.getBoolean(0, index);
+        stack.drop(1);
+
+        return n;
+    }
+}